@@ -0,0 +1,37 @@
+package com.songo.config;
+
+import com.songo.service.id.BusinessIds;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.core.env.Profiles;
+
+/**
+ * Sets this node's id for business number generation. {@code ids.node-id}
+ * (0-1023) must be set uniquely per backend instance; startup fails without
+ * it, except under the single-node dev and test profiles, which use node 0.
+ */
+@Configuration
+public class BusinessIdConfig {
+
+    private static final Logger logger = LoggerFactory.getLogger(BusinessIdConfig.class);
+
+    @Bean
+    public BusinessIds businessIds(@Value("${ids.node-id:}") String nodeId, Environment environment) {
+        if (nodeId == null || nodeId.isBlank()) {
+            if (!environment.acceptsProfiles(Profiles.of("dev", "test"))) {
+                throw new IllegalStateException("ids.node-id (NODE_ID) is not set. Give every backend node "
+                                                + "a different id from 0 to 1023.");
+            }
+            logger.warn("ids.node-id is not set; using node id 0 for the {} profile",
+                        String.join(",", environment.getActiveProfiles()));
+            return new BusinessIds(0);
+        }
+        BusinessIds businessIds = new BusinessIds(Integer.parseInt(nodeId.trim()));
+        logger.info("Business ids use node id {}", businessIds.getNodeId());
+        return businessIds;
+    }
+}
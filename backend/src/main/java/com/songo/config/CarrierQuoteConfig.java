@@ -0,0 +1,43 @@
+package com.songo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for concurrent carrier quote fan-out
+ */
+@Configuration
+public class CarrierQuoteConfig {
+
+    @Value("${carriers.quote.pool-size:16}")
+    private int poolSize;
+
+    @Value("${carriers.quote.queue-capacity:200}")
+    private int queueCapacity;
+
+    /**
+     * Bounded executor used to call carrier APIs in parallel.
+     * Submissions beyond the queue capacity are rejected rather than
+     * blocking the request thread, and are reported as failed carriers.
+     */
+    @Bean(name = "carrierQuoteExecutor", destroyMethod = "shutdown")
+    public ExecutorService carrierQuoteExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("carrier-quote-"),
+            new ThreadPoolExecutor.AbortPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
@@ -0,0 +1,44 @@
+package com.songo.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Configuration for assembling user dashboards
+ */
+@Configuration
+public class DashboardConfig {
+
+    @Value("${dashboard.pool-size:8}")
+    private int poolSize;
+
+    @Value("${dashboard.queue-capacity:100}")
+    private int queueCapacity;
+
+    /**
+     * Bounded executor that runs a dashboard's independent queries in parallel.
+     * Each query holds a pool connection, so the pool size also caps how many
+     * connections dashboard loads take at once. When the queue is full the
+     * request thread runs the query itself.
+     */
+    @Bean(name = "dashboardExecutor", destroyMethod = "shutdown")
+    public ExecutorService dashboardExecutor() {
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(
+            poolSize,
+            poolSize,
+            60L, TimeUnit.SECONDS,
+            new ArrayBlockingQueue<>(queueCapacity),
+            new CustomizableThreadFactory("dashboard-"),
+            new ThreadPoolExecutor.CallerRunsPolicy()
+        );
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
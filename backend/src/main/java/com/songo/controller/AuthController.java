@@ -3,6 +3,7 @@ package com.songo.controller;
 import com.songo.dto.auth.JwtResponse;
 import com.songo.dto.auth.LoginRequest;
 import com.songo.dto.auth.RegisterRequest;
+import com.songo.dto.auth.UserResponse;
 import com.songo.model.User;
 import com.songo.repository.UserRepository;
 import com.songo.security.JwtUtil;
@@ -95,7 +96,7 @@ public class AuthController {
                     String jwt = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name(), savedUser.getId());
 
                     response.put("message", "Account reactivated successfully!");
-                    response.put("user", savedUser);
+                    response.put("user", UserResponse.from(savedUser));
                     response.put("token", jwt);
                     return ResponseEntity.ok(response);
                 } else {
@@ -127,7 +128,7 @@ public class AuthController {
             String jwt = jwtUtil.generateToken(savedUser.getEmail(), savedUser.getRole().name(), savedUser.getId());
 
             response.put("message", "User registered successfully!");
-            response.put("user", savedUser);
+            response.put("user", UserResponse.from(savedUser));
             response.put("token", jwt);
             return ResponseEntity.ok(response);
 
@@ -155,7 +156,7 @@ public class AuthController {
         }
 
         User user = (User) authentication.getPrincipal();
-        Optional<User> currentUser = userRepository.findById(user.getId());
+        Optional<UserResponse> currentUser = userRepository.findResponseById(user.getId());
         
         if (currentUser.isPresent()) {
             return ResponseEntity.ok(currentUser.get());
@@ -1,10 +1,8 @@
 package com.songo.controller;
 
-import com.songo.model.Quote;
-import com.songo.model.Shipment;
+import com.songo.dto.dashboard.DashboardSnapshot;
 import com.songo.model.User;
-import com.songo.service.QuoteService;
-import com.songo.service.ShipmentService;
+import com.songo.service.DashboardService;
 import com.songo.service.TrackingService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.HttpStatus;
@@ -12,10 +10,8 @@ import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
-import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.HashMap;
-import java.util.List;
 import java.util.Map;
 
 /**
@@ -27,10 +23,7 @@ import java.util.Map;
 public class DashboardController {
 
     @Autowired
-    private QuoteService quoteService;
-
-    @Autowired
-    private ShipmentService shipmentService;
+    private DashboardService dashboardService;
 
     @Autowired
     private TrackingService trackingService;
@@ -39,53 +32,7 @@ public class DashboardController {
     public ResponseEntity<?> getDashboardStats(Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
-            
-            Map<String, Object> stats = new HashMap<>();
-            
-            // Quote statistics
-            Map<String, Object> quoteStats = new HashMap<>();
-            quoteStats.put("total", quoteService.getUserQuoteCount(user));
-            quoteStats.put("pending", quoteService.getUserQuoteCountByStatus(user, Quote.QuoteStatus.PENDING));
-            quoteStats.put("quoted", quoteService.getUserQuoteCountByStatus(user, Quote.QuoteStatus.QUOTED));
-            quoteStats.put("accepted", quoteService.getUserQuoteCountByStatus(user, Quote.QuoteStatus.ACCEPTED));
-            quoteStats.put("rejected", quoteService.getUserQuoteCountByStatus(user, Quote.QuoteStatus.REJECTED));
-            quoteStats.put("expired", quoteService.getUserQuoteCountByStatus(user, Quote.QuoteStatus.EXPIRED));
-            stats.put("quotes", quoteStats);
-            
-            // Shipment statistics
-            Map<String, Object> shipmentStats = new HashMap<>();
-            shipmentStats.put("total", shipmentService.getUserShipmentCount(user));
-            shipmentStats.put("pending", shipmentService.getUserShipmentCountByStatus(user, Shipment.ShipmentStatus.PENDING));
-            shipmentStats.put("inTransit", shipmentService.getUserShipmentCountByStatus(user, Shipment.ShipmentStatus.IN_TRANSIT));
-            shipmentStats.put("delivered", shipmentService.getUserShipmentCountByStatus(user, Shipment.ShipmentStatus.DELIVERED));
-            shipmentStats.put("cancelled", shipmentService.getUserShipmentCountByStatus(user, Shipment.ShipmentStatus.CANCELLED));
-            shipmentStats.put("exception", shipmentService.getUserShipmentCountByStatus(user, Shipment.ShipmentStatus.EXCEPTION));
-            stats.put("shipments", shipmentStats);
-            
-            // Recent activity
-            List<Quote> recentQuotes = quoteService.getUserQuotes(user).stream().limit(5).toList();
-            List<Shipment> recentShipments = shipmentService.getUserShipments(user).stream().limit(5).toList();
-            
-            stats.put("recentQuotes", recentQuotes);
-            stats.put("recentShipments", recentShipments);
-            
-            // Financial summary (if available)
-            Map<String, Object> financialStats = new HashMap<>();
-            BigDecimal totalQuoteValue = recentQuotes.stream()
-                    .filter(q -> q.getEstimatedPrice() != null)
-                    .map(Quote::getEstimatedPrice)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            financialStats.put("totalQuoteValue", totalQuoteValue);
-            
-            BigDecimal totalShipmentCost = recentShipments.stream()
-                    .filter(s -> s.getTotalCost() != null)
-                    .map(Shipment::getTotalCost)
-                    .reduce(BigDecimal.ZERO, BigDecimal::add);
-            financialStats.put("totalShipmentCost", totalShipmentCost);
-            
-            stats.put("financial", financialStats);
-            
-            return ResponseEntity.ok(stats);
+            return ResponseEntity.ok(dashboardService.getDashboard(user));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch dashboard statistics: " + e.getMessage());
@@ -103,24 +50,18 @@ public class DashboardController {
             
             Map<String, Object> activity = new HashMap<>();
             
-            // Recent quotes
-            List<Quote> recentQuotes = quoteService.getUserQuotes(user).stream()
-                    .limit(limit)
-                    .toList();
-            activity.put("recentQuotes", recentQuotes);
-            
-            // Recent shipments
-            List<Shipment> recentShipments = shipmentService.getUserShipments(user).stream()
-                    .limit(limit)
-                    .toList();
-            activity.put("recentShipments", recentShipments);
+            // Recent quotes and shipments
+            activity.put("recentQuotes", dashboardService.getRecentQuotes(user, limit));
+            activity.put("recentShipments", dashboardService.getRecentShipments(user, limit));
             
             // Recent tracking updates
-            activity.put("recentTracking", trackingService.getUserShipmentTracking(user).stream()
-                    .limit(limit)
-                    .toList());
+            activity.put("recentTracking", trackingService.getUserShipmentTracking(user, null, limit).getItems());
             
             return ResponseEntity.ok(activity);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch recent activity: " + e.getMessage());
@@ -136,10 +77,11 @@ public class DashboardController {
             Map<String, Object> summary = new HashMap<>();
             
             // Quick counts
-            summary.put("totalQuotes", quoteService.getUserQuoteCount(user));
-            summary.put("totalShipments", shipmentService.getUserShipmentCount(user));
-            summary.put("activeShipments", shipmentService.getUserShipmentCountByStatus(user, Shipment.ShipmentStatus.IN_TRANSIT));
-            summary.put("pendingQuotes", quoteService.getUserQuoteCountByStatus(user, Quote.QuoteStatus.PENDING));
+            DashboardSnapshot dashboard = dashboardService.getDashboard(user);
+            summary.put("totalQuotes", dashboard.quotes().get("total"));
+            summary.put("totalShipments", dashboard.shipments().get("total"));
+            summary.put("activeShipments", dashboard.shipments().get("inTransit"));
+            summary.put("pendingQuotes", dashboard.quotes().get("pending"));
             
             // User info
             Map<String, Object> userInfo = new HashMap<>();
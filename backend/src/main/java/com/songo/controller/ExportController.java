@@ -0,0 +1,83 @@
+package com.songo.controller;
+
+import com.songo.model.User;
+import com.songo.service.export.ExportFormat;
+import com.songo.service.export.ExportService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Controller for downloading a user's shipments, invoices and payments.
+ * Rows are streamed as they are read, as CSV (default) or NDJSON, optionally gzipped.
+ */
+@RestController
+@RequestMapping("/api/exports")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class ExportController {
+
+    @Autowired
+    private ExportService exportService;
+
+    @GetMapping("/shipments")
+    public ResponseEntity<?> exportShipments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication) {
+        return stream("shipments", format, gzip, authentication, exportService::exportShipments);
+    }
+
+    @GetMapping("/invoices")
+    public ResponseEntity<?> exportInvoices(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication) {
+        return stream("invoices", format, gzip, authentication, exportService::exportInvoices);
+    }
+
+    @GetMapping("/payments")
+    public ResponseEntity<?> exportPayments(
+            @RequestParam(defaultValue = "csv") String format,
+            @RequestParam(defaultValue = "false") boolean gzip,
+            Authentication authentication) {
+        return stream("payments", format, gzip, authentication, exportService::exportPayments);
+    }
+
+    private ResponseEntity<?> stream(String name, String format, boolean gzip,
+                                     Authentication authentication, Exporter exporter) {
+        ExportFormat exportFormat;
+        try {
+            exportFormat = ExportFormat.parse(format);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
+        }
+
+        User user = (User) authentication.getPrincipal();
+        String filename = name + "-" + LocalDate.now() + "." + exportFormat.getExtension() + (gzip ? ".gz" : "");
+        StreamingResponseBody body = out -> exporter.export(user, exportFormat, gzip, out);
+        return ResponseEntity.ok()
+            .contentType(gzip ? MediaType.parseMediaType("application/gzip") : exportFormat.getMediaType())
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .cacheControl(CacheControl.noStore())
+            .body(body);
+    }
+
+    @FunctionalInterface
+    private interface Exporter {
+        long export(User user, ExportFormat format, boolean gzip, OutputStream out) throws IOException;
+    }
+}
@@ -0,0 +1,33 @@
+package com.songo.controller;
+
+import com.songo.dto.ResourceVersion;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.context.request.WebRequest;
+
+/**
+ * Conditional GET support for controllers. Handlers look up a cheap
+ * {@link ResourceVersion} first and answer 304 before loading or serializing
+ * anything when the client's copy is current.
+ */
+final class HttpCaching {
+
+    // Browsers keep user-specific responses but revalidate them with the ETag on every poll
+    static final CacheControl PRIVATE_REVALIDATE = CacheControl.noCache().cachePrivate();
+
+    private HttpCaching() {}
+
+    /**
+     * Check If-None-Match / If-Modified-Since against the version. Sets ETag and
+     * Last-Modified on the response either way; {@code variant} holds the
+     * request parameters that shape the response.
+     */
+    static boolean isNotModified(WebRequest webRequest, ResourceVersion version, Object... variant) {
+        return !version.isEmpty() && webRequest.checkNotModified(version.etag(variant), version.lastModifiedMillis());
+    }
+
+    static ResponseEntity<?> notModified(CacheControl cacheControl) {
+        return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(cacheControl).build();
+    }
+}
@@ -1,5 +1,6 @@
 package com.songo.controller;
 
+import com.songo.dto.CursorPage;
 import com.songo.dto.PaymentIntentRequest;
 import com.songo.dto.PaymentIntentResponse;
 import com.songo.dto.PaymentResponse;
@@ -13,9 +14,6 @@ import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
@@ -35,6 +33,8 @@ public class PaymentController {
     
     private static final Logger logger = LoggerFactory.getLogger(PaymentController.class);
     
+    private static final int MAX_PAGE_SIZE = 200;
+    
     private final PaymentService paymentService;
     private final UserService userService;
     private final ShipmentService shipmentService;
@@ -146,20 +146,23 @@ public class PaymentController {
      * Get user's payment history
      */
     @GetMapping("/history")
-    @Operation(summary = "Get payment history", description = "Get user's payment history with pagination")
-    public ResponseEntity<Page<PaymentResponse>> getPaymentHistory(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
+    @Operation(summary = "Get payment history", description = "Get user's payment history newest first, continuing from a cursor")
+    public ResponseEntity<CursorPage<PaymentResponse>> getPaymentHistory(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit,
             Authentication authentication) {
         
         try {
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                return ResponseEntity.badRequest().build();
+            }
+            
             User user = userService.findByEmail(authentication.getName())
                 .orElseThrow(() -> new RuntimeException("User not found"));
             
-            Pageable pageable = PageRequest.of(page, size);
-            Page<Payment> payments = paymentService.getPaymentsByUser(user, pageable);
+            CursorPage<Payment> payments = paymentService.getPaymentsByUser(user, cursor, limit);
             
-            Page<PaymentResponse> response = payments.map(PaymentResponse::fromPayment);
+            CursorPage<PaymentResponse> response = payments.map(PaymentResponse::fromPayment);
             return ResponseEntity.ok(response);
             
         } catch (Exception e) {
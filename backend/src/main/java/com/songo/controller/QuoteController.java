@@ -1,25 +1,39 @@
 package com.songo.controller;
 
+import com.songo.dto.CursorPage;
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.quote.CarrierQuoteResult;
 import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteView;
 import com.songo.model.Quote;
 import com.songo.model.User;
+import com.songo.service.CarrierRateCache;
+import com.songo.service.QuoteBatchService;
 import com.songo.service.QuoteService;
+import com.songo.service.pricing.PricingEngine;
 import jakarta.validation.Valid;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
 
+import static com.songo.controller.HttpCaching.PRIVATE_REVALIDATE;
+import static com.songo.controller.HttpCaching.isNotModified;
+import static com.songo.controller.HttpCaching.notModified;
+
 /**
  * Controller for Quote operations
  */
@@ -28,15 +42,23 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class QuoteController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private QuoteService quoteService;
 
+    @Autowired
+    private CarrierRateCache carrierRateCache;
+
+    @Autowired
+    private QuoteBatchService quoteBatchService;
+
     @PostMapping
     public ResponseEntity<?> createQuote(@Valid @RequestBody QuoteRequest request, Authentication authentication) {
         try {
             User user = (User) authentication.getPrincipal();
             Quote quote = quoteService.createQuote(request, user);
-            return ResponseEntity.ok(quote);
+            return ResponseEntity.ok(QuoteView.from(quote));
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to create quote: " + e.getMessage());
@@ -44,30 +66,101 @@ public class QuoteController {
         }
     }
 
+    @PostMapping("/rates")
+    public ResponseEntity<?> getCarrierRates(@Valid @RequestBody QuoteRequest request) {
+        try {
+            CarrierQuoteResult result = quoteService.getCarrierRates(request);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to fetch carrier rates: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
+    /**
+     * Stream carrier rates as each carrier answers (SSE)
+     */
+    @PostMapping(value = "/rates/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamCarrierRates(@Valid @RequestBody QuoteRequest request) {
+        return quoteService.streamCarrierRates(request);
+    }
+
+    /**
+     * Rate a JSON array of quote requests; results are streamed as NDJSON
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.APPLICATION_JSON_VALUE)
+    public ResponseEntity<?> createQuoteBatch(@RequestBody List<QuoteRequest> requests, Authentication authentication) {
+        User user = (User) authentication.getPrincipal();
+        return streamBatch(quoteBatchService.fromRequests(requests), user);
+    }
+
+    /**
+     * Rate a CSV upload of quote requests; results are streamed as NDJSON
+     */
+    @PostMapping(value = "/batch", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    public ResponseEntity<?> uploadQuoteBatch(@RequestParam("file") MultipartFile file, Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+            return streamBatch(quoteBatchService.readCsv(file.getInputStream()), user);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to read quote batch: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        }
+    }
+
+    private ResponseEntity<?> streamBatch(List<QuoteBatchService.BatchLine> lines, User user) {
+        if (lines.size() > quoteBatchService.getMaxLines()) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Batch exceeds " + quoteBatchService.getMaxLines() + " lines");
+            return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+        }
+        StreamingResponseBody body = out -> quoteBatchService.rateBatch(lines, user, out);
+        return ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_NDJSON)
+            .body(body);
+    }
+
+    /**
+     * List the user's quotes newest first, continuing from {@code cursor}.
+     * A {@code search} is ranked by relevance instead and paged by {@code page}.
+     */
     @GetMapping
     public ResponseEntity<?> getUserQuotes(
-            @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size,
-            @RequestParam(defaultValue = "createdAt") String sortBy,
-            @RequestParam(defaultValue = "desc") String sortDir,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "10") int limit,
             @RequestParam(required = false) String search,
-            Authentication authentication) {
+            @RequestParam(defaultValue = "0") int page,
+            Authentication authentication,
+            WebRequest webRequest) {
         
         try {
             User user = (User) authentication.getPrincipal();
             
-            Sort sort = sortDir.equalsIgnoreCase("desc") ? 
-                Sort.by(sortBy).descending() : Sort.by(sortBy).ascending();
-            Pageable pageable = PageRequest.of(page, size, sort);
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Limit must be between 1 and " + MAX_PAGE_SIZE);
+                return ResponseEntity.badRequest().body(error);
+            }
+            
+            ResourceVersion version = quoteService.getUserQuotesVersion(user);
+            if (isNotModified(webRequest, version, cursor, limit, search, page)) {
+                return notModified(PRIVATE_REVALIDATE);
+            }
             
-            Page<Quote> quotes;
             if (search != null && !search.trim().isEmpty()) {
-                quotes = quoteService.searchUserQuotes(user, search.trim(), pageable);
-            } else {
-                quotes = quoteService.getUserQuotes(user, pageable);
+                Page<QuoteView> quotes = quoteService.searchUserQuotes(user, search.trim(), PageRequest.of(page, limit))
+                    .map(QuoteView::from);
+                return ResponseEntity.ok().cacheControl(PRIVATE_REVALIDATE).body(quotes);
             }
             
-            return ResponseEntity.ok(quotes);
+            CursorPage<QuoteView> quotes = quoteService.getUserQuotes(user, cursor, limit).map(QuoteView::from);
+            return ResponseEntity.ok().cacheControl(PRIVATE_REVALIDATE).body(quotes);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch quotes: " + e.getMessage());
@@ -91,7 +184,7 @@ public class QuoteController {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
                 }
                 
-                return ResponseEntity.ok(quote);
+                return ResponseEntity.ok(QuoteView.from(quote));
             } else {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "Quote not found");
@@ -120,7 +213,7 @@ public class QuoteController {
                     return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
                 }
                 
-                return ResponseEntity.ok(quote);
+                return ResponseEntity.ok(QuoteView.from(quote));
             } else {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "Quote not found");
@@ -142,7 +235,7 @@ public class QuoteController {
         try {
             User user = (User) authentication.getPrincipal();
             Quote updatedQuote = quoteService.updateQuoteStatus(id, status, user);
-            return ResponseEntity.ok(updatedQuote);
+            return ResponseEntity.ok(QuoteView.from(updatedQuote));
         } catch (RuntimeException e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", e.getMessage());
@@ -205,25 +298,15 @@ public class QuoteController {
             tempQuote.setWeight(request.getWeight());
             tempQuote.setOriginState(request.getOriginState());
             tempQuote.setDestinationState(request.getDestinationState());
+            tempQuote.setOriginZip(request.getOriginZip());
+            tempQuote.setDestinationZip(request.getDestinationZip());
             
-            // Use the same calculation logic from QuoteService
-            // This is a simplified version for quick quotes
-            double basePrice = 50.0;
-            double weightFactor = request.getWeight() * 0.5;
-            double distanceFactor = request.getOriginState().equals(request.getDestinationState()) ? 100.0 : 300.0;
-            double typeFactor = switch (request.getShipmentType()) {
-                case PARCEL -> 0.0;
-                case LTL -> 100.0;
-                case FTL -> 500.0;
-                case FREIGHT -> 200.0;
-                case EXPEDITED -> 300.0;
-            };
-            
-            double totalPrice = basePrice + weightFactor + distanceFactor + typeFactor;
+            // Same rate card as QuoteService, without market variation
+            long priceCents = quoteService.estimatePriceCents(tempQuote);
             
             Map<String, Object> quickQuote = new HashMap<>();
-            quickQuote.put("estimatedPrice", Math.round(totalPrice * 100.0) / 100.0);
-            quickQuote.put("estimatedTransitDays", request.getOriginState().equals(request.getDestinationState()) ? 2 : 5);
+            quickQuote.put("estimatedPrice", PricingEngine.toAmount(priceCents));
+            quickQuote.put("estimatedTransitDays", quoteService.estimateTransitDays(tempQuote));
             quickQuote.put("message", "This is an estimated quote. Please register to get an official quote.");
             
             return ResponseEntity.ok(quickQuote);
@@ -233,4 +316,35 @@ public class QuoteController {
             return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
         }
     }
+
+    // Admin endpoints
+    @DeleteMapping("/admin/rate-cache")
+    public ResponseEntity<?> invalidateRateCache(
+            @RequestParam(required = false) String carrier,
+            Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+
+            if (!user.isAdmin()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Admin access required");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            if (carrier != null && !carrier.trim().isEmpty()) {
+                carrierRateCache.invalidateCarrier(carrier.trim());
+            } else {
+                carrierRateCache.invalidateAll();
+            }
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("message", "Rate cache invalidated");
+            response.put("remainingEntries", carrierRateCache.size());
+            return ResponseEntity.ok(response);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to invalidate rate cache: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
 }
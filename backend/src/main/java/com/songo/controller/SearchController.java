@@ -0,0 +1,76 @@
+package com.songo.controller;
+
+import com.songo.model.User;
+import com.songo.service.search.SearchDocumentType;
+import com.songo.service.search.SearchHits;
+import com.songo.service.search.SearchIndexService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.EnumSet;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Controller for searching across quotes, shipments, invoices and addresses
+ */
+@RestController
+@RequestMapping("/api/search")
+@CrossOrigin(origins = "*", maxAge = 3600)
+public class SearchController {
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    /**
+     * Search the current user's records (all records for admins)
+     */
+    @GetMapping
+    public ResponseEntity<?> search(
+            @RequestParam String q,
+            @RequestParam(required = false) List<String> types,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size,
+            Authentication authentication) {
+
+        try {
+            User user = (User) authentication.getPrincipal();
+            if (!searchIndexService.isReady()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Search index is being rebuilt, please try again shortly");
+                return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error);
+            }
+
+            Set<SearchDocumentType> documentTypes = EnumSet.noneOf(SearchDocumentType.class);
+            if (types != null) {
+                for (String type : types) {
+                    documentTypes.add(SearchDocumentType.valueOf(type.trim().toUpperCase(Locale.ROOT)));
+                }
+            }
+            int pageSize = Math.max(1, Math.min(size, 100));
+            SearchHits hits = searchIndexService.search(q, documentTypes,
+                user.isAdmin() ? null : user.getId(), Math.max(0, page) * pageSize, pageSize);
+
+            Map<String, Object> response = new HashMap<>();
+            response.put("results", hits.hits());
+            response.put("totalHits", hits.totalHits());
+            response.put("page", page);
+            response.put("size", pageSize);
+            return ResponseEntity.ok(response);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Unknown search type: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.BAD_REQUEST).body(error);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Search failed: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+}
@@ -1,18 +1,32 @@
 package com.songo.controller;
 
-import com.songo.model.TrackingEvent;
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.tracking.PublicTrackingEvent;
+import com.songo.dto.tracking.ShipmentTrackingPage;
+import com.songo.dto.tracking.TrackingEventRequest;
+import com.songo.dto.tracking.TrackingEventView;
+import com.songo.dto.tracking.TrackingIngestResult;
 import com.songo.model.User;
+import com.songo.service.TrackingIngestionService;
 import com.songo.service.TrackingService;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.CacheControl;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+import static com.songo.controller.HttpCaching.PRIVATE_REVALIDATE;
+import static com.songo.controller.HttpCaching.isNotModified;
+import static com.songo.controller.HttpCaching.notModified;
 
 /**
  * Controller for tracking operations
@@ -22,11 +36,23 @@ import java.util.Optional;
 @CrossOrigin(origins = "*", maxAge = 3600)
 public class TrackingController {
 
+    private static final int MAX_PAGE_SIZE = 200;
+
     @Autowired
     private TrackingService trackingService;
 
+    @Autowired
+    private TrackingIngestionService trackingIngestionService;
+
+    @Value("${tracking.http.public-max-age-seconds:30}")
+    private long publicMaxAgeSeconds;
+
+    @Value("${tracking.http.public-stale-while-revalidate-seconds:30}")
+    private long publicStaleWhileRevalidateSeconds;
+
     @GetMapping("/{trackingNumber}")
-    public ResponseEntity<?> getTrackingHistory(@PathVariable String trackingNumber, Authentication authentication) {
+    public ResponseEntity<?> getTrackingHistory(@PathVariable String trackingNumber, Authentication authentication,
+                                                WebRequest webRequest) {
         try {
             User user = (User) authentication.getPrincipal();
             
@@ -37,7 +63,12 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
             }
             
-            List<TrackingEvent> trackingHistory = trackingService.getTrackingHistory(trackingNumber);
+            ResourceVersion version = trackingService.getTrackingVersion(trackingNumber);
+            if (isNotModified(webRequest, version, "history")) {
+                return notModified(PRIVATE_REVALIDATE);
+            }
+            
+            List<TrackingEventView> trackingHistory = trackingService.getTrackingHistory(trackingNumber);
             
             if (trackingHistory.isEmpty()) {
                 Map<String, String> error = new HashMap<>();
@@ -45,7 +76,7 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
             
-            return ResponseEntity.ok(trackingHistory);
+            return ResponseEntity.ok().cacheControl(PRIVATE_REVALIDATE).body(trackingHistory);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch tracking information: " + e.getMessage());
@@ -54,7 +85,8 @@ public class TrackingController {
     }
 
     @GetMapping("/{trackingNumber}/latest")
-    public ResponseEntity<?> getLatestTrackingEvent(@PathVariable String trackingNumber, Authentication authentication) {
+    public ResponseEntity<?> getLatestTrackingEvent(@PathVariable String trackingNumber, Authentication authentication,
+                                                    WebRequest webRequest) {
         try {
             User user = (User) authentication.getPrincipal();
             
@@ -65,10 +97,15 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
             }
             
-            Optional<TrackingEvent> latestEvent = trackingService.getLatestTrackingEvent(trackingNumber);
+            ResourceVersion version = trackingService.getTrackingVersion(trackingNumber);
+            if (isNotModified(webRequest, version, "latest")) {
+                return notModified(PRIVATE_REVALIDATE);
+            }
+            
+            Optional<TrackingEventView> latestEvent = trackingService.getLatestTrackingEvent(trackingNumber);
             
             if (latestEvent.isPresent()) {
-                return ResponseEntity.ok(latestEvent.get());
+                return ResponseEntity.ok().cacheControl(PRIVATE_REVALIDATE).body(latestEvent.get());
             } else {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "No tracking information found for tracking number: " + trackingNumber);
@@ -86,7 +123,14 @@ public class TrackingController {
         try {
             User user = (User) authentication.getPrincipal();
             
-            List<TrackingEvent> trackingHistory = trackingService.getShipmentTrackingHistory(shipmentId);
+            // Check if user owns the shipment or is admin
+            if (!trackingService.canUserAccessShipment(shipmentId, user)) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Unauthorized to access this tracking information");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+            
+            List<TrackingEventView> trackingHistory = trackingService.getShipmentTrackingHistory(shipmentId);
             
             if (trackingHistory.isEmpty()) {
                 Map<String, String> error = new HashMap<>();
@@ -94,14 +138,6 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
             
-            // Check if user owns the shipment or is admin
-            TrackingEvent firstEvent = trackingHistory.get(0);
-            if (!firstEvent.getShipment().getUser().getId().equals(user.getId()) && !user.isAdmin()) {
-                Map<String, String> error = new HashMap<>();
-                error.put("message", "Unauthorized to access this tracking information");
-                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
-            }
-            
             return ResponseEntity.ok(trackingHistory);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -111,11 +147,27 @@ public class TrackingController {
     }
 
     @GetMapping("/my-shipments")
-    public ResponseEntity<?> getUserShipmentTracking(Authentication authentication) {
+    public ResponseEntity<?> getUserShipmentTracking(@RequestParam(required = false) String cursor,
+                                                     @RequestParam(defaultValue = "50") int limit,
+                                                     Authentication authentication,
+                                                     WebRequest webRequest) {
         try {
             User user = (User) authentication.getPrincipal();
-            List<TrackingEvent> userTracking = trackingService.getUserShipmentTracking(user);
-            return ResponseEntity.ok(userTracking);
+            if (limit < 1 || limit > MAX_PAGE_SIZE) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Limit must be between 1 and " + MAX_PAGE_SIZE);
+                return ResponseEntity.badRequest().body(error);
+            }
+            ResourceVersion version = trackingService.getUserShipmentTrackingVersion(user);
+            if (isNotModified(webRequest, version, cursor, limit)) {
+                return notModified(PRIVATE_REVALIDATE);
+            }
+            ShipmentTrackingPage userTracking = trackingService.getUserShipmentTracking(user, cursor, limit);
+            return ResponseEntity.ok().cacheControl(PRIVATE_REVALIDATE).body(userTracking);
+        } catch (IllegalArgumentException e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", e.getMessage());
+            return ResponseEntity.badRequest().body(error);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch user shipment tracking: " + e.getMessage());
@@ -123,11 +175,47 @@ public class TrackingController {
         }
     }
 
+    /**
+     * Bulk-ingest carrier scan events. Re-sent events are skipped as duplicates;
+     * shipments move to the status of their latest event, as with polled scans.
+     */
+    @PostMapping("/events/batch")
+    public ResponseEntity<?> ingestTrackingEvents(@RequestBody List<TrackingEventRequest> events,
+                                                  Authentication authentication) {
+        try {
+            User user = (User) authentication.getPrincipal();
+
+            if (!user.isAdmin()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Admin access required");
+                return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
+            }
+
+            if (events.size() > trackingIngestionService.getMaxEvents()) {
+                Map<String, String> error = new HashMap<>();
+                error.put("message", "Batch exceeds " + trackingIngestionService.getMaxEvents() + " events");
+                return ResponseEntity.status(HttpStatus.PAYLOAD_TOO_LARGE).body(error);
+            }
+
+            TrackingIngestResult result = trackingService.recordCarrierEvents(events);
+            return ResponseEntity.ok(result);
+        } catch (Exception e) {
+            Map<String, String> error = new HashMap<>();
+            error.put("message", "Failed to ingest tracking events: " + e.getMessage());
+            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
+        }
+    }
+
     // Public tracking endpoints (no authentication required)
     @GetMapping("/public/{trackingNumber}")
-    public ResponseEntity<?> getPublicTrackingHistory(@PathVariable String trackingNumber) {
+    public ResponseEntity<?> getPublicTrackingHistory(@PathVariable String trackingNumber, WebRequest webRequest) {
         try {
-            List<TrackingEvent> trackingHistory = trackingService.getPublicTrackingHistory(trackingNumber);
+            ResourceVersion version = trackingService.getTrackingVersion(trackingNumber);
+            if (isNotModified(webRequest, version, "public-history")) {
+                return notModified(publicCacheControl());
+            }
+            
+            List<PublicTrackingEvent> trackingHistory = trackingService.getPublicTrackingHistory(trackingNumber);
             
             if (trackingHistory.isEmpty()) {
                 Map<String, String> error = new HashMap<>();
@@ -135,7 +223,7 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.NOT_FOUND).body(error);
             }
             
-            return ResponseEntity.ok(trackingHistory);
+            return ResponseEntity.ok().cacheControl(publicCacheControl()).body(trackingHistory);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
             error.put("message", "Failed to fetch tracking information: " + e.getMessage());
@@ -144,12 +232,17 @@ public class TrackingController {
     }
 
     @GetMapping("/public/{trackingNumber}/latest")
-    public ResponseEntity<?> getPublicLatestTrackingEvent(@PathVariable String trackingNumber) {
+    public ResponseEntity<?> getPublicLatestTrackingEvent(@PathVariable String trackingNumber, WebRequest webRequest) {
         try {
-            Optional<TrackingEvent> latestEvent = trackingService.getPublicLatestTrackingEvent(trackingNumber);
+            ResourceVersion version = trackingService.getTrackingVersion(trackingNumber);
+            if (isNotModified(webRequest, version, "public-latest")) {
+                return notModified(publicCacheControl());
+            }
+            
+            Optional<PublicTrackingEvent> latestEvent = trackingService.getPublicLatestTrackingEvent(trackingNumber);
             
             if (latestEvent.isPresent()) {
-                return ResponseEntity.ok(latestEvent.get());
+                return ResponseEntity.ok().cacheControl(publicCacheControl()).body(latestEvent.get());
             } else {
                 Map<String, String> error = new HashMap<>();
                 error.put("message", "No tracking information found for tracking number: " + trackingNumber);
@@ -174,7 +267,7 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
             }
             
-            List<TrackingEvent> deliveredShipments = trackingService.getDeliveredShipments();
+            List<TrackingEventView> deliveredShipments = trackingService.getDeliveredShipments();
             return ResponseEntity.ok(deliveredShipments);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -194,7 +287,7 @@ public class TrackingController {
                 return ResponseEntity.status(HttpStatus.FORBIDDEN).body(error);
             }
             
-            List<TrackingEvent> exceptionsShipments = trackingService.getShipmentsWithExceptions();
+            List<TrackingEventView> exceptionsShipments = trackingService.getShipmentsWithExceptions();
             return ResponseEntity.ok(exceptionsShipments);
         } catch (Exception e) {
             Map<String, String> error = new HashMap<>();
@@ -202,4 +295,11 @@ public class TrackingController {
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR).body(error);
         }
     }
+
+    // Public tracking may be cached by browsers and shared caches for a short time
+    private CacheControl publicCacheControl() {
+        return CacheControl.maxAge(publicMaxAgeSeconds, TimeUnit.SECONDS)
+            .cachePublic()
+            .staleWhileRevalidate(publicStaleWhileRevalidateSeconds, TimeUnit.SECONDS);
+    }
 }
@@ -0,0 +1,77 @@
+package com.songo.dto;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * One page of a listing ordered newest first by (time, id). {@code nextCursor}
+ * is an opaque token for the page after the last item and is null on the
+ * last page. Queries for the next page filter on {@code time <= :time AND
+ * (time < :time OR id < :id)}: the first term gives the (user_id, time, id)
+ * index a range to seek into, which the OR alone does not.
+ */
+public class CursorPage<T> {
+
+    private List<T> items;
+    private String nextCursor;
+
+    // Constructors
+    public CursorPage() {}
+
+    public CursorPage(List<T> items, String nextCursor) {
+        this.items = items;
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * A page of up to {@code limit} items; a full page gets a cursor after its last item
+     */
+    public CursorPage(List<T> items, int limit, Function<T, Position> position) {
+        this.items = items;
+        if (items.size() == limit && limit > 0) {
+            Position last = position.apply(items.get(items.size() - 1));
+            this.nextCursor = encodeCursor(last.time(), last.id());
+        }
+    }
+
+    /**
+     * The same page with each item converted, keeping the cursor
+     */
+    public <R> CursorPage<R> map(Function<T, R> mapper) {
+        return new CursorPage<>(items.stream().map(mapper).toList(), nextCursor);
+    }
+
+    /**
+     * Opaque cursor for the position after (time, id)
+     */
+    public static String encodeCursor(LocalDateTime time, Long id) {
+        String position = time + "|" + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(position.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Decode a cursor from {@link #encodeCursor}; throws IllegalArgumentException if malformed
+     */
+    public static Position decodeCursor(String cursor) {
+        try {
+            String position = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = position.indexOf('|');
+            return new Position(LocalDateTime.parse(position.substring(0, separator)),
+                                Long.parseLong(position.substring(separator + 1)));
+        } catch (RuntimeException e) {
+            throw new IllegalArgumentException("Invalid cursor");
+        }
+    }
+
+    // Getters and Setters
+    public List<T> getItems() { return items; }
+    public void setItems(List<T> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public record Position(LocalDateTime time, Long id) {}
+}
@@ -0,0 +1,35 @@
+package com.songo.dto;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+
+/**
+ * Cheap change marker for a set of rows: row count, highest id and latest
+ * update time. Any insert, delete or entity update changes at least one of
+ * them, so it can answer conditional GETs without loading the rows.
+ */
+public record ResourceVersion(Long count, Long maxId, LocalDateTime lastModified) {
+
+    public boolean isEmpty() {
+        return count == null || count == 0;
+    }
+
+    /**
+     * Weak ETag for one representation of the rows; {@code variant} holds the
+     * request parameters that shape the response (page, sort, cursor...)
+     */
+    public String etag(Object... variant) {
+        return "W/\"" + Long.toHexString(count != null ? count : 0)
+               + "-" + Long.toHexString(maxId != null ? maxId : 0)
+               + "-" + Long.toHexString(lastModifiedMillis())
+               + "-" + Integer.toHexString(Arrays.hashCode(variant)) + "\"";
+    }
+
+    /**
+     * Last-Modified in epoch millis, or -1 when unknown
+     */
+    public long lastModifiedMillis() {
+        return lastModified != null ? lastModified.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli() : -1;
+    }
+}
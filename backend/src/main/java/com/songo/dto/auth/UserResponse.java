@@ -0,0 +1,27 @@
+package com.songo.dto.auth;
+
+import com.songo.model.User;
+
+import java.time.LocalDateTime;
+
+/**
+ * The account fields returned to the signed-in user; never the password
+ * hash, profile, addresses or shipments
+ */
+public record UserResponse(Long id,
+                           String email,
+                           String firstName,
+                           String lastName,
+                           String phone,
+                           User.Role role,
+                           User.Status status,
+                           Boolean emailVerified,
+                           LocalDateTime createdAt,
+                           LocalDateTime lastLogin) {
+
+    public static UserResponse from(User user) {
+        return new UserResponse(user.getId(), user.getEmail(), user.getFirstName(), user.getLastName(),
+                                user.getPhone(), user.getRole(), user.getStatus(), user.getEmailVerified(),
+                                user.getCreatedAt(), user.getLastLogin());
+    }
+}
@@ -0,0 +1,18 @@
+package com.songo.dto.dashboard;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * A user's dashboard: quote and shipment counts keyed by "total" and each
+ * status in camelCase (e.g. "inTransit"), the most recent quotes and
+ * shipments, and the value of those recent items.
+ */
+public record DashboardSnapshot(Map<String, Long> quotes,
+                                Map<String, Long> shipments,
+                                List<RecentQuote> recentQuotes,
+                                List<RecentShipment> recentShipments,
+                                Map<String, BigDecimal> financial,
+                                LocalDateTime computedAt) {}
@@ -0,0 +1,21 @@
+package com.songo.dto.dashboard;
+
+import com.songo.model.Quote;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A quote as listed in a user's recent activity
+ */
+public record RecentQuote(Long id,
+                          String quoteNumber,
+                          Quote.QuoteStatus status,
+                          Quote.ShipmentType shipmentType,
+                          String originCity,
+                          String originState,
+                          String destinationCity,
+                          String destinationState,
+                          BigDecimal estimatedPrice,
+                          LocalDateTime validUntil,
+                          LocalDateTime createdAt) {}
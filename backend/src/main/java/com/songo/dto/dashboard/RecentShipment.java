@@ -0,0 +1,21 @@
+package com.songo.dto.dashboard;
+
+import com.songo.model.Shipment;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * A shipment as listed in a user's recent activity
+ */
+public record RecentShipment(Long id,
+                             String shipmentNumber,
+                             String trackingNumber,
+                             String carrierName,
+                             Shipment.ShipmentStatus status,
+                             Shipment.ShipmentType shipmentType,
+                             BigDecimal totalCost,
+                             String currency,
+                             LocalDate estimatedDelivery,
+                             LocalDateTime createdAt) {}
@@ -0,0 +1,56 @@
+package com.songo.dto.quote;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Result for one line of a batch quote request
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class BatchQuoteResult {
+
+    private int line;
+    private String quoteNumber;
+    private BigDecimal estimatedPrice;
+    private Integer estimatedTransitDays;
+    private List<QuoteResponse> carrierQuotes;
+    private List<String> unavailableCarriers;
+    private String error;
+
+    // Constructors
+    public BatchQuoteResult() {}
+
+    public BatchQuoteResult(int line) {
+        this.line = line;
+    }
+
+    public static BatchQuoteResult failed(int line, String error) {
+        BatchQuoteResult result = new BatchQuoteResult(line);
+        result.setError(error);
+        return result;
+    }
+
+    // Getters and Setters
+    public int getLine() { return line; }
+    public void setLine(int line) { this.line = line; }
+
+    public String getQuoteNumber() { return quoteNumber; }
+    public void setQuoteNumber(String quoteNumber) { this.quoteNumber = quoteNumber; }
+
+    public BigDecimal getEstimatedPrice() { return estimatedPrice; }
+    public void setEstimatedPrice(BigDecimal estimatedPrice) { this.estimatedPrice = estimatedPrice; }
+
+    public Integer getEstimatedTransitDays() { return estimatedTransitDays; }
+    public void setEstimatedTransitDays(Integer estimatedTransitDays) { this.estimatedTransitDays = estimatedTransitDays; }
+
+    public List<QuoteResponse> getCarrierQuotes() { return carrierQuotes; }
+    public void setCarrierQuotes(List<QuoteResponse> carrierQuotes) { this.carrierQuotes = carrierQuotes; }
+
+    public List<String> getUnavailableCarriers() { return unavailableCarriers; }
+    public void setUnavailableCarriers(List<String> unavailableCarriers) { this.unavailableCarriers = unavailableCarriers; }
+
+    public String getError() { return error; }
+    public void setError(String error) { this.error = error; }
+}
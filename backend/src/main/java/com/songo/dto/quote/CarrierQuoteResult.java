@@ -0,0 +1,44 @@
+package com.songo.dto.quote;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Aggregated carrier quotes, including carriers that did not answer in time
+ */
+public class CarrierQuoteResult {
+
+    private List<QuoteResponse> quotes = new ArrayList<>();
+    private List<String> timedOutCarriers = new ArrayList<>();
+    private List<String> failedCarriers = new ArrayList<>();
+    private long elapsedMillis;
+
+    // Constructors
+    public CarrierQuoteResult() {}
+
+    public CarrierQuoteResult(List<QuoteResponse> quotes, List<String> timedOutCarriers,
+                              List<String> failedCarriers, long elapsedMillis) {
+        this.quotes = quotes;
+        this.timedOutCarriers = timedOutCarriers;
+        this.failedCarriers = failedCarriers;
+        this.elapsedMillis = elapsedMillis;
+    }
+
+    // Getters and Setters
+    public List<QuoteResponse> getQuotes() { return quotes; }
+    public void setQuotes(List<QuoteResponse> quotes) { this.quotes = quotes; }
+
+    public List<String> getTimedOutCarriers() { return timedOutCarriers; }
+    public void setTimedOutCarriers(List<String> timedOutCarriers) { this.timedOutCarriers = timedOutCarriers; }
+
+    public List<String> getFailedCarriers() { return failedCarriers; }
+    public void setFailedCarriers(List<String> failedCarriers) { this.failedCarriers = failedCarriers; }
+
+    public long getElapsedMillis() { return elapsedMillis; }
+    public void setElapsedMillis(long elapsedMillis) { this.elapsedMillis = elapsedMillis; }
+
+    // Utility methods
+    public boolean isPartial() {
+        return !timedOutCarriers.isEmpty() || !failedCarriers.isEmpty();
+    }
+}
@@ -0,0 +1,117 @@
+package com.songo.dto.quote;
+
+import com.songo.model.Quote;
+
+import java.util.Locale;
+import java.util.Objects;
+
+/**
+ * Canonical fingerprint of a quote request.
+ * Requests that carriers would rate identically (same postal prefixes,
+ * same billable weight and dimensions, same shipment type) share a fingerprint.
+ */
+public final class QuoteFingerprint {
+
+    private static final int POSTAL_PREFIX_LENGTH = 3;
+
+    private final String origin;
+    private final String destination;
+    private final Quote.ShipmentType shipmentType;
+    private final int weightBracket;
+    private final String weightUnit;
+    private final int lengthBracket;
+    private final int widthBracket;
+    private final int heightBracket;
+    private final String dimensionsUnit;
+
+    private QuoteFingerprint(String origin, String destination, Quote.ShipmentType shipmentType,
+                             int weightBracket, String weightUnit,
+                             int lengthBracket, int widthBracket, int heightBracket, String dimensionsUnit) {
+        this.origin = origin;
+        this.destination = destination;
+        this.shipmentType = shipmentType;
+        this.weightBracket = weightBracket;
+        this.weightUnit = weightUnit;
+        this.lengthBracket = lengthBracket;
+        this.widthBracket = widthBracket;
+        this.heightBracket = heightBracket;
+        this.dimensionsUnit = dimensionsUnit;
+    }
+
+    /**
+     * Build the fingerprint for a request. Weight and dimensions are rounded up
+     * to whole units, which is how carriers bill them.
+     */
+    public static QuoteFingerprint of(QuoteRequest request) {
+        return new QuoteFingerprint(
+            normalizeCountry(request.getOriginCountry()) + ":" + postalPrefix(request.getOriginZip()),
+            normalizeCountry(request.getDestinationCountry()) + ":" + postalPrefix(request.getDestinationZip()),
+            request.getShipmentType(),
+            bracket(request.getWeight()),
+            normalizeUnit(request.getWeightUnit()),
+            bracket(request.getDimensionsLength()),
+            bracket(request.getDimensionsWidth()),
+            bracket(request.getDimensionsHeight()),
+            normalizeUnit(request.getDimensionsUnit())
+        );
+    }
+
+    private static String postalPrefix(String postalCode) {
+        if (postalCode == null) {
+            return "";
+        }
+        StringBuilder prefix = new StringBuilder(POSTAL_PREFIX_LENGTH);
+        for (int i = 0; i < postalCode.length() && prefix.length() < POSTAL_PREFIX_LENGTH; i++) {
+            char c = postalCode.charAt(i);
+            if (Character.isLetterOrDigit(c)) {
+                prefix.append(Character.toUpperCase(c));
+            }
+        }
+        return prefix.toString();
+    }
+
+    private static String normalizeCountry(String country) {
+        return country == null ? "" : country.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static String normalizeUnit(String unit) {
+        return unit == null ? "" : unit.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private static int bracket(Double value) {
+        return value == null ? 0 : (int) Math.ceil(value);
+    }
+
+    // Getters
+    public String getOrigin() { return origin; }
+    public String getDestination() { return destination; }
+    public Quote.ShipmentType getShipmentType() { return shipmentType; }
+    public int getWeightBracket() { return weightBracket; }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof QuoteFingerprint that)) return false;
+        return weightBracket == that.weightBracket
+            && lengthBracket == that.lengthBracket
+            && widthBracket == that.widthBracket
+            && heightBracket == that.heightBracket
+            && origin.equals(that.origin)
+            && destination.equals(that.destination)
+            && shipmentType == that.shipmentType
+            && weightUnit.equals(that.weightUnit)
+            && dimensionsUnit.equals(that.dimensionsUnit);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(origin, destination, shipmentType, weightBracket, weightUnit,
+                            lengthBracket, widthBracket, heightBracket, dimensionsUnit);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%s>%s|%s|%d%s|%dx%dx%d%s", origin, destination, shipmentType,
+                             weightBracket, weightUnit, lengthBracket, widthBracket, heightBracket, dimensionsUnit);
+    }
+}
@@ -17,6 +17,8 @@ public class QuoteResponse {
     private LocalDateTime estimatedDeliveryDate;
     private String notes;
     private boolean available = true;
+    // Demo rates computed locally (no API configured, or the carrier API failed), not real carrier rates
+    private boolean demo;
     
     // Constructors
     public QuoteResponse() {}
@@ -69,7 +71,18 @@ public class QuoteResponse {
     public boolean isAvailable() { return available; }
     public void setAvailable(boolean available) { this.available = available; }
     
+    public boolean isDemo() { return demo; }
+    public void setDemo(boolean demo) { this.demo = demo; }
+    
     // Utility methods
+    public QuoteResponse copy() {
+        QuoteResponse copy = new QuoteResponse(carrierName, serviceName, serviceCode, price, currency, estimatedTransitDays);
+        copy.setNotes(notes);
+        copy.setAvailable(available);
+        copy.setDemo(demo);
+        return copy;
+    }
+    
     public String getFormattedPrice() {
         if (price != null && currency != null) {
             return String.format("%.2f %s", price, currency);
@@ -0,0 +1,77 @@
+package com.songo.dto.quote;
+
+import com.songo.model.Quote;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A quote as returned by the quote endpoints. Only the quote's own columns
+ * and its owner's id, so serializing it never touches a lazy association.
+ */
+public record QuoteView(Long id,
+                        String quoteNumber,
+                        Long userId,
+                        String originAddress,
+                        String originCity,
+                        String originState,
+                        String originZip,
+                        String originCountry,
+                        String destinationAddress,
+                        String destinationCity,
+                        String destinationState,
+                        String destinationZip,
+                        String destinationCountry,
+                        Quote.ShipmentType shipmentType,
+                        Double weight,
+                        String weightUnit,
+                        Double dimensionsLength,
+                        Double dimensionsWidth,
+                        Double dimensionsHeight,
+                        String dimensionsUnit,
+                        Integer packageCount,
+                        String cargoDescription,
+                        BigDecimal cargoValue,
+                        BigDecimal estimatedPrice,
+                        Integer estimatedTransitDays,
+                        Quote.QuoteStatus status,
+                        LocalDateTime validUntil,
+                        String specialInstructions,
+                        LocalDateTime createdAt,
+                        LocalDateTime updatedAt) {
+
+    public static QuoteView from(Quote quote) {
+        return new QuoteView(
+            quote.getId(),
+            quote.getQuoteNumber(),
+            // The id of an uninitialized proxy is read without a query
+            quote.getUser() != null ? quote.getUser().getId() : null,
+            quote.getOriginAddress(),
+            quote.getOriginCity(),
+            quote.getOriginState(),
+            quote.getOriginZip(),
+            quote.getOriginCountry(),
+            quote.getDestinationAddress(),
+            quote.getDestinationCity(),
+            quote.getDestinationState(),
+            quote.getDestinationZip(),
+            quote.getDestinationCountry(),
+            quote.getShipmentType(),
+            quote.getWeight(),
+            quote.getWeightUnit(),
+            quote.getDimensionsLength(),
+            quote.getDimensionsWidth(),
+            quote.getDimensionsHeight(),
+            quote.getDimensionsUnit(),
+            quote.getPackageCount(),
+            quote.getCargoDescription(),
+            quote.getCargoValue(),
+            quote.getEstimatedPrice(),
+            quote.getEstimatedTransitDays(),
+            quote.getStatus(),
+            quote.getValidUntil(),
+            quote.getSpecialInstructions(),
+            quote.getCreatedAt(),
+            quote.getUpdatedAt());
+    }
+}
@@ -0,0 +1,22 @@
+package com.songo.dto.tracking;
+
+import java.time.LocalDateTime;
+
+/**
+ * The columns of a tracking event that may be shown without authentication.
+ * Delivery signature and instructions are never selected.
+ */
+public record PublicTrackingEvent(String trackingNumber,
+                                  String eventType,
+                                  String status,
+                                  String statusDescription,
+                                  LocalDateTime eventDate,
+                                  String locationCity,
+                                  String locationState,
+                                  String locationCountry,
+                                  String carrierCode,
+                                  String carrierName,
+                                  LocalDateTime estimatedDelivery,
+                                  LocalDateTime actualDelivery,
+                                  String exceptionCode,
+                                  String exceptionDescription) {}
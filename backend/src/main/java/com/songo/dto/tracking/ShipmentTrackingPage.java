@@ -0,0 +1,51 @@
+package com.songo.dto.tracking;
+
+import com.songo.dto.CursorPage;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * One page of a user's shipments by most recent tracking event.
+ * {@code nextCursor} is null on the last page.
+ */
+public class ShipmentTrackingPage {
+
+    private List<ShipmentTrackingStatus> items;
+    private String nextCursor;
+
+    // Constructors
+    public ShipmentTrackingPage() {}
+
+    public ShipmentTrackingPage(List<ShipmentTrackingStatus> items, int limit) {
+        this.items = items;
+        if (items.size() == limit && limit > 0) {
+            ShipmentTrackingStatus last = items.get(items.size() - 1);
+            this.nextCursor = encodeCursor(last.eventDate(), last.shipmentId());
+        }
+    }
+
+    /**
+     * Opaque cursor for the position after (eventDate, shipmentId)
+     */
+    public static String encodeCursor(LocalDateTime eventDate, Long shipmentId) {
+        return CursorPage.encodeCursor(eventDate, shipmentId);
+    }
+
+    /**
+     * Decode a cursor from {@link #encodeCursor}; throws IllegalArgumentException if malformed
+     */
+    public static Position decodeCursor(String cursor) {
+        CursorPage.Position position = CursorPage.decodeCursor(cursor);
+        return new Position(position.time(), position.id());
+    }
+
+    // Getters and Setters
+    public List<ShipmentTrackingStatus> getItems() { return items; }
+    public void setItems(List<ShipmentTrackingStatus> items) { this.items = items; }
+
+    public String getNextCursor() { return nextCursor; }
+    public void setNextCursor(String nextCursor) { this.nextCursor = nextCursor; }
+
+    public record Position(LocalDateTime eventDate, Long shipmentId) {}
+}
@@ -0,0 +1,19 @@
+package com.songo.dto.tracking;
+
+import com.songo.model.Shipment;
+
+import java.time.LocalDateTime;
+
+/**
+ * A shipment with its latest tracking event, read from the shipment's latest event columns
+ */
+public record ShipmentTrackingStatus(Long shipmentId,
+                                     String shipmentNumber,
+                                     String trackingNumber,
+                                     String carrierName,
+                                     Shipment.ShipmentStatus shipmentStatus,
+                                     String eventType,
+                                     String status,
+                                     String statusDescription,
+                                     String location,
+                                     LocalDateTime eventDate) {}
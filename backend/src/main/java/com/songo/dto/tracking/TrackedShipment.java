@@ -0,0 +1,8 @@
+package com.songo.dto.tracking;
+
+import com.songo.model.Shipment;
+
+/**
+ * The fields of an active shipment the tracking poller needs
+ */
+public record TrackedShipment(Long id, String trackingNumber, String carrierCode, Shipment.ShipmentStatus status) {}
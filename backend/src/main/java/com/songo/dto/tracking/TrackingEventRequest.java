@@ -0,0 +1,81 @@
+package com.songo.dto.tracking;
+
+import java.time.LocalDateTime;
+
+/**
+ * One carrier scan event for bulk ingestion. Tracking number, event type,
+ * status and event date are required.
+ */
+public class TrackingEventRequest {
+
+    private String trackingNumber;
+    private String eventType;
+    private String status;
+    private String statusDescription;
+    private LocalDateTime eventDate;
+
+    private String locationCity;
+    private String locationState;
+    private String locationCountry;
+    private String locationZip;
+    private String carrierCode;
+    private String carrierName;
+    private String deliverySignature;
+    private String deliveryInstructions;
+    private LocalDateTime estimatedDelivery;
+    private LocalDateTime actualDelivery;
+    private String exceptionCode;
+    private String exceptionDescription;
+
+    // Getters and Setters
+    public String getTrackingNumber() { return trackingNumber; }
+    public void setTrackingNumber(String trackingNumber) { this.trackingNumber = trackingNumber; }
+
+    public String getEventType() { return eventType; }
+    public void setEventType(String eventType) { this.eventType = eventType; }
+
+    public String getStatus() { return status; }
+    public void setStatus(String status) { this.status = status; }
+
+    public String getStatusDescription() { return statusDescription; }
+    public void setStatusDescription(String statusDescription) { this.statusDescription = statusDescription; }
+
+    public LocalDateTime getEventDate() { return eventDate; }
+    public void setEventDate(LocalDateTime eventDate) { this.eventDate = eventDate; }
+
+    public String getLocationCity() { return locationCity; }
+    public void setLocationCity(String locationCity) { this.locationCity = locationCity; }
+
+    public String getLocationState() { return locationState; }
+    public void setLocationState(String locationState) { this.locationState = locationState; }
+
+    public String getLocationCountry() { return locationCountry; }
+    public void setLocationCountry(String locationCountry) { this.locationCountry = locationCountry; }
+
+    public String getLocationZip() { return locationZip; }
+    public void setLocationZip(String locationZip) { this.locationZip = locationZip; }
+
+    public String getCarrierCode() { return carrierCode; }
+    public void setCarrierCode(String carrierCode) { this.carrierCode = carrierCode; }
+
+    public String getCarrierName() { return carrierName; }
+    public void setCarrierName(String carrierName) { this.carrierName = carrierName; }
+
+    public String getDeliverySignature() { return deliverySignature; }
+    public void setDeliverySignature(String deliverySignature) { this.deliverySignature = deliverySignature; }
+
+    public String getDeliveryInstructions() { return deliveryInstructions; }
+    public void setDeliveryInstructions(String deliveryInstructions) { this.deliveryInstructions = deliveryInstructions; }
+
+    public LocalDateTime getEstimatedDelivery() { return estimatedDelivery; }
+    public void setEstimatedDelivery(LocalDateTime estimatedDelivery) { this.estimatedDelivery = estimatedDelivery; }
+
+    public LocalDateTime getActualDelivery() { return actualDelivery; }
+    public void setActualDelivery(LocalDateTime actualDelivery) { this.actualDelivery = actualDelivery; }
+
+    public String getExceptionCode() { return exceptionCode; }
+    public void setExceptionCode(String exceptionCode) { this.exceptionCode = exceptionCode; }
+
+    public String getExceptionDescription() { return exceptionDescription; }
+    public void setExceptionDescription(String exceptionDescription) { this.exceptionDescription = exceptionDescription; }
+}
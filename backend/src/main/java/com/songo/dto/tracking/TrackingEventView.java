@@ -0,0 +1,28 @@
+package com.songo.dto.tracking;
+
+import java.time.LocalDateTime;
+
+/**
+ * A tracking event as shown to the shipment's owner or an admin. The
+ * shipment is referenced by id only.
+ */
+public record TrackingEventView(Long id,
+                                Long shipmentId,
+                                String trackingNumber,
+                                String eventType,
+                                String status,
+                                String statusDescription,
+                                LocalDateTime eventDate,
+                                String locationCity,
+                                String locationState,
+                                String locationCountry,
+                                String locationZip,
+                                String carrierCode,
+                                String carrierName,
+                                String deliverySignature,
+                                String deliveryInstructions,
+                                LocalDateTime estimatedDelivery,
+                                LocalDateTime actualDelivery,
+                                String exceptionCode,
+                                String exceptionDescription,
+                                LocalDateTime createdAt) {}
@@ -0,0 +1,54 @@
+package com.songo.dto.tracking;
+
+import com.fasterxml.jackson.annotation.JsonIgnore;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Outcome of a bulk tracking event ingestion
+ */
+public class TrackingIngestResult {
+
+    private int received;
+    private int inserted;
+    private int duplicates;
+    private List<String> unknownTrackingNumbers = new ArrayList<>();
+    private List<String> errors = new ArrayList<>();
+    private long elapsedMs;
+
+    // Shipments that received at least one new event
+    @JsonIgnore
+    private Set<String> updatedTrackingNumbers = new HashSet<>();
+
+    // Constructors
+    public TrackingIngestResult() {}
+
+    public TrackingIngestResult(int received) {
+        this.received = received;
+    }
+
+    // Getters and Setters
+    public int getReceived() { return received; }
+    public void setReceived(int received) { this.received = received; }
+
+    public int getInserted() { return inserted; }
+    public void setInserted(int inserted) { this.inserted = inserted; }
+
+    public int getDuplicates() { return duplicates; }
+    public void setDuplicates(int duplicates) { this.duplicates = duplicates; }
+
+    public List<String> getUnknownTrackingNumbers() { return unknownTrackingNumbers; }
+    public void setUnknownTrackingNumbers(List<String> unknownTrackingNumbers) { this.unknownTrackingNumbers = unknownTrackingNumbers; }
+
+    public List<String> getErrors() { return errors; }
+    public void setErrors(List<String> errors) { this.errors = errors; }
+
+    public long getElapsedMs() { return elapsedMs; }
+    public void setElapsedMs(long elapsedMs) { this.elapsedMs = elapsedMs; }
+
+    public Set<String> getUpdatedTrackingNumbers() { return updatedTrackingNumbers; }
+    public void setUpdatedTrackingNumbers(Set<String> updatedTrackingNumbers) { this.updatedTrackingNumbers = updatedTrackingNumbers; }
+}
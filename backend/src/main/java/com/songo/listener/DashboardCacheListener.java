@@ -0,0 +1,39 @@
+package com.songo.listener;
+
+import com.songo.model.Quote;
+import com.songo.model.Shipment;
+import com.songo.model.User;
+import com.songo.service.DashboardCache;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that evicts the owner's dashboard when a quote or
+ * shipment is saved or deleted
+ */
+@Component
+public class DashboardCacheListener {
+
+    private final DashboardCache dashboardCache;
+
+    public DashboardCacheListener(DashboardCache dashboardCache) {
+        this.dashboardCache = dashboardCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(Object entity) {
+        User owner = null;
+        if (entity instanceof Quote quote) {
+            owner = quote.getUser();
+        } else if (entity instanceof Shipment shipment) {
+            owner = shipment.getUser();
+        }
+        if (owner != null) {
+            dashboardCache.evict(owner.getId());
+        }
+    }
+}
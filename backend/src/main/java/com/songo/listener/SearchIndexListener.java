@@ -0,0 +1,39 @@
+package com.songo.listener;
+
+import com.songo.service.search.SearchDocument;
+import com.songo.service.search.SearchIndexService;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+/**
+ * JPA entity listener that keeps the search index in step with indexed
+ * entities. Changes are captured during flush and applied after commit.
+ */
+@Component
+public class SearchIndexListener {
+
+    private final SearchIndexService searchIndexService;
+
+    public SearchIndexListener(SearchIndexService searchIndexService) {
+        this.searchIndexService = searchIndexService;
+    }
+
+    @PostPersist
+    @PostUpdate
+    public void onSave(Object entity) {
+        SearchDocument document = SearchDocument.from(entity);
+        if (document != null) {
+            searchIndexService.indexAfterCommit(document);
+        }
+    }
+
+    @PostRemove
+    public void onRemove(Object entity) {
+        SearchDocument document = SearchDocument.from(entity);
+        if (document != null) {
+            searchIndexService.deleteAfterCommit(document.type(), document.id());
+        }
+    }
+}
@@ -1,5 +1,7 @@
 package com.songo.model;
 
+import com.songo.listener.SearchIndexListener;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.Size;
@@ -10,7 +12,10 @@ import java.time.LocalDateTime;
  * Address entity for storing shipping and billing addresses
  */
 @Entity
-@Table(name = "addresses")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "addresses", indexes = {
+    @Index(name = "idx_addresses_updated_at", columnList = "updated_at")
+})
 public class Address {
     
     @Id
@@ -1,5 +1,7 @@
 package com.songo.model;
 
+import com.songo.listener.SearchIndexListener;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Positive;
@@ -12,7 +14,11 @@ import java.util.List;
  * Invoice entity for billing
  */
 @Entity
-@Table(name = "invoices")
+@EntityListeners(SearchIndexListener.class)
+@Table(name = "invoices", indexes = {
+    @Index(name = "idx_invoices_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_invoices_updated_at", columnList = "updated_at")
+})
 public class Invoice {
     
     @Id
@@ -132,9 +138,6 @@ public class Invoice {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (invoiceNumber == null) {
-            invoiceNumber = generateInvoiceNumber();
-        }
         if (issueDate == null) {
             issueDate = LocalDateTime.now();
         }
@@ -148,10 +151,6 @@ public class Invoice {
         updatedAt = LocalDateTime.now();
     }
     
-    private String generateInvoiceNumber() {
-        return "INV" + System.currentTimeMillis();
-    }
-    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -1,5 +1,6 @@
 package com.songo.model;
 
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,7 +13,9 @@ import java.time.LocalDateTime;
  * Payment entity for tracking payments
  */
 @Entity
-@Table(name = "payments")
+@Table(name = "payments", indexes = {
+    @Index(name = "idx_payments_user_created", columnList = "user_id, created_at, id")
+})
 public class Payment {
     
     @Id
@@ -121,9 +124,6 @@ public class Payment {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (paymentNumber == null) {
-            paymentNumber = generatePaymentNumber();
-        }
     }
     
     @PreUpdate
@@ -131,10 +131,6 @@ public class Payment {
         updatedAt = LocalDateTime.now();
     }
     
-    private String generatePaymentNumber() {
-        return "PAY" + System.currentTimeMillis();
-    }
-    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -1,5 +1,8 @@
 package com.songo.model;
 
+import com.songo.listener.DashboardCacheListener;
+import com.songo.listener.SearchIndexListener;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -11,7 +14,14 @@ import java.time.LocalDateTime;
  * Quote entity for shipping quotes
  */
 @Entity
-@Table(name = "quotes")
+@EntityListeners({SearchIndexListener.class, DashboardCacheListener.class})
+@Table(name = "quotes", indexes = {
+    @Index(name = "idx_quotes_status_valid_until", columnList = "status, valid_until"),
+    @Index(name = "idx_quotes_user_updated_at", columnList = "user_id, updated_at"),
+    @Index(name = "idx_quotes_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_quotes_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_quotes_updated_at", columnList = "updated_at")
+})
 public class Quote {
     
     @Id
@@ -151,9 +161,6 @@ public class Quote {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
-        if (quoteNumber == null) {
-            quoteNumber = generateQuoteNumber();
-        }
         if (validUntil == null) {
             validUntil = LocalDateTime.now().plusDays(7); // Valid for 7 days
         }
@@ -164,10 +171,6 @@ public class Quote {
         updatedAt = LocalDateTime.now();
     }
     
-    private String generateQuoteNumber() {
-        return "QT" + System.currentTimeMillis();
-    }
-    
     // Getters and Setters
     public Long getId() { return id; }
     public void setId(Long id) { this.id = id; }
@@ -1,5 +1,8 @@
 package com.songo.model;
 
+import com.songo.listener.DashboardCacheListener;
+import com.songo.listener.SearchIndexListener;
+
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotNull;
 import jakarta.validation.constraints.Size;
@@ -13,7 +16,14 @@ import java.util.List;
  * Shipment entity representing customer shipments
  */
 @Entity
-@Table(name = "shipments")
+@EntityListeners({SearchIndexListener.class, DashboardCacheListener.class})
+@Table(name = "shipments", indexes = {
+    @Index(name = "idx_shipments_user_latest_event", columnList = "user_id, latest_event_at, id"),
+    @Index(name = "idx_shipments_status_carrier_type", columnList = "status, carrier_id, shipment_type"),
+    @Index(name = "idx_shipments_user_status", columnList = "user_id, status"),
+    @Index(name = "idx_shipments_user_created", columnList = "user_id, created_at, id"),
+    @Index(name = "idx_shipments_updated_at", columnList = "updated_at")
+})
 public class Shipment {
     
     @Id
@@ -87,6 +97,22 @@ public class Shipment {
     @Column(name = "carrier_reference")
     private String carrierReference;
     
+    // Latest tracking event, maintained by TrackingStatusRepository when events are written
+    @Column(name = "latest_event_type", insertable = false, updatable = false)
+    private String latestEventType;
+    
+    @Column(name = "latest_event_status", insertable = false, updatable = false)
+    private String latestEventStatus;
+    
+    @Column(name = "latest_event_description", insertable = false, updatable = false)
+    private String latestEventDescription;
+    
+    @Column(name = "latest_event_location", insertable = false, updatable = false)
+    private String latestEventLocation;
+    
+    @Column(name = "latest_event_at", insertable = false, updatable = false)
+    private LocalDateTime latestEventAt;
+    
     // Dates
     @Column(name = "pickup_date")
     private LocalDate pickupDate;
@@ -262,4 +288,14 @@ public class Shipment {
 
     public Invoice getInvoice() { return invoice; }
     public void setInvoice(Invoice invoice) { this.invoice = invoice; }
+    
+    public String getLatestEventType() { return latestEventType; }
+    
+    public String getLatestEventStatus() { return latestEventStatus; }
+    
+    public String getLatestEventDescription() { return latestEventDescription; }
+    
+    public String getLatestEventLocation() { return latestEventLocation; }
+    
+    public LocalDateTime getLatestEventAt() { return latestEventAt; }
 }
@@ -3,15 +3,37 @@ package com.songo.model;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.Locale;
 
 /**
  * TrackingEvent entity for shipment tracking
  */
 @Entity
-@Table(name = "tracking_events")
+@Table(name = "tracking_events", uniqueConstraints = {
+    @UniqueConstraint(name = "uk_tracking_events_event_key", columnNames = "event_key")
+}, indexes = {
+    @Index(name = "idx_tracking_events_shipment_date", columnList = "shipment_id, event_date"),
+    @Index(name = "idx_tracking_events_tracking_date", columnList = "tracking_number, event_date")
+})
 public class TrackingEvent {
     
+    private static final HexFormat HEX = HexFormat.of();
+    
+    private static final ThreadLocal<MessageDigest> SHA_256 = ThreadLocal.withInitial(() -> {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    });
+    
     @Id
     @GeneratedValue(strategy = GenerationType.IDENTITY)
     private Long id;
@@ -20,6 +42,10 @@ public class TrackingEvent {
     @JoinColumn(name = "shipment_id", nullable = false)
     private Shipment shipment;
     
+    // Natural-key hash used to drop re-sent carrier scans; see naturalKey()
+    @Column(name = "event_key", length = 32)
+    private String eventKey;
+    
     @NotBlank(message = "Event type is required")
     @Column(name = "event_type", nullable = false)
     private String eventType;
@@ -95,6 +121,29 @@ public class TrackingEvent {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        if (eventKey == null && shipment != null && shipment.getId() != null && eventDate != null) {
+            eventKey = naturalKey(shipment.getId(), eventType, status, eventDate, locationZip, locationCity);
+        }
+    }
+    
+    /**
+     * Identity of a carrier scan: shipment, event type, status, time to the
+     * second and location, hashed to 128 bits (32 hex chars)
+     */
+    public static String naturalKey(long shipmentId, String eventType, String status, LocalDateTime eventDate,
+                                    String locationZip, String locationCity) {
+        StringBuilder key = new StringBuilder(96)
+            .append(shipmentId).append('|').append(normalize(eventType))
+            .append('|').append(normalize(status))
+            .append('|').append(eventDate.toEpochSecond(ZoneOffset.UTC))
+            .append('|').append(normalize(locationZip))
+            .append('|').append(normalize(locationCity));
+        byte[] digest = SHA_256.get().digest(key.toString().getBytes(StandardCharsets.UTF_8));
+        return HEX.formatHex(digest, 0, 16);
+    }
+    
+    private static String normalize(String value) {
+        return value == null ? "" : value.trim().toUpperCase(Locale.ROOT);
     }
     
     @PreUpdate
@@ -109,6 +158,9 @@ public class TrackingEvent {
     public Shipment getShipment() { return shipment; }
     public void setShipment(Shipment shipment) { this.shipment = shipment; }
     
+    public String getEventKey() { return eventKey; }
+    public void setEventKey(String eventKey) { this.eventKey = eventKey; }
+    
     public String getEventType() { return eventType; }
     public void setEventType(String eventType) { this.eventType = eventType; }
     
@@ -25,6 +25,12 @@ public interface CarrierRepository extends JpaRepository<Carrier, Long> {
      */
     Optional<Carrier> findByName(String name);
     
+    /**
+     * Codes of all carriers
+     */
+    @Query("SELECT c.code FROM Carrier c")
+    List<String> findAllCodes();
+    
     /**
      * Check if carrier exists by code
      */
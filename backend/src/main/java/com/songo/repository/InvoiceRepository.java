@@ -3,10 +3,13 @@ package com.songo.repository;
 import com.songo.model.Invoice;
 import com.songo.model.Shipment;
 import com.songo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -14,6 +17,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Invoice entity
@@ -24,14 +28,6 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     // Find by invoice number
     Optional<Invoice> findByInvoiceNumber(String invoiceNumber);
     
-    // Find by user
-    List<Invoice> findByUserOrderByCreatedAtDesc(User user);
-    Page<Invoice> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
-
-    // Find by user ID
-    List<Invoice> findByUserIdOrderByCreatedAtDesc(Long userId);
-    Page<Invoice> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
-
     // Find by shipment
     Optional<Invoice> findByShipment(Shipment shipment);
     
@@ -49,6 +45,14 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     // Find overdue invoices by user ID
     List<Invoice> findByUserIdAndInvoiceStatusAndDueDateBeforeOrderByDueDateAsc(Long userId, Invoice.InvoiceStatus invoiceStatus, LocalDateTime dueDate);
 
+    // Count a user's invoices in a status that fell due before the given time
+    long countByUserIdAndInvoiceStatusAndDueDateBefore(Long userId, Invoice.InvoiceStatus invoiceStatus, LocalDateTime dueDate);
+    
+    // Invoice counts and totals by status for a user: rows of [status, count, totalAmount]
+    @Query("SELECT i.invoiceStatus, COUNT(i), SUM(i.totalAmount) FROM Invoice i " +
+           "WHERE i.user.id = :userId GROUP BY i.invoiceStatus")
+    List<Object[]> countAndTotalByStatusForUser(@Param("userId") Long userId);
+    
     // Find invoice by number and user ID
     Optional<Invoice> findByInvoiceNumberAndUserId(String invoiceNumber, Long userId);
     
@@ -136,4 +140,27 @@ public interface InvoiceRepository extends JpaRepository<Invoice, Long> {
     default List<Invoice> findTopNByUserIdOrderByCreatedAtDesc(Long userId, int limit) {
         return findTopNByUserIdOrderByCreatedAtDesc(userId, Pageable.ofSize(limit));
     }
+
+    // Page through a user's invoices newest first, keyset on (createdAt, id) via idx_invoices_user_created
+    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId ORDER BY i.createdAt DESC, i.id DESC")
+    List<Invoice> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId " +
+           "AND i.createdAt <= :createdAt AND (i.createdAt < :createdAt OR i.id < :id) " +
+           "ORDER BY i.createdAt DESC, i.id DESC")
+    List<Invoice> findPageByUserIdAfter(@Param("userId") Long userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    /**
+     * All of a user's invoices oldest first, for export. Streams row by row like
+     * {@link ShipmentRepository#streamByUserId}; close the stream inside the transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT i FROM Invoice i WHERE i.user.id = :userId ORDER BY i.createdAt, i.id")
+    Stream<Invoice> streamByUserId(@Param("userId") Long userId);
 }
@@ -2,10 +2,13 @@ package com.songo.repository;
 
 import com.songo.model.Payment;
 import com.songo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -13,6 +16,7 @@ import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Payment entity
@@ -26,10 +30,6 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Find by Stripe payment intent ID
     Optional<Payment> findByStripePaymentIntentId(String stripePaymentIntentId);
     
-    // Find by user
-    List<Payment> findByUserOrderByCreatedAtDesc(User user);
-    Page<Payment> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
-    
     // Find by payment status
     List<Payment> findByPaymentStatus(Payment.PaymentStatus paymentStatus);
     Page<Payment> findByPaymentStatus(Payment.PaymentStatus paymentStatus, Pageable pageable);
@@ -38,6 +38,10 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     List<Payment> findByUserAndPaymentStatus(User user, Payment.PaymentStatus paymentStatus);
     Page<Payment> findByUserAndPaymentStatus(User user, Payment.PaymentStatus paymentStatus, Pageable pageable);
     
+    // Count and most recent of a user's payments in a status
+    long countByUserAndPaymentStatus(User user, Payment.PaymentStatus paymentStatus);
+    List<Payment> findTop5ByUserAndPaymentStatusOrderByCreatedAtDescIdDesc(User user, Payment.PaymentStatus paymentStatus);
+    
     // Find payments within date range
     @Query("SELECT p FROM Payment p WHERE p.createdAt BETWEEN :startDate AND :endDate ORDER BY p.createdAt DESC")
     List<Payment> findPaymentsBetweenDates(@Param("startDate") LocalDateTime startDate, 
@@ -85,4 +89,27 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     // Check if user has any successful payments
     @Query("SELECT COUNT(p) > 0 FROM Payment p WHERE p.user = :user AND p.paymentStatus = 'COMPLETED'")
     boolean hasSuccessfulPayments(@Param("user") User user);
+
+    // Page through a user's payments newest first, keyset on (createdAt, id) via idx_payments_user_created
+    @Query("SELECT p FROM Payment p WHERE p.user.id = :userId ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    @Query("SELECT p FROM Payment p WHERE p.user.id = :userId " +
+           "AND p.createdAt <= :createdAt AND (p.createdAt < :createdAt OR p.id < :id) " +
+           "ORDER BY p.createdAt DESC, p.id DESC")
+    List<Payment> findPageByUserIdAfter(@Param("userId") Long userId,
+                                       @Param("createdAt") LocalDateTime createdAt,
+                                       @Param("id") Long id,
+                                       Pageable pageable);
+
+    /**
+     * All of a user's payments oldest first, for export. Streams row by row like
+     * {@link ShipmentRepository#streamByUserId}; close the stream inside the transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT p FROM Payment p WHERE p.user.id = :userId ORDER BY p.createdAt, p.id")
+    Stream<Payment> streamByUserId(@Param("userId") Long userId);
 }
@@ -0,0 +1,115 @@
+package com.songo.repository;
+
+import com.songo.model.Quote;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk inserts for quotes. Quote ids are IDENTITY-generated, which keeps
+ * Hibernate from batching inserts, so bulk writes go through JDBC batches.
+ * Rows are written as-is and lifecycle callbacks do not run; generated ids
+ * are set on the quotes.
+ */
+@Repository
+public class QuoteBatchRepository {
+
+    private static final String INSERT_SQL = "INSERT INTO quotes (" +
+        "quote_number, user_id, " +
+        "origin_address, origin_city, origin_state, origin_zip, origin_country, " +
+        "destination_address, destination_city, destination_state, destination_zip, destination_country, " +
+        "shipment_type, weight, weight_unit, dimensions_length, dimensions_width, dimensions_height, " +
+        "dimensions_unit, package_count, cargo_description, cargo_value, " +
+        "estimated_price, estimated_transit_days, status, valid_until, special_instructions, " +
+        "created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${quotes.batch.jdbc-batch-size:500}")
+    private int jdbcBatchSize;
+
+    public QuoteBatchRepository(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Insert quotes in JDBC batches within one transaction
+     */
+    @Transactional
+    public void insertAll(List<Quote> quotes) {
+        for (int from = 0; from < quotes.size(); from += jdbcBatchSize) {
+            List<Quote> batch = quotes.subList(from, Math.min(from + jdbcBatchSize, quotes.size()));
+            GeneratedKeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(con -> con.prepareStatement(INSERT_SQL, new String[] {"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        bind(ps, batch.get(i));
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return batch.size();
+                    }
+                }, keyHolder);
+
+            List<Map<String, Object>> keys = keyHolder.getKeyList();
+            for (int i = 0; i < batch.size() && i < keys.size(); i++) {
+                Object key = keys.get(i).values().iterator().next();
+                batch.get(i).setId(((Number) key).longValue());
+            }
+        }
+    }
+
+    private void bind(PreparedStatement ps, Quote quote) throws SQLException {
+        int i = 1;
+        ps.setString(i++, quote.getQuoteNumber());
+        setObject(ps, i++, quote.getUser() != null ? quote.getUser().getId() : null, Types.BIGINT);
+        ps.setString(i++, quote.getOriginAddress());
+        ps.setString(i++, quote.getOriginCity());
+        ps.setString(i++, quote.getOriginState());
+        ps.setString(i++, quote.getOriginZip());
+        ps.setString(i++, quote.getOriginCountry());
+        ps.setString(i++, quote.getDestinationAddress());
+        ps.setString(i++, quote.getDestinationCity());
+        ps.setString(i++, quote.getDestinationState());
+        ps.setString(i++, quote.getDestinationZip());
+        ps.setString(i++, quote.getDestinationCountry());
+        ps.setString(i++, quote.getShipmentType().name());
+        ps.setDouble(i++, quote.getWeight());
+        ps.setString(i++, quote.getWeightUnit());
+        setObject(ps, i++, quote.getDimensionsLength(), Types.DOUBLE);
+        setObject(ps, i++, quote.getDimensionsWidth(), Types.DOUBLE);
+        setObject(ps, i++, quote.getDimensionsHeight(), Types.DOUBLE);
+        ps.setString(i++, quote.getDimensionsUnit());
+        setObject(ps, i++, quote.getPackageCount(), Types.INTEGER);
+        ps.setString(i++, quote.getCargoDescription());
+        ps.setBigDecimal(i++, quote.getCargoValue());
+        ps.setBigDecimal(i++, quote.getEstimatedPrice());
+        setObject(ps, i++, quote.getEstimatedTransitDays(), Types.INTEGER);
+        ps.setString(i++, quote.getStatus().name());
+        ps.setTimestamp(i++, quote.getValidUntil() != null ? Timestamp.valueOf(quote.getValidUntil()) : null);
+        ps.setString(i++, quote.getSpecialInstructions());
+        ps.setTimestamp(i++, Timestamp.valueOf(quote.getCreatedAt()));
+        ps.setTimestamp(i, Timestamp.valueOf(quote.getUpdatedAt()));
+    }
+
+    private static void setObject(PreparedStatement ps, int index, Object value, int sqlType) throws SQLException {
+        if (value == null) {
+            ps.setNull(index, sqlType);
+        } else {
+            ps.setObject(index, value, sqlType);
+        }
+    }
+}
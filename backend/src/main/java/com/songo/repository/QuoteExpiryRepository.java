@@ -0,0 +1,90 @@
+package com.songo.repository;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Set-based status updates for quote expiry. Every statement is bounded and
+ * guarded by {@code status = 'QUOTED'}, so quotes accepted or rejected in the
+ * meantime are never touched and repeated runs are harmless. Relies on the
+ * (status, valid_until) index on quotes.
+ */
+@Repository
+public class QuoteExpiryRepository {
+
+    private static final String EXPIRE_DUE_SQL =
+        "UPDATE quotes SET status = 'EXPIRED', updated_at = ? " +
+        "WHERE status = 'QUOTED' AND valid_until < ? LIMIT ?";
+
+    private static final String EXPIRE_IDS_SQL =
+        "UPDATE quotes SET status = 'EXPIRED', updated_at = :now " +
+        "WHERE id IN (:ids) AND status = 'QUOTED' AND valid_until <= :now";
+
+    private static final String FIND_USER_IDS_SQL =
+        "SELECT DISTINCT user_id FROM quotes WHERE id IN (:ids)";
+
+    private static final String FIND_EXPIRING_SQL =
+        "SELECT id, valid_until FROM quotes " +
+        "WHERE status = 'QUOTED' AND valid_until >= ? AND valid_until < ? ORDER BY valid_until";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public QuoteExpiryRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Expire at most {@code limit} quotes whose validity ended before {@code now}
+     */
+    @Transactional
+    public int expireDue(LocalDateTime now, int limit) {
+        Timestamp timestamp = Timestamp.valueOf(now);
+        return jdbcTemplate.update(EXPIRE_DUE_SQL, timestamp, timestamp, limit);
+    }
+
+    /**
+     * Expire the given quotes if they are still quoted and due
+     */
+    @Transactional
+    public int expireIds(Collection<Long> ids, LocalDateTime now) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        MapSqlParameterSource params = new MapSqlParameterSource()
+            .addValue("ids", ids)
+            .addValue("now", Timestamp.valueOf(now));
+        return namedParameterJdbcTemplate.update(EXPIRE_IDS_SQL, params);
+    }
+
+    /**
+     * Owners of the given quotes
+     */
+    public List<Long> findUserIds(Collection<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(FIND_USER_IDS_SQL,
+            new MapSqlParameterSource("ids", ids), Long.class);
+    }
+
+    /**
+     * Quoted quotes expiring in [from, to), earliest first
+     */
+    public List<ExpiringQuote> findExpiring(LocalDateTime from, LocalDateTime to) {
+        return jdbcTemplate.query(FIND_EXPIRING_SQL,
+            (rs, rowNum) -> new ExpiringQuote(rs.getLong(1), rs.getTimestamp(2).toLocalDateTime()),
+            Timestamp.valueOf(from), Timestamp.valueOf(to));
+    }
+
+    public record ExpiringQuote(long id, LocalDateTime validUntil) {}
+}
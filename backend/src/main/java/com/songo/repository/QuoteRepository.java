@@ -1,5 +1,7 @@
 package com.songo.repository;
 
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.dashboard.RecentQuote;
 import com.songo.model.Quote;
 import com.songo.model.User;
 import org.springframework.data.domain.Page;
@@ -25,10 +27,6 @@ public interface QuoteRepository extends JpaRepository<Quote, Long> {
     
     Page<Quote> findByUser(User user, Pageable pageable);
     
-    List<Quote> findByUserOrderByCreatedAtDesc(User user);
-    
-    Page<Quote> findByUserOrderByCreatedAtDesc(User user, Pageable pageable);
-    
     List<Quote> findByStatus(Quote.QuoteStatus status);
     
     Page<Quote> findByStatus(Quote.QuoteStatus status, Pageable pageable);
@@ -56,4 +54,43 @@ public interface QuoteRepository extends JpaRepository<Quote, Long> {
     long countByUserAndStatus(@Param("user") User user, @Param("status") Quote.QuoteStatus status);
     
     boolean existsByQuoteNumber(String quoteNumber);
+
+    /**
+     * Change marker for a user's quotes, for conditional GETs
+     */
+    @Query("SELECT new com.songo.dto.ResourceVersion(COUNT(q), MAX(q.id), MAX(q.updatedAt)) " +
+           "FROM Quote q WHERE q.user.id = :userId")
+    ResourceVersion findVersionByUserId(@Param("userId") Long userId);
+
+    /**
+     * A user's quote counts in one pass over idx_quotes_user_status: rows of [status, count]
+     */
+    @Query("SELECT q.status, COUNT(q) FROM Quote q WHERE q.user.id = :userId GROUP BY q.status")
+    List<Object[]> countByStatusForUser(@Param("userId") Long userId);
+
+    /**
+     * A user's most recent quotes, read in order from idx_quotes_user_created
+     */
+    @Query("SELECT new com.songo.dto.dashboard.RecentQuote(q.id, q.quoteNumber, q.status, q.shipmentType, " +
+           "q.originCity, q.originState, q.destinationCity, q.destinationState, q.estimatedPrice, " +
+           "q.validUntil, q.createdAt) " +
+           "FROM Quote q WHERE q.user.id = :userId ORDER BY q.createdAt DESC, q.id DESC")
+    List<RecentQuote> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * A user's quotes, newest first (first page), read in order from idx_quotes_user_created
+     */
+    @Query("SELECT q FROM Quote q WHERE q.user.id = :userId ORDER BY q.createdAt DESC, q.id DESC")
+    List<Quote> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * The page of a user's quotes after the (createdAt, id) keyset position
+     */
+    @Query("SELECT q FROM Quote q WHERE q.user.id = :userId " +
+           "AND q.createdAt <= :createdAt AND (q.createdAt < :createdAt OR q.id < :id) " +
+           "ORDER BY q.createdAt DESC, q.id DESC")
+    List<Quote> findPageByUserIdAfter(@Param("userId") Long userId,
+                                     @Param("createdAt") LocalDateTime createdAt,
+                                     @Param("id") Long id,
+                                     Pageable pageable);
 }
@@ -1,19 +1,28 @@
 package com.songo.repository;
 
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.dashboard.RecentShipment;
+import com.songo.dto.tracking.ShipmentTrackingStatus;
+import com.songo.dto.tracking.TrackedShipment;
 import com.songo.model.Carrier;
 import com.songo.model.Shipment;
 import com.songo.model.User;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository interface for Shipment entity
@@ -40,17 +49,24 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
      * Count shipments by user ID and status
      */
     long countByUserIdAndStatus(Long userId, Shipment.ShipmentStatus status);
-
-    /**
-     * Find shipments by user (for TrackingService compatibility)
-     */
-    List<Shipment> findByUserOrderByCreatedAtDesc(User user);
     
     /**
      * Find shipment by tracking number
      */
     Optional<Shipment> findByTrackingNumber(String trackingNumber);
     
+    /**
+     * Owner of the shipment with a tracking number, for access checks without loading the shipment
+     */
+    @Query("SELECT s.user.id FROM Shipment s WHERE s.trackingNumber = :trackingNumber")
+    Optional<Long> findUserIdByTrackingNumber(@Param("trackingNumber") String trackingNumber);
+    
+    /**
+     * Owner of a shipment, for access checks without loading the shipment
+     */
+    @Query("SELECT s.user.id FROM Shipment s WHERE s.id = :id")
+    Optional<Long> findUserIdById(@Param("id") Long id);
+    
     /**
      * Find shipments by user
      */
@@ -66,20 +82,10 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
      */
     List<Shipment> findByUserId(Long userId);
 
-    /**
-     * Find shipments by user ID ordered by creation date
-     */
-    List<Shipment> findByUserIdOrderByCreatedAtDesc(Long userId);
-
     /**
      * Find shipments by user ID with pagination
      */
     Page<Shipment> findByUserId(Long userId, Pageable pageable);
-
-    /**
-     * Find shipments by user ID with pagination ordered by creation date
-     */
-    Page<Shipment> findByUserIdOrderByCreatedAtDesc(Long userId, Pageable pageable);
     
     /**
      * Find shipments by status
@@ -147,6 +153,49 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
     @Query("SELECT s FROM Shipment s WHERE s.status NOT IN ('DELIVERED', 'CANCELLED')")
     List<Shipment> findActiveShipments();
     
+    /**
+     * Active shipments with a tracking number at the given carriers, as the fields the tracking poller needs
+     */
+    @Query("SELECT new com.songo.dto.tracking.TrackedShipment(s.id, s.trackingNumber, c.code, s.status) " +
+           "FROM Shipment s JOIN s.carrier c " +
+           "WHERE s.status NOT IN ('DELIVERED', 'CANCELLED') AND s.trackingNumber IS NOT NULL " +
+           "AND c.code IN :carrierCodes")
+    List<TrackedShipment> findActiveTrackedShipments(@Param("carrierCodes") Collection<String> carrierCodes);
+    
+    /**
+     * A user's shipments with tracking, most recent event first (first page).
+     * Reads the latest event columns via idx_shipments_user_latest_event.
+     */
+    @Query("SELECT new com.songo.dto.tracking.ShipmentTrackingStatus(s.id, s.shipmentNumber, s.trackingNumber, " +
+           "c.name, s.status, s.latestEventType, s.latestEventStatus, s.latestEventDescription, " +
+           "s.latestEventLocation, s.latestEventAt) " +
+           "FROM Shipment s LEFT JOIN s.carrier c " +
+           "WHERE s.user.id = :userId AND s.latestEventAt IS NOT NULL " +
+           "ORDER BY s.latestEventAt DESC, s.id DESC")
+    List<ShipmentTrackingStatus> findTrackingStatusByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    /**
+     * The page of a user's shipments with tracking after the (eventAt, id) keyset position
+     */
+    @Query("SELECT new com.songo.dto.tracking.ShipmentTrackingStatus(s.id, s.shipmentNumber, s.trackingNumber, " +
+           "c.name, s.status, s.latestEventType, s.latestEventStatus, s.latestEventDescription, " +
+           "s.latestEventLocation, s.latestEventAt) " +
+           "FROM Shipment s LEFT JOIN s.carrier c " +
+           "WHERE s.user.id = :userId AND s.latestEventAt IS NOT NULL " +
+           "AND s.latestEventAt <= :eventAt AND (s.latestEventAt < :eventAt OR s.id < :shipmentId) " +
+           "ORDER BY s.latestEventAt DESC, s.id DESC")
+    List<ShipmentTrackingStatus> findTrackingStatusByUserIdAfter(@Param("userId") Long userId,
+                                                                  @Param("eventAt") LocalDateTime eventAt,
+                                                                  @Param("shipmentId") Long shipmentId,
+                                                                  Pageable pageable);
+    
+    /**
+     * Change marker for a user's tracked shipments, for conditional GETs
+     */
+    @Query("SELECT new com.songo.dto.ResourceVersion(COUNT(s), MAX(s.id), MAX(s.updatedAt)) " +
+           "FROM Shipment s WHERE s.user.id = :userId AND s.latestEventAt IS NOT NULL")
+    ResourceVersion findTrackingVersionByUserId(@Param("userId") Long userId);
+    
     /**
      * Find active shipments by user
      */
@@ -229,6 +278,35 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
      */
     @Query("SELECT s.status, COUNT(s) FROM Shipment s WHERE s.user = :user GROUP BY s.status")
     List<Object[]> getShipmentStatsByUser(@Param("user") User user);
+    
+    /**
+     * A user's shipment counts in one pass over idx_shipments_user_status: rows of [status, count]
+     */
+    @Query("SELECT s.status, COUNT(s) FROM Shipment s WHERE s.user.id = :userId GROUP BY s.status")
+    List<Object[]> countByStatusForUser(@Param("userId") Long userId);
+    
+    /**
+     * A user's shipment counts and total cost by status: rows of [status, count, totalCost]
+     */
+    @Query("SELECT s.status, COUNT(s), SUM(s.totalCost) FROM Shipment s WHERE s.user.id = :userId GROUP BY s.status")
+    List<Object[]> countAndCostByStatusForUser(@Param("userId") Long userId);
+    
+    /**
+     * A user's most recent shipments, read in order from idx_shipments_user_created
+     */
+    @Query("SELECT new com.songo.dto.dashboard.RecentShipment(s.id, s.shipmentNumber, s.trackingNumber, " +
+           "c.name, s.status, s.shipmentType, s.totalCost, s.currency, s.estimatedDelivery, s.createdAt) " +
+           "FROM Shipment s LEFT JOIN s.carrier c " +
+           "WHERE s.user.id = :userId ORDER BY s.createdAt DESC, s.id DESC")
+    List<RecentShipment> findRecentByUserId(@Param("userId") Long userId, Pageable pageable);
+    
+    /**
+     * Shipment counts by status, carrier id and type in one pass over
+     * idx_shipments_status_carrier_type: rows of [status, carrierId, shipmentType, count]
+     */
+    @Query("SELECT s.status, s.carrier.id, s.shipmentType, COUNT(s) FROM Shipment s " +
+           "GROUP BY s.status, s.carrier.id, s.shipmentType")
+    List<Object[]> countByStatusCarrierAndType();
 
     /**
      * Search shipments by criteria (for ShippingHistoryService)
@@ -265,4 +343,37 @@ public interface ShipmentRepository extends JpaRepository<Shipment, Long> {
            "LOWER(s.carrierReference) LIKE LOWER(CONCAT('%', :searchTerm, '%')) " +
            "ORDER BY s.createdAt DESC")
     List<Shipment> searchShipments(@Param("searchTerm") String searchTerm);
+
+    /**
+     * A user's shipments, newest first (first page), read in order from idx_shipments_user_created
+     */
+    @Query("SELECT s FROM Shipment s WHERE s.user.id = :userId ORDER BY s.createdAt DESC, s.id DESC")
+    List<Shipment> findPageByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * The page of a user's shipments after the (createdAt, id) keyset position
+     */
+    @Query("SELECT s FROM Shipment s WHERE s.user.id = :userId " +
+           "AND s.createdAt <= :createdAt AND (s.createdAt < :createdAt OR s.id < :id) " +
+           "ORDER BY s.createdAt DESC, s.id DESC")
+    List<Shipment> findPageByUserIdAfter(@Param("userId") Long userId,
+                                        @Param("createdAt") LocalDateTime createdAt,
+                                        @Param("id") Long id,
+                                        Pageable pageable);
+
+    /**
+     * All of a user's shipments oldest first, for export. Read-only and
+     * forward-only; a fetch size of Integer.MIN_VALUE makes MySQL Connector/J
+     * stream rows instead of buffering the result. The carrier, addresses and
+     * invoice are fetched in the same row, since no other statement can run on
+     * the connection while it streams. Close the stream inside the transaction.
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "-2147483648"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT s FROM Shipment s JOIN FETCH s.carrier JOIN FETCH s.originAddress " +
+           "JOIN FETCH s.destinationAddress LEFT JOIN FETCH s.invoice " +
+           "WHERE s.user.id = :userId ORDER BY s.createdAt, s.id")
+    Stream<Shipment> streamByUserId(@Param("userId") Long userId);
 }
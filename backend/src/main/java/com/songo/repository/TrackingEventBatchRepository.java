@@ -0,0 +1,230 @@
+package com.songo.repository;
+
+import com.songo.model.TrackingEvent;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Savepoint;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Bulk access for tracking event ingestion: shipment lookup by tracking
+ * number, existing-key checks and JDBC batch inserts. Lookups are chunked to
+ * keep IN lists bounded. A scan that raced in from another request fails the
+ * insert on the event_key unique constraint; that batch is rolled back to a
+ * savepoint and inserted again without the stored keys, so de-duplication is
+ * the only error handled here. Events stored before event_key existed get
+ * their keys assigned here too.
+ */
+@Repository
+public class TrackingEventBatchRepository {
+
+    private static final int IN_LIST_SIZE = 1000;
+    private static final int MAX_INSERT_ATTEMPTS = 3;
+
+    private static final String FIND_SHIPMENTS_SQL =
+        "SELECT s.id, s.tracking_number, c.code, c.name FROM shipments s " +
+        "LEFT JOIN carriers c ON c.id = s.carrier_id WHERE s.tracking_number IN (:numbers)";
+
+    private static final String FIND_KEYS_SQL =
+        "SELECT event_key FROM tracking_events WHERE event_key IN (:keys)";
+
+    // Locking read: sees keys committed after this transaction's snapshot
+    private static final String FIND_STORED_KEYS_SQL =
+        "SELECT event_key FROM tracking_events WHERE event_key IN (:keys) FOR SHARE";
+
+    private static final String INSERT_SQL = "INSERT INTO tracking_events (" +
+        "shipment_id, event_key, event_type, status, status_description, event_date, " +
+        "location_city, location_state, location_country, location_zip, carrier_code, carrier_name, " +
+        "tracking_number, delivery_signature, delivery_instructions, estimated_delivery, actual_delivery, " +
+        "exception_code, exception_description, created_at, updated_at) " +
+        "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private static final String FIND_KEYLESS_SQL =
+        "SELECT id, shipment_id, event_type, status, event_date, location_zip, location_city " +
+        "FROM tracking_events WHERE id > ? AND event_key IS NULL ORDER BY id LIMIT ?";
+
+    private static final String UPDATE_KEY_SQL = "UPDATE tracking_events SET event_key = ? WHERE id = ?";
+
+    private static final String DELETE_SQL = "DELETE FROM tracking_events WHERE id IN (:ids)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    @Value("${tracking.ingest.jdbc-batch-size:1000}")
+    private int jdbcBatchSize;
+
+    public TrackingEventBatchRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Shipments for the given tracking numbers, keyed by tracking number
+     */
+    public Map<String, ShipmentRef> findShipments(Collection<String> trackingNumbers) {
+        Map<String, ShipmentRef> shipments = new HashMap<>();
+        for (List<String> chunk : chunks(trackingNumbers)) {
+            namedParameterJdbcTemplate.query(FIND_SHIPMENTS_SQL, Map.of("numbers", chunk), rs -> {
+                ShipmentRef shipment = new ShipmentRef(rs.getLong(1), rs.getString(3), rs.getString(4));
+                shipments.put(rs.getString(2), shipment);
+            });
+        }
+        return shipments;
+    }
+
+    /**
+     * The subset of event keys already stored
+     */
+    public Set<String> findExistingKeys(Collection<String> eventKeys) {
+        return findKeys(FIND_KEYS_SQL, eventKeys);
+    }
+
+    /**
+     * Insert events in JDBC batches within one transaction and return the ones
+     * written. Events whose key another request stored first are left out.
+     */
+    @Transactional
+    public List<PendingEvent> insertAll(List<PendingEvent> events) {
+        List<PendingEvent> pending = events;
+        for (int attempt = 1; ; attempt++) {
+            if (pending.isEmpty()) {
+                return pending;
+            }
+            try {
+                insertAtSavepoint(pending);
+                return pending;
+            } catch (DuplicateKeyException e) {
+                if (attempt == MAX_INSERT_ATTEMPTS) {
+                    throw e;
+                }
+                Set<String> stored = findKeys(FIND_STORED_KEYS_SQL,
+                    pending.stream().map(event -> event.event().getEventKey()).toList());
+                pending = pending.stream()
+                    .filter(event -> !stored.contains(event.event().getEventKey()))
+                    .toList();
+            }
+        }
+    }
+
+    /**
+     * Next events after {@code afterId} without an event key, with the key they should have
+     */
+    public List<KeyedEvent> findKeyless(long afterId, int limit) {
+        return jdbcTemplate.query(FIND_KEYLESS_SQL, (rs, row) -> new KeyedEvent(rs.getLong(1),
+            TrackingEvent.naturalKey(rs.getLong(2), rs.getString(3), rs.getString(4),
+                rs.getTimestamp(5).toLocalDateTime(), rs.getString(6), rs.getString(7))),
+            afterId, limit);
+    }
+
+    /**
+     * Store the keys of events found by {@link #findKeyless}. An event whose key is
+     * already stored, or taken by an earlier event in the list, is a re-sent scan
+     * that predates de-duplication and is deleted. Returns the number deleted.
+     */
+    @Transactional
+    public int assignKeys(List<KeyedEvent> events) {
+        Set<String> stored = findKeys(FIND_STORED_KEYS_SQL, events.stream().map(KeyedEvent::eventKey).toList());
+        Set<String> seen = new HashSet<>();
+        List<KeyedEvent> keyed = new ArrayList<>(events.size());
+        List<Long> duplicates = new ArrayList<>();
+        for (KeyedEvent event : events) {
+            if (stored.contains(event.eventKey()) || !seen.add(event.eventKey())) {
+                duplicates.add(event.id());
+            } else {
+                keyed.add(event);
+            }
+        }
+        for (List<Long> chunk : chunks(duplicates)) {
+            namedParameterJdbcTemplate.update(DELETE_SQL, Map.of("ids", chunk));
+        }
+        jdbcTemplate.batchUpdate(UPDATE_KEY_SQL, keyed, jdbcBatchSize, (ps, event) -> {
+            ps.setString(1, event.eventKey());
+            ps.setLong(2, event.id());
+        });
+        return duplicates.size();
+    }
+
+    private void insertAtSavepoint(List<PendingEvent> events) {
+        jdbcTemplate.execute((ConnectionCallback<Void>) connection -> {
+            Savepoint savepoint = connection.setSavepoint();
+            try {
+                jdbcTemplate.batchUpdate(INSERT_SQL, events, jdbcBatchSize, this::bind);
+            } catch (DuplicateKeyException e) {
+                connection.rollback(savepoint);
+                throw e;
+            }
+            connection.releaseSavepoint(savepoint);
+            return null;
+        });
+    }
+
+    private Set<String> findKeys(String sql, Collection<String> eventKeys) {
+        Set<String> keys = new HashSet<>();
+        for (List<String> chunk : chunks(eventKeys)) {
+            namedParameterJdbcTemplate.query(sql, Map.of("keys", chunk),
+                rs -> { keys.add(rs.getString(1)); });
+        }
+        return keys;
+    }
+
+    private void bind(PreparedStatement ps, PendingEvent pending) throws SQLException {
+        TrackingEvent event = pending.event();
+        int i = 1;
+        ps.setLong(i++, pending.shipmentId());
+        ps.setString(i++, event.getEventKey());
+        ps.setString(i++, event.getEventType());
+        ps.setString(i++, event.getStatus());
+        ps.setString(i++, event.getStatusDescription());
+        ps.setTimestamp(i++, timestamp(event.getEventDate()));
+        ps.setString(i++, event.getLocationCity());
+        ps.setString(i++, event.getLocationState());
+        ps.setString(i++, event.getLocationCountry());
+        ps.setString(i++, event.getLocationZip());
+        ps.setString(i++, event.getCarrierCode());
+        ps.setString(i++, event.getCarrierName());
+        ps.setString(i++, event.getTrackingNumber());
+        ps.setString(i++, event.getDeliverySignature());
+        ps.setString(i++, event.getDeliveryInstructions());
+        ps.setTimestamp(i++, timestamp(event.getEstimatedDelivery()));
+        ps.setTimestamp(i++, timestamp(event.getActualDelivery()));
+        ps.setString(i++, event.getExceptionCode());
+        ps.setString(i++, event.getExceptionDescription());
+        ps.setTimestamp(i++, timestamp(event.getCreatedAt()));
+        ps.setTimestamp(i, timestamp(event.getUpdatedAt()));
+    }
+
+    private static Timestamp timestamp(LocalDateTime value) {
+        return value != null ? Timestamp.valueOf(value) : null;
+    }
+
+    private static <T> List<List<T>> chunks(Collection<T> values) {
+        List<T> list = new ArrayList<>(values);
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < list.size(); from += IN_LIST_SIZE) {
+            chunks.add(list.subList(from, Math.min(from + IN_LIST_SIZE, list.size())));
+        }
+        return chunks;
+    }
+
+    public record ShipmentRef(long id, String carrierCode, String carrierName) {}
+
+    /**
+     * A stored event and its natural key
+     */
+    public record KeyedEvent(long id, String eventKey) {}
+
+    /**
+     * An event to insert for a resolved shipment
+     */
+    public record PendingEvent(long shipmentId, TrackingEvent event) {}
+}
@@ -1,7 +1,11 @@
 package com.songo.repository;
 
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.tracking.PublicTrackingEvent;
+import com.songo.dto.tracking.TrackingEventView;
 import com.songo.model.Shipment;
 import com.songo.model.TrackingEvent;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -17,14 +21,17 @@ import java.util.Optional;
 @Repository
 public interface TrackingEventRepository extends JpaRepository<TrackingEvent, Long> {
     
-    List<TrackingEvent> findByShipmentOrderByEventDateDesc(Shipment shipment);
+    // Select list of the TrackingEventView queries below; the shipment id is read from the foreign key
+    String EVENT_VIEW = "SELECT new com.songo.dto.tracking.TrackingEventView(te.id, te.shipment.id, " +
+                        "te.trackingNumber, te.eventType, te.status, te.statusDescription, te.eventDate, " +
+                        "te.locationCity, te.locationState, te.locationCountry, te.locationZip, te.carrierCode, " +
+                        "te.carrierName, te.deliverySignature, te.deliveryInstructions, te.estimatedDelivery, " +
+                        "te.actualDelivery, te.exceptionCode, te.exceptionDescription, te.createdAt) ";
     
-    List<TrackingEvent> findByTrackingNumberOrderByEventDateDesc(String trackingNumber);
+    List<TrackingEvent> findByShipmentOrderByEventDateDesc(Shipment shipment);
     
     Optional<TrackingEvent> findTopByShipmentOrderByEventDateDesc(Shipment shipment);
     
-    Optional<TrackingEvent> findTopByTrackingNumberOrderByEventDateDesc(String trackingNumber);
-    
     List<TrackingEvent> findByShipmentAndEventType(Shipment shipment, String eventType);
     
     List<TrackingEvent> findByShipmentAndStatus(Shipment shipment, String status);
@@ -39,17 +46,61 @@ public interface TrackingEventRepository extends JpaRepository<TrackingEvent, Lo
                                                                @Param("startDate") LocalDateTime startDate, 
                                                                @Param("endDate") LocalDateTime endDate);
     
-    @Query("SELECT te FROM TrackingEvent te WHERE te.shipment.id = :shipmentId ORDER BY te.eventDate DESC")
-    List<TrackingEvent> findByShipmentIdOrderByEventDateDesc(@Param("shipmentId") Long shipmentId);
+    /**
+     * A tracking number's events, newest first
+     */
+    @Query(EVENT_VIEW + "FROM TrackingEvent te WHERE te.trackingNumber = :trackingNumber ORDER BY te.eventDate DESC")
+    List<TrackingEventView> findViewsByTrackingNumber(@Param("trackingNumber") String trackingNumber,
+                                                      Pageable pageable);
+    
+    default List<TrackingEventView> findViewsByTrackingNumber(String trackingNumber) {
+        return findViewsByTrackingNumber(trackingNumber, Pageable.unpaged());
+    }
+    
+    default Optional<TrackingEventView> findLatestViewByTrackingNumber(String trackingNumber) {
+        return findViewsByTrackingNumber(trackingNumber, Pageable.ofSize(1)).stream().findFirst();
+    }
+    
+    /**
+     * A shipment's events, newest first
+     */
+    @Query(EVENT_VIEW + "FROM TrackingEvent te WHERE te.shipment.id = :shipmentId ORDER BY te.eventDate DESC")
+    List<TrackingEventView> findViewsByShipmentId(@Param("shipmentId") Long shipmentId);
     
     @Query("SELECT COUNT(te) FROM TrackingEvent te WHERE te.shipment = :shipment")
     long countByShipment(@Param("shipment") Shipment shipment);
     
-    @Query("SELECT te FROM TrackingEvent te WHERE te.status = 'DELIVERED' AND te.actualDelivery IS NOT NULL ORDER BY te.actualDelivery DESC")
-    List<TrackingEvent> findDeliveredShipments();
+    @Query(EVENT_VIEW + "FROM TrackingEvent te WHERE te.status = 'DELIVERED' AND te.actualDelivery IS NOT NULL ORDER BY te.actualDelivery DESC")
+    List<TrackingEventView> findDeliveredShipments();
     
-    @Query("SELECT te FROM TrackingEvent te WHERE te.exceptionCode IS NOT NULL AND te.exceptionCode != '' ORDER BY te.eventDate DESC")
-    List<TrackingEvent> findShipmentsWithExceptions();
+    @Query(EVENT_VIEW + "FROM TrackingEvent te WHERE te.exceptionCode IS NOT NULL AND te.exceptionCode != '' ORDER BY te.eventDate DESC")
+    List<TrackingEventView> findShipmentsWithExceptions();
     
     boolean existsByShipmentAndEventTypeAndEventDate(Shipment shipment, String eventType, LocalDateTime eventDate);
+    
+    /**
+     * Public columns of a tracking number's events, newest first
+     */
+    @Query("SELECT new com.songo.dto.tracking.PublicTrackingEvent(te.trackingNumber, te.eventType, te.status, " +
+           "te.statusDescription, te.eventDate, te.locationCity, te.locationState, te.locationCountry, " +
+           "te.carrierCode, te.carrierName, te.estimatedDelivery, te.actualDelivery, te.exceptionCode, " +
+           "te.exceptionDescription) " +
+           "FROM TrackingEvent te WHERE te.trackingNumber = :trackingNumber ORDER BY te.eventDate DESC")
+    List<PublicTrackingEvent> findPublicByTrackingNumber(@Param("trackingNumber") String trackingNumber,
+                                                         Pageable pageable);
+    
+    default List<PublicTrackingEvent> findPublicByTrackingNumber(String trackingNumber) {
+        return findPublicByTrackingNumber(trackingNumber, Pageable.unpaged());
+    }
+    
+    default Optional<PublicTrackingEvent> findLatestPublicByTrackingNumber(String trackingNumber) {
+        return findPublicByTrackingNumber(trackingNumber, Pageable.ofSize(1)).stream().findFirst();
+    }
+    
+    /**
+     * Change marker for a tracking number's events, for conditional GETs
+     */
+    @Query("SELECT new com.songo.dto.ResourceVersion(COUNT(te), MAX(te.id), MAX(te.updatedAt)) " +
+           "FROM TrackingEvent te WHERE te.trackingNumber = :trackingNumber")
+    ResourceVersion findVersionByTrackingNumber(@Param("trackingNumber") String trackingNumber);
 }
@@ -0,0 +1,167 @@
+package com.songo.repository;
+
+import com.songo.model.Shipment;
+import com.songo.model.TrackingEvent;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Maintains the latest tracking event columns on {@code shipments}
+ * ({@code latest_event_*}), so shipment lists read a shipment's current
+ * tracking state without querying tracking_events per shipment.
+ * An update only applies if the event is at least as recent as the stored one,
+ * so late or re-ordered scans never move a shipment backwards. A change
+ * also bumps the shipment's updated_at. The shipment status is then derived
+ * from the stored latest event status in one set-based update per batch.
+ */
+@Repository
+public class TrackingStatusRepository {
+
+    private static final int JDBC_BATCH_SIZE = 1000;
+
+    private static final String UPDATE_SQL =
+        "UPDATE shipments SET latest_event_type = ?, latest_event_status = ?, latest_event_description = ?, " +
+        "latest_event_location = ?, latest_event_at = ?, updated_at = ? " +
+        "WHERE id = ? AND (latest_event_at IS NULL OR latest_event_at <= ?)";
+
+    // Tracking statuses that move a shipment, by the shipment status they move it to; others leave it alone
+    private static final Map<String, Shipment.ShipmentStatus> SHIPMENT_STATUS_BY_EVENT_STATUS = Map.of(
+        "DELIVERED", Shipment.ShipmentStatus.DELIVERED,
+        "IN_TRANSIT", Shipment.ShipmentStatus.IN_TRANSIT,
+        "OUT_FOR_DELIVERY", Shipment.ShipmentStatus.IN_TRANSIT,
+        "PENDING", Shipment.ShipmentStatus.PENDING,
+        "EXCEPTION", Shipment.ShipmentStatus.EXCEPTION);
+
+    private static final String DERIVED_STATUS = SHIPMENT_STATUS_BY_EVENT_STATUS.entrySet().stream()
+        .map(e -> "WHEN '" + e.getKey() + "' THEN '" + e.getValue().name() + "' ")
+        .collect(Collectors.joining("", "CASE UPPER(latest_event_status) ", "ELSE status END"));
+
+    private static final String UPDATE_STATUS_SQL =
+        "UPDATE shipments SET status = " + DERIVED_STATUS + ", " +
+        "delivered_at = CASE WHEN UPPER(latest_event_status) = 'DELIVERED' THEN latest_event_at ELSE delivered_at END, " +
+        "updated_at = :now WHERE id IN (:ids) AND status <> " + DERIVED_STATUS;
+
+    private static final String FIND_USER_IDS_SQL =
+        "SELECT DISTINCT user_id FROM shipments WHERE id IN (:ids)";
+
+    private static final String FIND_MISSING_SQL =
+        "SELECT s.id FROM shipments s WHERE s.id > ? AND s.latest_event_at IS NULL " +
+        "AND EXISTS (SELECT 1 FROM tracking_events te WHERE te.shipment_id = s.id) ORDER BY s.id LIMIT ?";
+
+    private static final String FIND_LATEST_SQL =
+        "SELECT shipment_id, event_type, status, status_description, location_city, location_state, " +
+        "location_country, event_date FROM (" +
+        "SELECT te.*, ROW_NUMBER() OVER (PARTITION BY te.shipment_id ORDER BY te.event_date DESC, te.id DESC) rn " +
+        "FROM tracking_events te WHERE te.shipment_id IN (:ids)) latest WHERE rn = 1";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+
+    public TrackingStatusRepository(JdbcTemplate jdbcTemplate, NamedParameterJdbcTemplate namedParameterJdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedParameterJdbcTemplate = namedParameterJdbcTemplate;
+    }
+
+    /**
+     * Apply the newest of the given events to each shipment.
+     * Rows are updated in shipment id order so concurrent writers lock in the same order.
+     */
+    public void updateLatest(Collection<LatestEvent> events) {
+        Map<Long, LatestEvent> newest = new TreeMap<>();
+        for (LatestEvent event : events) {
+            newest.merge(event.shipmentId(), event, (a, b) -> b.eventAt().isAfter(a.eventAt()) ? b : a);
+        }
+        if (newest.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        jdbcTemplate.batchUpdate(UPDATE_SQL, newest.values(), JDBC_BATCH_SIZE, (ps, event) -> {
+            Timestamp eventAt = Timestamp.valueOf(event.eventAt());
+            ps.setString(1, event.eventType());
+            ps.setString(2, event.status());
+            ps.setString(3, event.description());
+            ps.setString(4, event.location());
+            ps.setTimestamp(5, eventAt);
+            ps.setTimestamp(6, now);
+            ps.setLong(7, event.shipmentId());
+            ps.setTimestamp(8, eventAt);
+        });
+    }
+
+    /**
+     * Move each given shipment to the status its latest event implies, e.g. IN_TRANSIT
+     * for an out-for-delivery scan; a delivery also sets delivered_at to the scan time.
+     * Shipments whose latest event status maps to no shipment status are left as they are.
+     * Returns the number of shipments whose status changed.
+     */
+    public int updateStatusFromLatest(Collection<Long> shipmentIds) {
+        List<Long> ids = new ArrayList<>(new TreeSet<>(shipmentIds));
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int updated = 0;
+        for (int from = 0; from < ids.size(); from += JDBC_BATCH_SIZE) {
+            updated += namedParameterJdbcTemplate.update(UPDATE_STATUS_SQL, new MapSqlParameterSource()
+                .addValue("ids", ids.subList(from, Math.min(from + JDBC_BATCH_SIZE, ids.size())))
+                .addValue("now", now));
+        }
+        return updated;
+    }
+
+    /**
+     * Owners of the given shipments
+     */
+    public List<Long> findUserIds(Collection<Long> shipmentIds) {
+        if (shipmentIds.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.queryForList(FIND_USER_IDS_SQL,
+            new MapSqlParameterSource("ids", shipmentIds), Long.class);
+    }
+
+    /**
+     * Next shipments after {@code afterId} that have tracking events but no latest event columns yet
+     */
+    public List<Long> findShipmentsMissingStatus(long afterId, int limit) {
+        return jdbcTemplate.queryForList(FIND_MISSING_SQL, Long.class, afterId, limit);
+    }
+
+    /**
+     * The latest stored event of each given shipment
+     */
+    public List<LatestEvent> findLatestEvents(Collection<Long> shipmentIds) {
+        if (shipmentIds.isEmpty()) {
+            return List.of();
+        }
+        return namedParameterJdbcTemplate.query(FIND_LATEST_SQL, Map.of("ids", shipmentIds), (rs, row) ->
+            new LatestEvent(rs.getLong(1), rs.getString(2), rs.getString(3), rs.getString(4),
+                formatLocation(rs.getString(5), rs.getString(6), rs.getString(7)),
+                rs.getTimestamp(8).toLocalDateTime()));
+    }
+
+    private static String formatLocation(String city, String state, String country) {
+        String location = Stream.of(city, state, country)
+            .filter(part -> part != null && !part.isBlank())
+            .collect(Collectors.joining(", "));
+        return location.isEmpty() ? null : location;
+    }
+
+    /**
+     * The fields of a tracking event copied onto its shipment
+     */
+    public record LatestEvent(long shipmentId, String eventType, String status, String description,
+                              String location, LocalDateTime eventAt) {
+
+        public static LatestEvent of(long shipmentId, TrackingEvent event) {
+            return new LatestEvent(shipmentId, event.getEventType(), event.getStatus(), event.getStatusDescription(),
+                formatLocation(event.getLocationCity(), event.getLocationState(), event.getLocationCountry()),
+                event.getEventDate());
+        }
+    }
+}
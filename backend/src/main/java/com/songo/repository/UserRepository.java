@@ -1,8 +1,10 @@
 package com.songo.repository;
 
+import com.songo.dto.auth.UserResponse;
 import com.songo.model.User;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
@@ -19,10 +21,20 @@ import java.util.Optional;
 public interface UserRepository extends JpaRepository<User, Long> {
     
     /**
-     * Find user by email address
+     * Find user by email address. The profile is joined in: as the inverse side of a
+     * one-to-one it cannot be proxied and would otherwise cost a second query on every
+     * authenticated request.
      */
+    @EntityGraph(attributePaths = "customerProfile")
     Optional<User> findByEmail(String email);
     
+    /**
+     * Account fields of a user, without loading the entity or its associations
+     */
+    @Query("SELECT new com.songo.dto.auth.UserResponse(u.id, u.email, u.firstName, u.lastName, u.phone, " +
+           "u.role, u.status, u.emailVerified, u.createdAt, u.lastLogin) FROM User u WHERE u.id = :id")
+    Optional<UserResponse> findResponseById(@Param("id") Long id);
+    
     /**
      * Check if user exists by email
      */
@@ -1,424 +1,296 @@
 package com.songo.service;
 
+import com.songo.dto.quote.CarrierQuoteResult;
+import com.songo.dto.quote.QuoteFingerprint;
 import com.songo.dto.quote.QuoteRequest;
 import com.songo.dto.quote.QuoteResponse;
-import com.songo.model.Quote;
+import com.songo.model.Carrier;
+import com.songo.repository.CarrierRepository;
+import com.songo.service.carrier.CarrierRateProvider;
+import com.songo.service.carrier.ReactiveCarrierRateProvider;
+import io.micrometer.core.instrument.MeterRegistry;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
-import org.springframework.web.client.HttpClientErrorException;
 
-import java.math.BigDecimal;
-import java.time.LocalDateTime;
+import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.BiConsumer;
 
 /**
- * Service for integrating with real carrier APIs
+ * Service for integrating with real carrier APIs.
+ * Fans quote requests out to every enabled {@link CarrierRateProvider}.
  */
 @Service
 public class CarrierIntegrationService {
     
     private static final Logger logger = LoggerFactory.getLogger(CarrierIntegrationService.class);
     
-    private final RestTemplate restTemplate;
+    // Fan-out deadlines
+    @Value("${carriers.quote.carrier-timeout-ms:3000}")
+    private long carrierTimeoutMs;
     
-    // FedEx Configuration
-    @Value("${carriers.fedex.api-url:https://apis.fedex.com}")
-    private String fedexApiUrl;
+    @Value("${carriers.quote.overall-timeout-ms:5000}")
+    private long overallTimeoutMs;
     
-    @Value("${carriers.fedex.api-key:}")
-    private String fedexApiKey;
+    private final List<CarrierRateProvider> providers;
     
-    @Value("${carriers.fedex.secret-key:}")
-    private String fedexSecretKey;
+    private final CarrierRepository carrierRepository;
     
-    // UPS Configuration
-    @Value("${carriers.ups.api-url:https://wwwcie.ups.com}")
-    private String upsApiUrl;
+    private final ExecutorService carrierQuoteExecutor;
     
-    @Value("${carriers.ups.username:}")
-    private String upsUsername;
+    private final Environment environment;
     
-    @Value("${carriers.ups.password:}")
-    private String upsPassword;
+    private final CarrierRateCache carrierRateCache;
     
-    @Value("${carriers.ups.access-key:}")
-    private String upsAccessKey;
+    private final MeterRegistry meterRegistry;
     
-    // DHL Configuration
-    @Value("${carriers.dhl.api-url:https://api-test.dhl.com}")
-    private String dhlApiUrl;
+    // Carrier calls currently in flight, by carrier and request fingerprint
+    private final ConcurrentMap<InFlightKey, CompletableFuture<List<QuoteResponse>>> inFlightCalls =
+        new ConcurrentHashMap<>();
     
-    @Value("${carriers.dhl.api-key:}")
-    private String dhlApiKey;
+    // Codes of carriers marked inactive in the carriers table
+    private volatile Set<String> inactiveCarrierCodes;
     
-    // USPS Configuration
-    @Value("${carriers.usps.api-url:https://secure.shippingapis.com}")
-    private String uspsApiUrl;
-    
-    @Value("${carriers.usps.user-id:}")
-    private String uspsUserId;
-    
-    public CarrierIntegrationService() {
-        this.restTemplate = new RestTemplate();
+    public CarrierIntegrationService(List<CarrierRateProvider> providers,
+                                     CarrierRepository carrierRepository,
+                                     @Qualifier("carrierQuoteExecutor") ExecutorService carrierQuoteExecutor,
+                                     Environment environment,
+                                     CarrierRateCache carrierRateCache,
+                                     MeterRegistry meterRegistry) {
+        this.providers = providers;
+        this.carrierRepository = carrierRepository;
+        this.carrierQuoteExecutor = carrierQuoteExecutor;
+        this.environment = environment;
+        this.carrierRateCache = carrierRateCache;
+        this.meterRegistry = meterRegistry;
     }
     
     /**
      * Get quotes from all available carriers
      */
     public List<QuoteResponse> getAllCarrierQuotes(QuoteRequest request) {
-        List<QuoteResponse> allQuotes = new ArrayList<>();
-        
-        // Get quotes from each carrier in parallel (simplified for demo)
-        try {
-            allQuotes.addAll(getFedExQuotes(request));
-        } catch (Exception e) {
-            logger.warn("Failed to get FedEx quotes: {}", e.getMessage());
-        }
-        
-        try {
-            allQuotes.addAll(getUPSQuotes(request));
-        } catch (Exception e) {
-            logger.warn("Failed to get UPS quotes: {}", e.getMessage());
-        }
-        
-        try {
-            allQuotes.addAll(getDHLQuotes(request));
-        } catch (Exception e) {
-            logger.warn("Failed to get DHL quotes: {}", e.getMessage());
-        }
-        
-        try {
-            allQuotes.addAll(getUSPSQuotes(request));
-        } catch (Exception e) {
-            logger.warn("Failed to get USPS quotes: {}", e.getMessage());
-        }
-        
-        // Sort by price
-        allQuotes.sort(Comparator.comparing(QuoteResponse::getPrice));
-        
-        return allQuotes;
+        return getCarrierQuotes(request).getQuotes();
     }
     
     /**
-     * Get FedEx quotes
+     * Get quotes from all available carriers in parallel.
+     * Each carrier has its own deadline and the whole fan-out is bounded by the
+     * overall deadline; carriers that miss it are reported instead of awaited.
+     * Carriers with cached rates for the request fingerprint are not called.
      */
-    private List<QuoteResponse> getFedExQuotes(QuoteRequest request) {
-        List<QuoteResponse> quotes = new ArrayList<>();
-        
-        if (fedexApiKey.isEmpty()) {
-            // Return demo data if no API key configured
-            return getFedExDemoQuotes(request);
-        }
-        
+    public CarrierQuoteResult getCarrierQuotes(QuoteRequest request) {
         try {
-            // FedEx OAuth token request
-            String accessToken = getFedExAccessToken();
-            
-            // Build FedEx rate request
-            Map<String, Object> rateRequest = buildFedExRateRequest(request);
-            
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.setBearerAuth(accessToken);
-            
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(rateRequest, headers);
-            
-            ResponseEntity<Map> response = restTemplate.postForEntity(
-                fedexApiUrl + "/rate/v1/rates/quotes", 
-                entity, 
-                Map.class
-            );
-            
-            if (response.getStatusCode() == HttpStatus.OK) {
-                quotes = parseFedExResponse(response.getBody());
-            }
-            
-        } catch (HttpClientErrorException e) {
-            logger.error("FedEx API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
-            // Fallback to demo data
-            return getFedExDemoQuotes(request);
-        } catch (Exception e) {
-            logger.error("Error calling FedEx API: {}", e.getMessage(), e);
-            // Fallback to demo data
-            return getFedExDemoQuotes(request);
+            return streamCarrierQuotes(request, (carrier, quotes) -> {}).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching carrier quotes");
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to fetch carrier quotes: " + e.getCause().getMessage(), e.getCause());
         }
-        
-        return quotes;
     }
     
     /**
-     * Get FedEx OAuth access token
+     * Same fan-out as {@link #getCarrierQuotes}, without blocking the caller.
+     * {@code onCarrierQuotes} is called with each carrier's quotes as soon as
+     * that carrier answers (on the answering thread); the returned future
+     * completes with the sorted summary once all carriers answered or the
+     * overall deadline passed.
      */
-    private String getFedExAccessToken() {
-        Map<String, String> tokenRequest = new HashMap<>();
-        tokenRequest.put("grant_type", "client_credentials");
-        tokenRequest.put("client_id", fedexApiKey);
-        tokenRequest.put("client_secret", fedexSecretKey);
-        
-        HttpHeaders headers = new HttpHeaders();
-        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
-        
-        HttpEntity<Map<String, String>> entity = new HttpEntity<>(tokenRequest, headers);
-        
-        ResponseEntity<Map> response = restTemplate.postForEntity(
-            fedexApiUrl + "/oauth/token", 
-            entity, 
-            Map.class
-        );
-        
-        Map<String, Object> responseBody = response.getBody();
-        return (String) responseBody.get("access_token");
-    }
-    
-    /**
-     * Build FedEx rate request payload
-     */
-    private Map<String, Object> buildFedExRateRequest(QuoteRequest request) {
-        Map<String, Object> rateRequest = new HashMap<>();
-        
-        // Account information
-        Map<String, Object> accountNumber = new HashMap<>();
-        accountNumber.put("value", "YOUR_FEDEX_ACCOUNT_NUMBER");
-        rateRequest.put("accountNumber", accountNumber);
-        
-        // Requested shipment
-        Map<String, Object> requestedShipment = new HashMap<>();
-        
-        // Shipper
-        Map<String, Object> shipper = new HashMap<>();
-        Map<String, Object> shipperAddress = new HashMap<>();
-        shipperAddress.put("streetLines", Arrays.asList(request.getOriginAddress()));
-        shipperAddress.put("city", request.getOriginCity());
-        shipperAddress.put("stateOrProvinceCode", request.getOriginState());
-        shipperAddress.put("postalCode", request.getOriginZip());
-        shipperAddress.put("countryCode", request.getOriginCountry());
-        shipper.put("address", shipperAddress);
-        requestedShipment.put("shipper", shipper);
-        
-        // Recipient
-        Map<String, Object> recipient = new HashMap<>();
-        Map<String, Object> recipientAddress = new HashMap<>();
-        recipientAddress.put("streetLines", Arrays.asList(request.getDestinationAddress()));
-        recipientAddress.put("city", request.getDestinationCity());
-        recipientAddress.put("stateOrProvinceCode", request.getDestinationState());
-        recipientAddress.put("postalCode", request.getDestinationZip());
-        recipientAddress.put("countryCode", request.getDestinationCountry());
-        recipient.put("address", recipientAddress);
-        requestedShipment.put("recipients", Arrays.asList(recipient));
-        
-        // Package details
-        Map<String, Object> requestedPackageLineItems = new HashMap<>();
-        Map<String, Object> weight = new HashMap<>();
-        weight.put("value", request.getWeight());
-        weight.put("units", "LB");
-        requestedPackageLineItems.put("weight", weight);
-        
-        if (request.getDimensionsLength() != null) {
-            Map<String, Object> dimensions = new HashMap<>();
-            dimensions.put("length", request.getDimensionsLength());
-            dimensions.put("width", request.getDimensionsWidth());
-            dimensions.put("height", request.getDimensionsHeight());
-            dimensions.put("units", "IN");
-            requestedPackageLineItems.put("dimensions", dimensions);
+    public CompletableFuture<CarrierQuoteResult> streamCarrierQuotes(QuoteRequest request,
+                                                                     BiConsumer<String, List<QuoteResponse>> onCarrierQuotes) {
+        long start = System.nanoTime();
+        QuoteFingerprint fingerprint = QuoteFingerprint.of(request);
+        
+        Map<String, CompletableFuture<List<QuoteResponse>>> calls = new LinkedHashMap<>();
+        List<CompletableFuture<Void>> notified = new ArrayList<>();
+        for (CarrierRateProvider provider : getEnabledProviders()) {
+            String carrier = provider.getCarrierName();
+            CompletableFuture<List<QuoteResponse>> call = submitCarrierCall(provider, request, fingerprint);
+            notified.add(call.thenAccept(quotes -> {
+                try {
+                    onCarrierQuotes.accept(carrier, quotes);
+                } catch (Exception e) {
+                    logger.warn("Carrier quote listener failed for {}: {}", carrier, e.getMessage());
+                }
+            }));
+            calls.put(carrier, call);
         }
         
-        requestedShipment.put("requestedPackageLineItems", Arrays.asList(requestedPackageLineItems));
-        
-        rateRequest.put("requestedShipment", requestedShipment);
-        
-        return rateRequest;
+        // Wait on the listener stages, not the calls, so every carrier's quotes are
+        // delivered before the summary completes
+        return CompletableFuture.allOf(notified.toArray(new CompletableFuture<?>[0]))
+            .completeOnTimeout(null, overallTimeoutMs, TimeUnit.MILLISECONDS)
+            .handle((ignored, error) -> collectResults(calls, start));
     }
     
     /**
-     * Parse FedEx API response
+     * Merge finished carrier calls into a price-sorted result, cancelling and
+     * reporting the carriers that have not answered yet
      */
-    private List<QuoteResponse> parseFedExResponse(Map<String, Object> responseBody) {
-        List<QuoteResponse> quotes = new ArrayList<>();
+    private CarrierQuoteResult collectResults(Map<String, CompletableFuture<List<QuoteResponse>>> calls, long start) {
+        List<QuoteResponse> allQuotes = new ArrayList<>();
+        List<String> timedOut = new ArrayList<>();
+        List<String> failed = new ArrayList<>();
         
-        try {
-            Map<String, Object> output = (Map<String, Object>) responseBody.get("output");
-            List<Map<String, Object>> rateReplyDetails = (List<Map<String, Object>>) output.get("rateReplyDetails");
+        for (Map.Entry<String, CompletableFuture<List<QuoteResponse>>> call : calls.entrySet()) {
+            String carrier = call.getKey();
+            CompletableFuture<List<QuoteResponse>> future = call.getValue();
             
-            for (Map<String, Object> rateDetail : rateReplyDetails) {
-                String serviceType = (String) rateDetail.get("serviceType");
-                List<Map<String, Object>> ratedShipmentDetails = (List<Map<String, Object>>) rateDetail.get("ratedShipmentDetails");
-                
-                for (Map<String, Object> shipmentDetail : ratedShipmentDetails) {
-                    Map<String, Object> totalNetCharge = (Map<String, Object>) shipmentDetail.get("totalNetCharge");
-                    Double amount = (Double) totalNetCharge.get("amount");
-                    String currency = (String) totalNetCharge.get("currency");
-                    
-                    Map<String, Object> operationalDetail = (Map<String, Object>) rateDetail.get("operationalDetail");
-                    Integer transitDays = (Integer) operationalDetail.get("transitTime");
-                    
-                    QuoteResponse quote = new QuoteResponse();
-                    quote.setCarrierName("FedEx");
-                    quote.setServiceName(getServiceDisplayName("FEDEX", serviceType));
-                    quote.setServiceCode(serviceType);
-                    quote.setPrice(BigDecimal.valueOf(amount));
-                    quote.setCurrency(currency);
-                    quote.setEstimatedTransitDays(transitDays);
-                    quote.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(transitDays));
-                    
-                    quotes.add(quote);
+            if (!future.isDone()) {
+                future.cancel(true);
+                timedOut.add(carrier);
+                continue;
+            }
+            
+            try {
+                allQuotes.addAll(future.join());
+            } catch (CompletionException | CancellationException e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                if (cause instanceof TimeoutException) {
+                    logger.warn("{} quotes timed out", carrier);
+                    timedOut.add(carrier);
+                } else {
+                    logger.warn("Failed to get {} quotes: {}", carrier, cause.getMessage());
+                    failed.add(carrier);
                 }
             }
-        } catch (Exception e) {
-            logger.error("Error parsing FedEx response: {}", e.getMessage(), e);
         }
         
-        return quotes;
-    }
-    
-    /**
-     * Get demo FedEx quotes (fallback when API is not configured)
-     */
-    private List<QuoteResponse> getFedExDemoQuotes(QuoteRequest request) {
-        List<QuoteResponse> quotes = new ArrayList<>();
-        
-        // FedEx Ground
-        QuoteResponse ground = new QuoteResponse();
-        ground.setCarrierName("FedEx");
-        ground.setServiceName("FedEx Ground");
-        ground.setServiceCode("FEDEX_GROUND");
-        ground.setPrice(calculateDemoPrice(request, 0.85));
-        ground.setCurrency("USD");
-        ground.setEstimatedTransitDays(5);
-        ground.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(5));
-        quotes.add(ground);
-        
-        // FedEx Express Saver
-        QuoteResponse expressSaver = new QuoteResponse();
-        expressSaver.setCarrierName("FedEx");
-        expressSaver.setServiceName("FedEx Express Saver");
-        expressSaver.setServiceCode("FEDEX_EXPRESS_SAVER");
-        expressSaver.setPrice(calculateDemoPrice(request, 1.2));
-        expressSaver.setCurrency("USD");
-        expressSaver.setEstimatedTransitDays(3);
-        expressSaver.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(3));
-        quotes.add(expressSaver);
+        if (!timedOut.isEmpty()) {
+            logger.warn("Carrier quote fan-out finished without {} (overall deadline {} ms)", timedOut, overallTimeoutMs);
+        }
         
-        // FedEx 2Day
-        QuoteResponse twoDay = new QuoteResponse();
-        twoDay.setCarrierName("FedEx");
-        twoDay.setServiceName("FedEx 2Day");
-        twoDay.setServiceCode("FEDEX_2_DAY");
-        twoDay.setPrice(calculateDemoPrice(request, 1.5));
-        twoDay.setCurrency("USD");
-        twoDay.setEstimatedTransitDays(2);
-        twoDay.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(2));
-        quotes.add(twoDay);
+        // Sort by price
+        allQuotes.sort(Comparator.comparing(QuoteResponse::getPrice));
         
-        return quotes;
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+        return new CarrierQuoteResult(allQuotes, timedOut, failed, elapsedMillis);
     }
     
     /**
-     * Get UPS quotes (simplified implementation)
+     * Answer a single carrier from the rate cache, join an identical call that
+     * is already in flight, or submit the call to the quote executor with its
+     * own deadline and cache the result
      */
-    private List<QuoteResponse> getUPSQuotes(QuoteRequest request) {
-        // For demo purposes, return mock UPS quotes
-        List<QuoteResponse> quotes = new ArrayList<>();
+    private CompletableFuture<List<QuoteResponse>> submitCarrierCall(CarrierRateProvider provider,
+                                                                     QuoteRequest request,
+                                                                     QuoteFingerprint fingerprint) {
+        String carrierName = provider.getCarrierName();
+        Optional<List<QuoteResponse>> cached = carrierRateCache.get(carrierName, fingerprint);
+        if (cached.isPresent()) {
+            countRequest(carrierName, "cache_hit");
+            return CompletableFuture.completedFuture(cached.get());
+        }
         
-        // UPS Ground
-        QuoteResponse ground = new QuoteResponse();
-        ground.setCarrierName("UPS");
-        ground.setServiceName("UPS Ground");
-        ground.setServiceCode("03");
-        ground.setPrice(calculateDemoPrice(request, 0.9));
-        ground.setCurrency("USD");
-        ground.setEstimatedTransitDays(5);
-        ground.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(5));
-        quotes.add(ground);
+        // Single flight: concurrent requests with the same fingerprint share one carrier call
+        InFlightKey key = new InFlightKey(carrierName, fingerprint);
+        CompletableFuture<List<QuoteResponse>> call = new CompletableFuture<>();
+        CompletableFuture<List<QuoteResponse>> existing = inFlightCalls.putIfAbsent(key, call);
+        if (existing != null) {
+            countRequest(carrierName, "coalesced");
+            // Each caller gets its own copies and its own future, so one caller
+            // cancelling at its deadline does not affect the others
+            return existing.thenApply(quotes -> quotes.stream().map(QuoteResponse::copy).toList());
+        }
         
-        // UPS 3 Day Select
-        QuoteResponse threeDay = new QuoteResponse();
-        threeDay.setCarrierName("UPS");
-        threeDay.setServiceName("UPS 3 Day Select");
-        threeDay.setServiceCode("12");
-        threeDay.setPrice(calculateDemoPrice(request, 1.3));
-        threeDay.setCurrency("USD");
-        threeDay.setEstimatedTransitDays(3);
-        threeDay.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(3));
-        quotes.add(threeDay);
+        countRequest(carrierName, "called");
+        call.whenComplete((quotes, error) -> inFlightCalls.remove(key, call));
         
-        return quotes;
+        long timeoutMs = environment.getProperty(
+            "carriers." + provider.getConfigKey() + ".timeout-ms", Long.class, carrierTimeoutMs);
+        try {
+            startCarrierCall(provider, request, timeoutMs)
+                .whenComplete((quotes, error) -> {
+                    if (error != null) {
+                        call.completeExceptionally(error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error);
+                    } else {
+                        carrierRateCache.put(carrierName, fingerprint, quotes);
+                        call.complete(quotes);
+                    }
+                });
+        } catch (RejectedExecutionException e) {
+            call.completeExceptionally(e);
+        }
+        return call.copy();
     }
     
     /**
-     * Get DHL quotes (simplified implementation)
+     * Reactive providers are subscribed to directly and hold no thread while
+     * the carrier answers; blocking providers run on the quote executor
      */
-    private List<QuoteResponse> getDHLQuotes(QuoteRequest request) {
-        List<QuoteResponse> quotes = new ArrayList<>();
-        
-        // DHL Express
-        QuoteResponse express = new QuoteResponse();
-        express.setCarrierName("DHL");
-        express.setServiceName("DHL Express Worldwide");
-        express.setServiceCode("P");
-        express.setPrice(calculateDemoPrice(request, 1.8));
-        express.setCurrency("USD");
-        express.setEstimatedTransitDays(2);
-        express.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(2));
-        quotes.add(express);
-        
-        return quotes;
+    private CompletableFuture<List<QuoteResponse>> startCarrierCall(CarrierRateProvider provider,
+                                                                    QuoteRequest request,
+                                                                    long timeoutMs) {
+        if (provider instanceof ReactiveCarrierRateProvider reactiveProvider) {
+            return reactiveProvider.getRatesReactive(request)
+                .defaultIfEmpty(List.of())
+                .timeout(Duration.ofMillis(timeoutMs))
+                .toFuture();
+        }
+        return CompletableFuture.supplyAsync(() -> provider.getRates(request), carrierQuoteExecutor)
+            .orTimeout(timeoutMs, TimeUnit.MILLISECONDS);
     }
     
-    /**
-     * Get USPS quotes (simplified implementation)
-     */
-    private List<QuoteResponse> getUSPSQuotes(QuoteRequest request) {
-        List<QuoteResponse> quotes = new ArrayList<>();
-        
-        // USPS Priority Mail
-        QuoteResponse priority = new QuoteResponse();
-        priority.setCarrierName("USPS");
-        priority.setServiceName("Priority Mail");
-        priority.setServiceCode("Priority");
-        priority.setPrice(calculateDemoPrice(request, 0.7));
-        priority.setCurrency("USD");
-        priority.setEstimatedTransitDays(3);
-        priority.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(3));
-        quotes.add(priority);
-        
-        return quotes;
+    private void countRequest(String carrier, String outcome) {
+        meterRegistry.counter("carrier.quote.requests", "carrier", carrier, "outcome", outcome).increment();
     }
     
     /**
-     * Calculate demo pricing based on package details
+     * Providers whose carrier is not marked inactive. Carriers without a row in
+     * the carriers table are enabled by default.
      */
-    private BigDecimal calculateDemoPrice(QuoteRequest request, double multiplier) {
-        double basePrice = 15.0;
-        double weightPrice = request.getWeight() * 2.5;
-        double distancePrice = 25.0; // Simplified distance calculation
-        
-        if (request.getDimensionsLength() != null) {
-            double volume = request.getDimensionsLength() * request.getDimensionsWidth() * request.getDimensionsHeight();
-            double volumePrice = volume * 0.01;
-            basePrice += volumePrice;
+    public List<CarrierRateProvider> getEnabledProviders() {
+        Set<String> inactive = inactiveCarrierCodes;
+        if (inactive == null) {
+            refreshCarrierStatus();
+            inactive = inactiveCarrierCodes;
         }
-        
-        double totalPrice = (basePrice + weightPrice + distancePrice) * multiplier;
-        return BigDecimal.valueOf(Math.round(totalPrice * 100.0) / 100.0);
+        List<CarrierRateProvider> enabled = new ArrayList<>();
+        for (CarrierRateProvider provider : providers) {
+            if (!inactive.contains(provider.getCarrierCode().toUpperCase())) {
+                enabled.add(provider);
+            }
+        }
+        return enabled;
     }
     
     /**
-     * Get display name for service codes
+     * Reload which carriers are active, so toggling Carrier.isActive takes
+     * effect without a restart and without a query per quote
      */
-    private String getServiceDisplayName(String carrier, String serviceCode) {
-        Map<String, String> serviceNames = new HashMap<>();
-        
-        // FedEx service names
-        serviceNames.put("FEDEX_GROUND", "FedEx Ground");
-        serviceNames.put("FEDEX_EXPRESS_SAVER", "FedEx Express Saver");
-        serviceNames.put("FEDEX_2_DAY", "FedEx 2Day");
-        serviceNames.put("STANDARD_OVERNIGHT", "FedEx Standard Overnight");
-        serviceNames.put("PRIORITY_OVERNIGHT", "FedEx Priority Overnight");
-        
-        return serviceNames.getOrDefault(serviceCode, serviceCode);
+    @Scheduled(fixedDelayString = "${carriers.status-refresh-interval-ms:60000}")
+    public void refreshCarrierStatus() {
+        try {
+            Set<String> inactive = new HashSet<>();
+            for (Carrier carrier : carrierRepository.findAll()) {
+                if (Boolean.FALSE.equals(carrier.getIsActive())) {
+                    inactive.add(carrier.getCode().toUpperCase());
+                }
+            }
+            inactiveCarrierCodes = inactive;
+        } catch (Exception e) {
+            logger.warn("Failed to refresh carrier status: {}", e.getMessage());
+            if (inactiveCarrierCodes == null) {
+                inactiveCarrierCodes = Collections.emptySet();
+            }
+        }
     }
+    
+    private record InFlightKey(String carrier, QuoteFingerprint fingerprint) {}
 }
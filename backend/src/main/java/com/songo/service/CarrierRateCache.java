@@ -0,0 +1,83 @@
+package com.songo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.songo.dto.quote.QuoteFingerprint;
+import com.songo.dto.quote.QuoteResponse;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Bounded, TTL-based cache of carrier rates keyed by carrier and quote fingerprint
+ */
+@Service
+public class CarrierRateCache {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarrierRateCache.class);
+
+    private final Cache<RateKey, List<QuoteResponse>> cache;
+
+    public CarrierRateCache(MeterRegistry meterRegistry,
+                            @Value("${carriers.rate-cache.ttl-seconds:900}") long ttlSeconds,
+                            @Value("${carriers.rate-cache.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .maximumSize(maxEntries)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "carrierRates");
+    }
+
+    /**
+     * Get cached rates for a carrier. Returned quotes are copies, so callers may
+     * modify them and delivery dates are computed from the current time.
+     */
+    public Optional<List<QuoteResponse>> get(String carrier, QuoteFingerprint fingerprint) {
+        List<QuoteResponse> cached = cache.getIfPresent(new RateKey(carrier, fingerprint));
+        if (cached == null) {
+            return Optional.empty();
+        }
+        return Optional.of(cached.stream().map(QuoteResponse::copy).toList());
+    }
+
+    /**
+     * Cache rates for a carrier. Empty results and demo rates are not cached, so a
+     * fallback served while a carrier API is failing is not repeated after it recovers.
+     */
+    public void put(String carrier, QuoteFingerprint fingerprint, List<QuoteResponse> quotes) {
+        if (quotes == null || quotes.isEmpty() || quotes.stream().anyMatch(QuoteResponse::isDemo)) {
+            return;
+        }
+        cache.put(new RateKey(carrier, fingerprint), quotes.stream().map(QuoteResponse::copy).toList());
+    }
+
+    /**
+     * Drop all cached rates for one carrier, e.g. after a rate card change
+     */
+    public void invalidateCarrier(String carrier) {
+        cache.asMap().keySet().removeIf(key -> key.carrier().equalsIgnoreCase(carrier));
+        logger.info("Invalidated cached rates for carrier {}", carrier);
+    }
+
+    /**
+     * Drop all cached rates
+     */
+    public void invalidateAll() {
+        cache.invalidateAll();
+        logger.info("Invalidated all cached carrier rates");
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    private record RateKey(String carrier, QuoteFingerprint fingerprint) {}
+}
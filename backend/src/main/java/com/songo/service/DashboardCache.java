@@ -0,0 +1,73 @@
+package com.songo.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.songo.dto.dashboard.DashboardSnapshot;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.function.Function;
+
+/**
+ * Per-user dashboard snapshots. Entries are evicted once a change to the
+ * user's quotes or shipments commits; the TTL only bounds staleness for
+ * changes made outside the application.
+ */
+@Component
+public class DashboardCache {
+
+    private final Cache<Long, DashboardSnapshot> cache;
+
+    public DashboardCache(MeterRegistry meterRegistry,
+                          @Value("${dashboard.cache.ttl-seconds:300}") long ttlSeconds,
+                          @Value("${dashboard.cache.max-entries:10000}") long maxEntries) {
+        this.cache = Caffeine.newBuilder()
+            .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+            .maximumSize(maxEntries)
+            .recordStats()
+            .build();
+        CaffeineCacheMetrics.monitor(meterRegistry, cache, "dashboards");
+    }
+
+    /**
+     * The user's cached snapshot, loading it on a miss. Concurrent misses for
+     * the same user share one load, and an eviction during the load waits for
+     * it and then discards the result.
+     */
+    public DashboardSnapshot get(Long userId, Function<Long, DashboardSnapshot> loader) {
+        return cache.get(userId, loader);
+    }
+
+    /**
+     * Drop a user's snapshot once the current transaction commits
+     */
+    public void evict(Long userId) {
+        if (userId == null) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    cache.invalidate(userId);
+                }
+            });
+        } else {
+            cache.invalidate(userId);
+        }
+    }
+
+    public void evictAll(Collection<Long> userIds) {
+        cache.invalidateAll(userIds);
+    }
+
+    public void evictAll() {
+        cache.invalidateAll();
+    }
+}
@@ -0,0 +1,160 @@
+package com.songo.service;
+
+import com.songo.dto.dashboard.DashboardSnapshot;
+import com.songo.dto.dashboard.RecentQuote;
+import com.songo.dto.dashboard.RecentShipment;
+import com.songo.model.Quote;
+import com.songo.model.Shipment;
+import com.songo.model.User;
+import com.songo.repository.QuoteRepository;
+import com.songo.repository.ShipmentRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * Assembles user dashboards. Quote and shipment counts come from one grouped
+ * query per entity and recent items from LIMIT-ed projections; the four
+ * queries run in parallel and the result is cached per user in
+ * {@link DashboardCache}, so a load does not grow with the user's history.
+ */
+@Service
+public class DashboardService {
+
+    private static final Logger logger = LoggerFactory.getLogger(DashboardService.class);
+
+    public static final int MAX_RECENT_LIMIT = 100;
+
+    private final QuoteRepository quoteRepository;
+    private final ShipmentRepository shipmentRepository;
+    private final DashboardCache dashboardCache;
+    private final ExecutorService executor;
+
+    @Value("${dashboard.recent-limit:5}")
+    private int recentLimit;
+
+    public DashboardService(QuoteRepository quoteRepository,
+                            ShipmentRepository shipmentRepository,
+                            DashboardCache dashboardCache,
+                            @Qualifier("dashboardExecutor") ExecutorService executor) {
+        this.quoteRepository = quoteRepository;
+        this.shipmentRepository = shipmentRepository;
+        this.dashboardCache = dashboardCache;
+        this.executor = executor;
+    }
+
+    /**
+     * The user's dashboard, from cache when nothing has changed since it was built
+     */
+    public DashboardSnapshot getDashboard(User user) {
+        return dashboardCache.get(user.getId(), this::load);
+    }
+
+    /**
+     * The user's most recent quotes, newest first
+     */
+    public List<RecentQuote> getRecentQuotes(User user, int limit) {
+        return quoteRepository.findRecentByUserId(user.getId(), Pageable.ofSize(checkLimit(limit)));
+    }
+
+    /**
+     * The user's most recent shipments, newest first
+     */
+    public List<RecentShipment> getRecentShipments(User user, int limit) {
+        return shipmentRepository.findRecentByUserId(user.getId(), Pageable.ofSize(checkLimit(limit)));
+    }
+
+    private DashboardSnapshot load(Long userId) {
+        long start = System.nanoTime();
+        Pageable recent = Pageable.ofSize(recentLimit);
+
+        CompletableFuture<Map<String, Long>> quoteCounts = async(() ->
+            toCounts(quoteRepository.countByStatusForUser(userId), Quote.QuoteStatus.values()));
+        CompletableFuture<Map<String, Long>> shipmentCounts = async(() ->
+            toCounts(shipmentRepository.countByStatusForUser(userId), Shipment.ShipmentStatus.values()));
+        CompletableFuture<List<RecentQuote>> recentQuotes = async(() ->
+            quoteRepository.findRecentByUserId(userId, recent));
+        CompletableFuture<List<RecentShipment>> recentShipments = async(() ->
+            shipmentRepository.findRecentByUserId(userId, recent));
+
+        try {
+            CompletableFuture.allOf(quoteCounts, shipmentCounts, recentQuotes, recentShipments).join();
+        } catch (CompletionException e) {
+            throw new RuntimeException("Failed to load dashboard: " + e.getCause().getMessage(), e.getCause());
+        }
+
+        Map<String, BigDecimal> financial = new LinkedHashMap<>();
+        financial.put("totalQuoteValue", sum(recentQuotes.join().stream().map(RecentQuote::estimatedPrice).toList()));
+        financial.put("totalShipmentCost", sum(recentShipments.join().stream().map(RecentShipment::totalCost).toList()));
+
+        logger.debug("Loaded dashboard for user {} in {} ms", userId, (System.nanoTime() - start) / 1_000_000);
+        return new DashboardSnapshot(quoteCounts.join(), shipmentCounts.join(),
+                                     recentQuotes.join(), recentShipments.join(),
+                                     Collections.unmodifiableMap(financial), LocalDateTime.now());
+    }
+
+    private <T> CompletableFuture<T> async(Supplier<T> query) {
+        return CompletableFuture.supplyAsync(query, executor);
+    }
+
+    private static int checkLimit(int limit) {
+        if (limit < 1 || limit > MAX_RECENT_LIMIT) {
+            throw new IllegalArgumentException("Limit must be between 1 and " + MAX_RECENT_LIMIT);
+        }
+        return limit;
+    }
+
+    /**
+     * Turn [status, count] rows into "total" plus a count for every status,
+     * zero when absent, keyed in camelCase
+     */
+    private static Map<String, Long> toCounts(List<Object[]> rows, Enum<?>[] statuses) {
+        Map<Enum<?>, Long> byStatus = new LinkedHashMap<>();
+        long total = 0;
+        for (Object[] row : rows) {
+            long count = ((Number) row[1]).longValue();
+            byStatus.put((Enum<?>) row[0], count);
+            total += count;
+        }
+
+        Map<String, Long> counts = new LinkedHashMap<>();
+        counts.put("total", total);
+        for (Enum<?> status : statuses) {
+            counts.put(camelCase(status.name()), byStatus.getOrDefault(status, 0L));
+        }
+        return Collections.unmodifiableMap(counts);
+    }
+
+    private static String camelCase(String name) {
+        StringBuilder key = new StringBuilder(name.length());
+        boolean upper = false;
+        for (char c : name.toCharArray()) {
+            if (c == '_') {
+                upper = true;
+            } else {
+                key.append(upper ? c : Character.toLowerCase(c));
+                upper = false;
+            }
+        }
+        return key.toString();
+    }
+
+    private static BigDecimal sum(List<BigDecimal> amounts) {
+        return amounts.stream().filter(Objects::nonNull).reduce(BigDecimal.ZERO, BigDecimal::add);
+    }
+}
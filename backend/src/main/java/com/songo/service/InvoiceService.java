@@ -1,20 +1,20 @@
 package com.songo.service;
 
+import com.songo.dto.CursorPage;
 import com.songo.model.Invoice;
 import com.songo.model.Shipment;
 import com.songo.model.User;
 import com.songo.repository.InvoiceRepository;
 import com.songo.repository.ShipmentRepository;
 import com.songo.repository.UserRepository;
+import com.songo.service.id.BusinessIds;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 import java.util.List;
 import java.util.Optional;
 
@@ -34,6 +34,9 @@ public class InvoiceService {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private BusinessIds businessIds;
+
     /**
      * Create invoice for a shipment
      */
@@ -48,7 +51,7 @@ public class InvoiceService {
         }
 
         Invoice invoice = new Invoice();
-        invoice.setInvoiceNumber(generateInvoiceNumber());
+        invoice.setInvoiceNumber(businessIds.invoiceNumber());
         invoice.setUser(shipment.getUser());
         invoice.setShipment(shipment);
         invoice.setAmount(shipment.getTotalCost());
@@ -62,17 +65,20 @@ public class InvoiceService {
     }
 
     /**
-     * Get all invoices for a user with pagination
-     */
-    public Page<Invoice> getUserInvoices(Long userId, Pageable pageable) {
-        return invoiceRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-    }
-
-    /**
-     * Get all invoices for a user
+     * A page of a user's invoices, newest first. Pass the previous page's
+     * {@code nextCursor} to continue; throws IllegalArgumentException for a bad cursor.
      */
-    public List<Invoice> getUserInvoices(Long userId) {
-        return invoiceRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @Transactional(readOnly = true)
+    public CursorPage<Invoice> getUserInvoices(Long userId, String cursor, int limit) {
+        Pageable page = Pageable.ofSize(limit);
+        List<Invoice> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = invoiceRepository.findPageByUserId(userId, page);
+        } else {
+            CursorPage.Position position = CursorPage.decodeCursor(cursor);
+            items = invoiceRepository.findPageByUserIdAfter(userId, position.time(), position.id(), page);
+        }
+        return new CursorPage<>(items, limit, i -> new CursorPage.Position(i.getCreatedAt(), i.getId()));
     }
 
     /**
@@ -140,43 +146,40 @@ public class InvoiceService {
     }
 
     /**
-     * Get invoice statistics for a user
+     * Get invoice statistics for a user from one grouped query and an overdue count
      */
+    @Transactional(readOnly = true)
     public InvoiceStats getUserInvoiceStats(Long userId) {
-        List<Invoice> allInvoices = getUserInvoices(userId);
-        
+        int total = 0;
+        int pending = 0;
+        int paid = 0;
+        BigDecimal totalAmount = BigDecimal.ZERO;
+        BigDecimal paidAmount = BigDecimal.ZERO;
+        BigDecimal pendingAmount = BigDecimal.ZERO;
+        for (Object[] row : invoiceRepository.countAndTotalByStatusForUser(userId)) {
+            Invoice.InvoiceStatus status = (Invoice.InvoiceStatus) row[0];
+            int count = ((Number) row[1]).intValue();
+            BigDecimal amount = row[2] != null ? (BigDecimal) row[2] : BigDecimal.ZERO;
+            total += count;
+            totalAmount = totalAmount.add(amount);
+            if (status == Invoice.InvoiceStatus.PENDING) {
+                pending = count;
+                pendingAmount = amount;
+            } else if (status == Invoice.InvoiceStatus.PAID) {
+                paid = count;
+                paidAmount = amount;
+            }
+        }
+
         InvoiceStats stats = new InvoiceStats();
-        stats.setTotalInvoices(allInvoices.size());
-        stats.setPendingInvoices((int) allInvoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PENDING)
-            .count());
-        stats.setPaidInvoices((int) allInvoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PAID)
-            .count());
-        stats.setOverdueInvoices((int) allInvoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PENDING && 
-                        i.getDueDate().isBefore(LocalDateTime.now()))
-            .count());
-        
-        // Calculate total amounts
-        BigDecimal totalAmount = allInvoices.stream()
-            .filter(i -> i.getTotalAmount() != null)
-            .map(Invoice::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        stats.setTotalInvoices(total);
+        stats.setPendingInvoices(pending);
+        stats.setPaidInvoices(paid);
+        stats.setOverdueInvoices((int) invoiceRepository.countByUserIdAndInvoiceStatusAndDueDateBefore(
+            userId, Invoice.InvoiceStatus.PENDING, LocalDateTime.now()));
         stats.setTotalAmount(totalAmount);
-
-        BigDecimal paidAmount = allInvoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PAID && i.getTotalAmount() != null)
-            .map(Invoice::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
         stats.setPaidAmount(paidAmount);
-
-        BigDecimal pendingAmount = allInvoices.stream()
-            .filter(i -> i.getStatus() == Invoice.InvoiceStatus.PENDING && i.getTotalAmount() != null)
-            .map(Invoice::getTotalAmount)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
         stats.setPendingAmount(pendingAmount);
-
         return stats;
     }
 
@@ -197,16 +200,6 @@ public class InvoiceService {
         return invoiceRepository.findTopNByUserIdOrderByCreatedAtDesc(userId, limit);
     }
 
-    /**
-     * Generate a unique invoice number
-     */
-    private String generateInvoiceNumber() {
-        String prefix = "INV";
-        String dateStr = LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyyMMdd"));
-        long sequence = invoiceRepository.count() + 1;
-        return prefix + "-" + dateStr + "-" + String.format("%04d", sequence);
-    }
-
     /**
      * Calculate tax amount (simplified - 13% HST for Canada)
      */
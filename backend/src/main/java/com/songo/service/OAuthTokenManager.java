@@ -0,0 +1,241 @@
+package com.songo.service;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import com.fasterxml.jackson.annotation.JsonProperty;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.util.LinkedMultiValueMap;
+import org.springframework.util.MultiValueMap;
+import org.springframework.web.client.RestTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Caches OAuth client-credentials access tokens for carrier APIs.
+ * Tokens are reused until shortly before they expire and refreshed in the
+ * background while the carrier is in use; concurrent callers share a single
+ * in-flight refresh. Tokens of carriers idle for longer than
+ * {@code carriers.oauth.refresh-idle-after-ms} are left to expire and fetched
+ * again on next use.
+ */
+@Service
+public class OAuthTokenManager {
+
+    private static final Logger logger = LoggerFactory.getLogger(OAuthTokenManager.class);
+
+    private static final long DEFAULT_EXPIRES_IN_SECONDS = 3600;
+
+    private final RestTemplate restTemplate;
+    private final ExecutorService refreshExecutor =
+        Executors.newFixedThreadPool(2, new CustomizableThreadFactory("oauth-refresh-"));
+
+    private final Map<String, TokenEntry> tokens = new ConcurrentHashMap<>();
+
+    @Value("${carriers.oauth.refresh-skew-seconds:60}")
+    private long refreshSkewSeconds;
+
+    @Value("${carriers.oauth.fetch-timeout-ms:5000}")
+    private long fetchTimeoutMs;
+
+    @Value("${carriers.oauth.refresh-idle-after-ms:900000}")
+    private long refreshIdleAfterMs;
+
+    public OAuthTokenManager(RestTemplateBuilder restTemplateBuilder) {
+        this.restTemplate = restTemplateBuilder
+            .setConnectTimeout(Duration.ofSeconds(2))
+            .setReadTimeout(Duration.ofSeconds(5))
+            .build();
+    }
+
+    /**
+     * Get a valid access token for the given client, fetching one only when
+     * no usable token is cached
+     */
+    public String getAccessToken(ClientCredentials credentials) {
+        try {
+            return getAccessTokenAsync(credentials).get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException("Interrupted while fetching access token from " + credentials.getTokenUrl());
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            throw new RuntimeException("Failed to fetch access token from " + credentials.getTokenUrl()
+                + ": " + cause.getMessage(), cause);
+        }
+    }
+
+    /**
+     * Non-blocking variant of {@link #getAccessToken}: completes immediately
+     * when a usable token is cached, otherwise when the shared refresh finishes
+     */
+    public CompletableFuture<String> getAccessTokenAsync(ClientCredentials credentials) {
+        TokenEntry entry = tokens.computeIfAbsent(credentials.key(), key -> new TokenEntry(credentials));
+        CachedToken token = entry.current;
+        Instant now = Instant.now();
+        entry.lastUsedAt = now;
+
+        if (token != null && now.isBefore(token.refreshAt)) {
+            return CompletableFuture.completedFuture(token.value);
+        }
+
+        if (token != null && now.isBefore(token.expiresAt)) {
+            // Still valid: serve it and refresh ahead of expiry
+            entry.refresh();
+            return CompletableFuture.completedFuture(token.value);
+        }
+
+        return entry.refresh()
+            .thenApply(fetched -> fetched.value)
+            .orTimeout(fetchTimeoutMs, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Drop a cached token, e.g. after the carrier rejected it with 401
+     */
+    public void invalidate(ClientCredentials credentials) {
+        TokenEntry entry = tokens.get(credentials.key());
+        if (entry != null) {
+            entry.current = null;
+        }
+    }
+
+    /**
+     * Proactively refresh recently used tokens that are inside their refresh
+     * window, so request threads rarely see an expiring token
+     */
+    @Scheduled(fixedDelayString = "${carriers.oauth.refresh-check-interval-ms:30000}")
+    public void refreshExpiringTokens() {
+        Instant now = Instant.now();
+        Instant usedSince = now.minusMillis(refreshIdleAfterMs);
+        tokens.values().forEach(entry -> {
+            CachedToken token = entry.current;
+            if (token != null && !now.isBefore(token.refreshAt) && entry.lastUsedAt.isAfter(usedSince)) {
+                entry.refresh();
+            }
+        });
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        refreshExecutor.shutdownNow();
+    }
+
+    private CachedToken fetchToken(ClientCredentials credentials) {
+        MultiValueMap<String, String> form = new LinkedMultiValueMap<>();
+        form.add("grant_type", "client_credentials");
+        form.add("client_id", credentials.getClientId());
+        form.add("client_secret", credentials.getClientSecret());
+
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_FORM_URLENCODED);
+
+        ResponseEntity<TokenResponse> response = restTemplate.postForEntity(
+            credentials.getTokenUrl(),
+            new HttpEntity<>(form, headers),
+            TokenResponse.class
+        );
+
+        TokenResponse body = response.getBody();
+        if (body == null || body.accessToken() == null) {
+            throw new IllegalStateException("Token response did not contain an access_token");
+        }
+
+        long expiresIn = body.expiresIn() != null ? body.expiresIn() : DEFAULT_EXPIRES_IN_SECONDS;
+        Instant issuedAt = Instant.now();
+        Instant expiresAt = issuedAt.plusSeconds(expiresIn);
+        // Refresh skew never exceeds half the token lifetime
+        long skew = Math.min(refreshSkewSeconds, expiresIn / 2);
+
+        logger.debug("Fetched access token from {} valid for {} seconds", credentials.getTokenUrl(), expiresIn);
+        return new CachedToken(body.accessToken(), expiresAt.minusSeconds(skew), expiresAt);
+    }
+
+    @JsonIgnoreProperties(ignoreUnknown = true)
+    private record TokenResponse(@JsonProperty("access_token") String accessToken,
+                                 @JsonProperty("expires_in") Long expiresIn) {}
+
+    /**
+     * Token state for one client, with at most one refresh in flight
+     */
+    private class TokenEntry {
+        private final ClientCredentials credentials;
+        private volatile CachedToken current;
+        private volatile Instant lastUsedAt = Instant.now();
+        private CompletableFuture<CachedToken> inFlight;
+
+        TokenEntry(ClientCredentials credentials) {
+            this.credentials = credentials;
+        }
+
+        synchronized CompletableFuture<CachedToken> refresh() {
+            if (inFlight != null && !inFlight.isDone()) {
+                return inFlight;
+            }
+            inFlight = CompletableFuture.supplyAsync(() -> fetchToken(credentials), refreshExecutor)
+                .whenComplete((token, error) -> {
+                    if (token != null) {
+                        current = token;
+                    } else {
+                        Throwable cause = error instanceof CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                        logger.warn("Access token refresh failed for {}: {}", credentials.getTokenUrl(), cause.getMessage());
+                    }
+                });
+            return inFlight;
+        }
+    }
+
+    private static final class CachedToken {
+        private final String value;
+        private final Instant refreshAt;
+        private final Instant expiresAt;
+
+        CachedToken(String value, Instant refreshAt, Instant expiresAt) {
+            this.value = value;
+            this.refreshAt = refreshAt;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * OAuth client-credentials registration for a carrier
+     */
+    public static final class ClientCredentials {
+        private final String tokenUrl;
+        private final String clientId;
+        private final String clientSecret;
+
+        public ClientCredentials(String tokenUrl, String clientId, String clientSecret) {
+            this.tokenUrl = tokenUrl;
+            this.clientId = clientId;
+            this.clientSecret = clientSecret;
+        }
+
+        public String getTokenUrl() { return tokenUrl; }
+        public String getClientId() { return clientId; }
+        public String getClientSecret() { return clientSecret; }
+
+        String key() {
+            return tokenUrl + "|" + clientId;
+        }
+    }
+}
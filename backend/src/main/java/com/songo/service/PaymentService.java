@@ -1,9 +1,12 @@
 package com.songo.service;
 
+import com.songo.dto.CursorPage;
+import com.songo.dto.PaymentResponse;
 import com.songo.model.Payment;
 import com.songo.model.Shipment;
 import com.songo.model.User;
 import com.songo.repository.PaymentRepository;
+import com.songo.service.id.BusinessIds;
 import com.stripe.Stripe;
 import com.stripe.exception.StripeException;
 import com.stripe.model.PaymentIntent;
@@ -12,7 +15,6 @@ import com.stripe.param.PaymentIntentConfirmParams;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Value;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -34,12 +36,14 @@ public class PaymentService {
     private static final Logger logger = LoggerFactory.getLogger(PaymentService.class);
     
     private final PaymentRepository paymentRepository;
+    private final BusinessIds businessIds;
     
     @Value("${stripe.api-key}")
     private String stripeApiKey;
     
-    public PaymentService(PaymentRepository paymentRepository) {
+    public PaymentService(PaymentRepository paymentRepository, BusinessIds businessIds) {
         this.paymentRepository = paymentRepository;
+        this.businessIds = businessIds;
     }
     
     /**
@@ -69,6 +73,7 @@ public class PaymentService {
             
             // Create payment record
             Payment payment = new Payment(user, amount, Payment.PaymentMethod.STRIPE);
+            payment.setPaymentNumber(businessIds.paymentNumber());
             payment.setShipment(shipment);
             payment.setCurrency(currency);
             payment.setStripePaymentIntentId(paymentIntent.getId());
@@ -202,11 +207,20 @@ public class PaymentService {
     }
     
     /**
-     * Get payments by user
+     * A page of a user's payments, newest first. Pass the previous page's
+     * {@code nextCursor} to continue; throws IllegalArgumentException for a bad cursor.
      */
     @Transactional(readOnly = true)
-    public Page<Payment> getPaymentsByUser(User user, Pageable pageable) {
-        return paymentRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+    public CursorPage<Payment> getPaymentsByUser(User user, String cursor, int limit) {
+        Pageable page = Pageable.ofSize(limit);
+        List<Payment> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = paymentRepository.findPageByUserId(user.getId(), page);
+        } else {
+            CursorPage.Position position = CursorPage.decodeCursor(cursor);
+            items = paymentRepository.findPageByUserIdAfter(user.getId(), position.time(), position.id(), page);
+        }
+        return new CursorPage<>(items, limit, p -> new CursorPage.Position(p.getCreatedAt(), p.getId()));
     }
     
     /**
@@ -217,13 +231,16 @@ public class PaymentService {
         Map<String, Object> stats = new HashMap<>();
         
         BigDecimal totalPaid = paymentRepository.calculateTotalPaymentsByUser(user);
-        List<Payment> successfulPayments = paymentRepository.findSuccessfulPaymentsByUser(user);
-        boolean hasPayments = paymentRepository.hasSuccessfulPayments(user);
+        long paymentCount = paymentRepository.countByUserAndPaymentStatus(user, Payment.PaymentStatus.COMPLETED);
         
         stats.put("totalPaid", totalPaid);
-        stats.put("paymentCount", successfulPayments.size());
-        stats.put("hasPayments", hasPayments);
-        stats.put("recentPayments", successfulPayments.stream().limit(5).toList());
+        stats.put("paymentCount", paymentCount);
+        stats.put("hasPayments", paymentCount > 0);
+        // Responses, not entities: the map is serialized after the session closes
+        stats.put("recentPayments", paymentCount > 0
+            ? paymentRepository.findTop5ByUserAndPaymentStatusOrderByCreatedAtDescIdDesc(user, Payment.PaymentStatus.COMPLETED)
+                .stream().map(PaymentResponse::fromPayment).toList()
+            : List.of());
         
         return stats;
     }
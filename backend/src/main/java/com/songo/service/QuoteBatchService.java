@@ -0,0 +1,272 @@
+package com.songo.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.songo.dto.quote.BatchQuoteResult;
+import com.songo.dto.quote.CarrierQuoteResult;
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.model.Quote;
+import com.songo.model.User;
+import com.songo.repository.QuoteBatchRepository;
+import com.songo.service.search.SearchIndexService;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+import java.util.stream.Collectors;
+
+/**
+ * Rates many quote requests in one call: lines are priced and sent to carriers
+ * in parallel, saved in JDBC batches per chunk, and results are written as
+ * NDJSON as each chunk completes.
+ */
+@Service
+public class QuoteBatchService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteBatchService.class);
+
+    private final QuoteService quoteService;
+    private final CarrierIntegrationService carrierIntegrationService;
+    private final QuoteBatchRepository quoteBatchRepository;
+    private final SearchIndexService searchIndexService;
+    private final DashboardCache dashboardCache;
+    private final QuoteExpiryService quoteExpiryService;
+    private final Validator validator;
+    private final ObjectMapper objectMapper;
+
+    @Value("${quotes.batch.max-lines:10000}")
+    private int maxLines;
+
+    @Value("${quotes.batch.chunk-size:500}")
+    private int chunkSize;
+
+    // Lines in flight against carriers at once, so a batch cannot flood the quote executor
+    @Value("${quotes.batch.parallelism:32}")
+    private int parallelism;
+
+    public QuoteBatchService(QuoteService quoteService,
+                             CarrierIntegrationService carrierIntegrationService,
+                             QuoteBatchRepository quoteBatchRepository,
+                             SearchIndexService searchIndexService,
+                             DashboardCache dashboardCache,
+                             QuoteExpiryService quoteExpiryService,
+                             Validator validator,
+                             ObjectMapper objectMapper) {
+        this.quoteService = quoteService;
+        this.carrierIntegrationService = carrierIntegrationService;
+        this.quoteBatchRepository = quoteBatchRepository;
+        this.searchIndexService = searchIndexService;
+        this.dashboardCache = dashboardCache;
+        this.quoteExpiryService = quoteExpiryService;
+        this.validator = validator;
+        this.objectMapper = objectMapper;
+    }
+
+    public int getMaxLines() {
+        return maxLines;
+    }
+
+    /**
+     * Wrap JSON batch requests as numbered lines
+     */
+    public List<BatchLine> fromRequests(List<QuoteRequest> requests) {
+        List<BatchLine> lines = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            QuoteRequest request = requests.get(i);
+            lines.add(request != null
+                ? new BatchLine(i + 1, request, null)
+                : new BatchLine(i + 1, null, "Empty request"));
+        }
+        return lines;
+    }
+
+    /**
+     * Read a CSV upload. The header row names QuoteRequest fields
+     * (e.g. originZip, shipmentType, weight); unknown columns are ignored.
+     */
+    public List<BatchLine> readCsv(InputStream input) throws IOException {
+        List<BatchLine> lines = new ArrayList<>();
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(input, StandardCharsets.UTF_8))) {
+            String headerLine = reader.readLine();
+            if (headerLine == null) {
+                return lines;
+            }
+            List<String> header = parseCsvLine(headerLine.replace("\uFEFF", ""));
+
+            String row;
+            int lineNumber = 1;
+            while ((row = reader.readLine()) != null) {
+                lineNumber++;
+                if (row.isBlank()) {
+                    continue;
+                }
+                if (lines.size() >= maxLines) {
+                    throw new RuntimeException("Batch exceeds " + maxLines + " lines");
+                }
+                List<String> values = parseCsvLine(row);
+                Map<String, String> fields = new HashMap<>();
+                for (int i = 0; i < header.size() && i < values.size(); i++) {
+                    String value = values.get(i).trim();
+                    if (!value.isEmpty()) {
+                        fields.put(header.get(i).trim(), value);
+                    }
+                }
+                try {
+                    lines.add(new BatchLine(lineNumber, objectMapper.convertValue(fields, QuoteRequest.class), null));
+                } catch (IllegalArgumentException e) {
+                    lines.add(new BatchLine(lineNumber, null, "Invalid line: " + e.getMessage()));
+                }
+            }
+        }
+        return lines;
+    }
+
+    /**
+     * Rate all lines for a user and write one NDJSON result per line
+     */
+    public void rateBatch(List<BatchLine> lines, User user, OutputStream out) throws IOException {
+        long start = System.nanoTime();
+        Semaphore permits = new Semaphore(parallelism);
+        int saved = 0;
+
+        for (int from = 0; from < lines.size(); from += chunkSize) {
+            List<BatchLine> chunk = lines.subList(from, Math.min(from + chunkSize, lines.size()));
+            List<CompletableFuture<BatchQuoteResult>> results = new ArrayList<>(chunk.size());
+            List<Quote> quotes = new ArrayList<>(chunk.size());
+
+            for (BatchLine line : chunk) {
+                String error = line.error() != null ? line.error() : validate(line.request());
+                if (error != null) {
+                    results.add(CompletableFuture.completedFuture(BatchQuoteResult.failed(line.line(), error)));
+                    continue;
+                }
+                try {
+                    Quote quote = prepareQuote(line.request(), user);
+                    permits.acquire();
+                    results.add(carrierIntegrationService.streamCarrierQuotes(line.request(), (carrier, rates) -> {})
+                        .whenComplete((result, e) -> permits.release())
+                        .handle((result, e) -> toResult(line.line(), quote, result)));
+                    quotes.add(quote);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    throw new IOException("Interrupted while rating batch");
+                } catch (RuntimeException e) {
+                    results.add(CompletableFuture.completedFuture(BatchQuoteResult.failed(line.line(), e.getMessage())));
+                }
+            }
+
+            // Save while carriers are still answering
+            String saveError = null;
+            try {
+                quoteBatchRepository.insertAll(quotes);
+                searchIndexService.indexAll(quotes);
+                dashboardCache.evict(user.getId());
+                // Ids were assigned by the insert; quotes expiring in the loaded window go on the timer
+                quotes.forEach(quoteExpiryService::track);
+                saved += quotes.size();
+            } catch (DataAccessException e) {
+                logger.error("Failed to save {} batch quotes: {}", quotes.size(), e.getMessage());
+                saveError = "Failed to save quote: " + e.getMostSpecificCause().getMessage();
+            }
+
+            for (CompletableFuture<BatchQuoteResult> future : results) {
+                BatchQuoteResult result = future.join();
+                if (saveError != null && result.getError() == null) {
+                    result = BatchQuoteResult.failed(result.getLine(), saveError);
+                }
+                out.write(objectMapper.writeValueAsBytes(result));
+                out.write('\n');
+            }
+            out.flush();
+        }
+
+        logger.info("Rated batch of {} lines ({} saved) for user {} in {} ms", lines.size(), saved,
+                    user.getId(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    private Quote prepareQuote(QuoteRequest request, User user) {
+        Quote quote = quoteService.prepareQuote(request, user);
+        // Batch inserts bypass entity callbacks
+        LocalDateTime now = LocalDateTime.now();
+        quote.setCreatedAt(now);
+        quote.setUpdatedAt(now);
+        quote.setValidUntil(now.plusDays(7));
+        return quote;
+    }
+
+    private BatchQuoteResult toResult(int line, Quote quote, CarrierQuoteResult carrierResult) {
+        BatchQuoteResult result = new BatchQuoteResult(line);
+        result.setQuoteNumber(quote.getQuoteNumber());
+        result.setEstimatedPrice(quote.getEstimatedPrice());
+        result.setEstimatedTransitDays(quote.getEstimatedTransitDays());
+        if (carrierResult != null) {
+            result.setCarrierQuotes(carrierResult.getQuotes());
+            if (carrierResult.isPartial()) {
+                List<String> unavailable = new ArrayList<>(carrierResult.getTimedOutCarriers());
+                unavailable.addAll(carrierResult.getFailedCarriers());
+                result.setUnavailableCarriers(unavailable);
+            }
+        }
+        return result;
+    }
+
+    private String validate(QuoteRequest request) {
+        Set<ConstraintViolation<QuoteRequest>> violations = validator.validate(request);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+            .map(v -> v.getPropertyPath() + ": " + v.getMessage())
+            .sorted()
+            .collect(Collectors.joining("; "));
+    }
+
+    /**
+     * Split one CSV row, honouring double-quoted fields with "" escapes
+     */
+    private static List<String> parseCsvLine(String row) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < row.length(); i++) {
+            char c = row.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < row.length() && row.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    /**
+     * One input line: a parsed request, or the reason it could not be parsed
+     */
+    public record BatchLine(int line, QuoteRequest request, String error) {}
+}
@@ -0,0 +1,142 @@
+package com.songo.service;
+
+import com.songo.model.Quote;
+import com.songo.repository.QuoteExpiryRepository;
+import com.songo.repository.QuoteExpiryRepository.ExpiringQuote;
+import com.songo.service.expiry.TimerWheel;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+
+/**
+ * Moves quotes past their validity from QUOTED to EXPIRED.
+ * A periodic sweep runs bounded set-based UPDATEs until nothing is due, then
+ * loads quotes expiring within the timer wheel's horizon (an index range read,
+ * not a table scan). The wheel flips those on time, one small UPDATE per tick.
+ * Expired counts per run are recorded as {@code quotes.expired.per.run}.
+ * Timer expiries evict their owners' dashboards; a sweep that expired anything
+ * evicts all of them, since its UPDATEs do not report which quotes changed.
+ */
+@Service
+public class QuoteExpiryService {
+
+    private static final Logger logger = LoggerFactory.getLogger(QuoteExpiryService.class);
+
+    private final QuoteExpiryRepository quoteExpiryRepository;
+    private final DashboardCache dashboardCache;
+    private final TimerWheel timerWheel;
+    private final DistributionSummary sweepExpired;
+    private final DistributionSummary timerExpired;
+
+    @Value("${quotes.expiry.batch-size:1000}")
+    private int batchSize;
+
+    // Quotes expiring before this instant have been loaded into the wheel
+    private volatile LocalDateTime loadedUntil = LocalDateTime.now();
+
+    public QuoteExpiryService(QuoteExpiryRepository quoteExpiryRepository,
+                              DashboardCache dashboardCache,
+                              MeterRegistry meterRegistry,
+                              @Value("${quotes.expiry.tick-ms:1000}") long tickMillis,
+                              @Value("${quotes.expiry.wheel-size:3600}") int wheelSize) {
+        this.quoteExpiryRepository = quoteExpiryRepository;
+        this.dashboardCache = dashboardCache;
+        this.timerWheel = new TimerWheel(tickMillis, wheelSize, System.currentTimeMillis());
+        this.sweepExpired = expiredPerRun(meterRegistry, "sweep");
+        this.timerExpired = expiredPerRun(meterRegistry, "timer");
+        meterRegistry.gauge("quotes.expiry.scheduled", timerWheel, TimerWheel::size);
+    }
+
+    /**
+     * Expire everything overdue in bounded batches, then refill the timer wheel
+     */
+    @Scheduled(fixedDelayString = "${quotes.expiry.sweep-interval-ms:300000}",
+               initialDelayString = "${quotes.expiry.initial-delay-ms:30000}")
+    public int sweep() {
+        LocalDateTime now = LocalDateTime.now();
+        int expired = 0;
+        int updated;
+        do {
+            updated = quoteExpiryRepository.expireDue(now, batchSize);
+            expired += updated;
+        } while (updated == batchSize);
+        sweepExpired.record(expired);
+        if (expired > 0) {
+            logger.info("Expired {} quotes in sweep", expired);
+            dashboardCache.evictAll();
+        }
+
+        loadUpcoming(now);
+        return expired;
+    }
+
+    /**
+     * Expire the quotes whose deadline passed since the last tick
+     */
+    @Scheduled(fixedRateString = "${quotes.expiry.tick-ms:1000}")
+    public void tick() {
+        List<Long> due = timerWheel.advance(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            return;
+        }
+        int expired = 0;
+        for (int from = 0; from < due.size(); from += batchSize) {
+            List<Long> batch = due.subList(from, Math.min(from + batchSize, due.size()));
+            int updated = quoteExpiryRepository.expireIds(batch, LocalDateTime.now());
+            if (updated > 0) {
+                dashboardCache.evictAll(quoteExpiryRepository.findUserIds(batch));
+            }
+            expired += updated;
+        }
+        timerExpired.record(expired);
+        logger.debug("Expired {} of {} due quotes on timer", expired, due.size());
+    }
+
+    /**
+     * Track a newly saved quote whose deadline falls in the already-loaded window
+     */
+    public void track(Quote quote) {
+        if (quote.getId() != null && quote.getStatus() == Quote.QuoteStatus.QUOTED
+                && quote.getValidUntil() != null && quote.getValidUntil().isBefore(loadedUntil)) {
+            timerWheel.schedule(quote.getId(), toMillis(quote.getValidUntil()));
+        }
+    }
+
+    private void loadUpcoming(LocalDateTime now) {
+        LocalDateTime from = loadedUntil.isAfter(now) ? loadedUntil : now;
+        LocalDateTime to = now.plusNanos(timerWheel.getHorizonMillis() * 1_000_000);
+        if (!to.isAfter(from)) {
+            return;
+        }
+        int scheduled = 0;
+        for (ExpiringQuote quote : quoteExpiryRepository.findExpiring(from, to)) {
+            if (!timerWheel.schedule(quote.id(), toMillis(quote.validUntil()))) {
+                // Past the wheel's horizon; the next sweep picks up from here
+                to = quote.validUntil();
+                break;
+            }
+            scheduled++;
+        }
+        loadedUntil = to;
+        logger.debug("Scheduled {} quotes expiring before {}", scheduled, to);
+    }
+
+    private static long toMillis(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
+    private static DistributionSummary expiredPerRun(MeterRegistry meterRegistry, String trigger) {
+        return DistributionSummary.builder("quotes.expired.per.run")
+            .description("Quotes moved to EXPIRED per expiry run")
+            .tag("trigger", trigger)
+            .register(meterRegistry);
+    }
+}
@@ -1,18 +1,38 @@
 package com.songo.service;
 
+import com.songo.dto.CursorPage;
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.quote.CarrierQuoteResult;
 import com.songo.dto.quote.QuoteRequest;
 import com.songo.model.Quote;
 import com.songo.model.User;
 import com.songo.repository.QuoteRepository;
+import com.songo.service.pricing.PricingEngine;
+import com.songo.service.pricing.RateCard;
+import com.songo.service.id.BusinessIds;
+import com.songo.service.pricing.ZoneChart;
+import com.songo.service.pricing.ZoneChartService;
+import com.songo.service.search.SearchDocumentType;
+import com.songo.service.search.SearchHits;
+import com.songo.service.search.SearchIndexService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
 
-import java.math.BigDecimal;
+import java.io.IOException;
 import java.time.LocalDateTime;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
 import java.util.Random;
 
@@ -23,16 +43,50 @@ import java.util.Random;
 @Transactional
 public class QuoteService {
 
+    private static final Logger logger = LoggerFactory.getLogger(QuoteService.class);
+
+    private static final String STANDARD_RATE_CARD = "STANDARD";
+
     @Autowired
     private QuoteRepository quoteRepository;
 
     @Autowired
     private CarrierIntegrationService carrierIntegrationService;
 
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private ZoneChartService zoneChartService;
+
+    @Autowired
+    private QuoteExpiryService quoteExpiryService;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BusinessIds businessIds;
+
     private final Random random = new Random();
 
+    // Leave room for the final event after the fan-out deadline
+    @Value("#{${carriers.quote.overall-timeout-ms:5000} + 5000}")
+    private long streamTimeoutMs;
+
     public Quote createQuote(QuoteRequest request, User user) {
+        Quote quote = quoteRepository.save(prepareQuote(request, user));
+        quoteExpiryService.track(quote);
+        return quote;
+    }
+
+    /**
+     * Build a numbered, priced quote for a request without saving it
+     */
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public Quote prepareQuote(QuoteRequest request, User user) {
         Quote quote = new Quote();
+        quote.setQuoteNumber(businessIds.quoteNumber());
         
         // Set user
         quote.setUser(user);
@@ -67,7 +121,51 @@ public class QuoteService {
         // Calculate estimated price and transit time
         calculateEstimates(quote);
         
-        return quoteRepository.save(quote);
+        return quote;
+    }
+
+    /**
+     * Get live carrier rates for a request. Runs outside a transaction so no
+     * database connection is held while waiting on carrier APIs.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public CarrierQuoteResult getCarrierRates(QuoteRequest request) {
+        return carrierIntegrationService.getCarrierQuotes(request);
+    }
+
+    /**
+     * Stream carrier rates over SSE: one "carrier" event per carrier as it
+     * answers, then a "complete" event with the sorted summary
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public SseEmitter streamCarrierRates(QuoteRequest request) {
+        SseEmitter emitter = new SseEmitter(streamTimeoutMs);
+        
+        carrierIntegrationService.streamCarrierQuotes(request, (carrier, quotes) -> {
+            try {
+                emitter.send(SseEmitter.event()
+                    .name("carrier")
+                    .data(Map.of("carrier", carrier, "quotes", quotes)));
+            } catch (IOException e) {
+                logger.debug("Client left rate stream before {} answered: {}", carrier, e.getMessage());
+            }
+        }).whenComplete((result, error) -> {
+            if (error != null) {
+                emitter.completeWithError(error);
+                return;
+            }
+            try {
+                emitter.send(SseEmitter.event()
+                    .name("complete")
+                    .data(result));
+                emitter.complete();
+            } catch (IOException e) {
+                logger.debug("Client left rate stream before completion: {}", e.getMessage());
+                emitter.completeWithError(e);
+            }
+        });
+        
+        return emitter;
     }
 
     public Optional<Quote> getQuoteById(Long id) {
@@ -78,15 +176,50 @@ public class QuoteService {
         return quoteRepository.findByQuoteNumber(quoteNumber);
     }
 
-    public List<Quote> getUserQuotes(User user) {
-        return quoteRepository.findByUserOrderByCreatedAtDesc(user);
+    /**
+     * A page of a user's quotes, newest first. Pass the previous page's
+     * {@code nextCursor} to continue; throws IllegalArgumentException for a bad cursor.
+     */
+    @Transactional(readOnly = true)
+    public CursorPage<Quote> getUserQuotes(User user, String cursor, int limit) {
+        Pageable page = Pageable.ofSize(limit);
+        List<Quote> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = quoteRepository.findPageByUserId(user.getId(), page);
+        } else {
+            CursorPage.Position position = CursorPage.decodeCursor(cursor);
+            items = quoteRepository.findPageByUserIdAfter(user.getId(), position.time(), position.id(), page);
+        }
+        return new CursorPage<>(items, limit, q -> new CursorPage.Position(q.getCreatedAt(), q.getId()));
     }
 
-    public Page<Quote> getUserQuotes(User user, Pageable pageable) {
-        return quoteRepository.findByUserOrderByCreatedAtDesc(user, pageable);
+    /**
+     * Change marker for a user's quotes; lets quote lists answer 304 without loading them
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getUserQuotesVersion(User user) {
+        return quoteRepository.findVersionByUserId(user.getId());
     }
 
+    /**
+     * Search a user's quotes by number or city, best match first. Uses the
+     * database LIKE query while the search index is unavailable, and when
+     * the matches reach search.max-results, where the index stops counting.
+     */
     public Page<Quote> searchUserQuotes(User user, String searchTerm, Pageable pageable) {
+        if (searchIndexService.isReady()) {
+            try {
+                SearchHits hits = searchIndexService.search(searchTerm, EnumSet.of(SearchDocumentType.QUOTE),
+                    user.getId(), (int) pageable.getOffset(), pageable.getPageSize());
+                // At the cap the total is only a lower bound
+                if (hits.totalHits() < searchIndexService.getMaxResults()) {
+                    List<Quote> quotes = hits.inHitOrder(quoteRepository.findAllById(hits.ids()), Quote::getId);
+                    return new PageImpl<>(quotes, pageable, hits.totalHits());
+                }
+            } catch (IOException e) {
+                logger.warn("Quote search index query failed, using database: {}", e.getMessage());
+            }
+        }
         return quoteRepository.findByUserAndSearchTerm(user, searchTerm, pageable);
     }
 
@@ -101,7 +234,9 @@ public class QuoteService {
             }
             
             quote.setStatus(status);
-            return quoteRepository.save(quote);
+            Quote saved = quoteRepository.save(quote);
+            quoteExpiryService.track(saved);
+            return saved;
         }
         throw new RuntimeException("Quote not found");
     }
@@ -134,63 +269,55 @@ public class QuoteService {
         return quoteRepository.findExpiredQuotes(LocalDateTime.now(), Quote.QuoteStatus.QUOTED);
     }
 
-    @Transactional
-    public void markExpiredQuotes() {
-        List<Quote> expiredQuotes = getExpiredQuotes();
-        for (Quote quote : expiredQuotes) {
-            quote.setStatus(Quote.QuoteStatus.EXPIRED);
-            quoteRepository.save(quote);
-        }
+    /**
+     * Expire all overdue quotes now; the same sweep also runs on a schedule
+     */
+    public int markExpiredQuotes() {
+        return quoteExpiryService.sweep();
     }
 
     private void calculateEstimates(Quote quote) {
-        // Simple pricing algorithm - in real world, this would be more complex
-        double basePrice = 50.0; // Base price
-        double weightFactor = quote.getWeight() * 0.5; // $0.50 per lb
-        double distanceFactor = calculateDistanceFactor(quote); // Distance-based pricing
-        double typeFactor = getShipmentTypeFactor(quote.getShipmentType());
-        
-        double totalPrice = basePrice + weightFactor + distanceFactor + typeFactor;
+        long priceCents = estimatePriceCents(quote);
         
         // Add some randomness to simulate market conditions
-        totalPrice = totalPrice * (0.9 + (random.nextDouble() * 0.2)); // ±10% variation
+        priceCents = RateCard.applyBps(priceCents, 9000 + random.nextInt(2001)); // ±10% variation
         
-        quote.setEstimatedPrice(BigDecimal.valueOf(Math.round(totalPrice * 100.0) / 100.0));
+        quote.setEstimatedPrice(PricingEngine.toAmount(priceCents));
         
-        // Calculate transit days (simplified)
-        int transitDays = calculateTransitDays(quote);
+        // Calculate transit days from the lane's zone
+        int transitDays = estimateTransitDays(quote);
         quote.setEstimatedTransitDays(transitDays);
         
         // Set status to QUOTED
         quote.setStatus(Quote.QuoteStatus.QUOTED);
     }
 
-    private double calculateDistanceFactor(Quote quote) {
-        // Simplified distance calculation based on state differences
-        // In real world, you'd use actual distance calculation APIs
-        if (quote.getOriginState().equals(quote.getDestinationState())) {
-            return 100.0; // Same state
-        } else {
-            return 300.0; // Different states
-        }
-    }
-
-    private double getShipmentTypeFactor(Quote.ShipmentType type) {
-        return switch (type) {
-            case PARCEL -> 0.0;
-            case LTL -> 100.0;
-            case FTL -> 500.0;
-            case FREIGHT -> 200.0;
-            case EXPEDITED -> 300.0;
-        };
+    /**
+     * Estimated price in cents from the STANDARD rate card, before market variation
+     */
+    public long estimatePriceCents(Quote quote) {
+        RateCard card = pricingEngine.getCard(STANDARD_RATE_CARD);
+        int serviceId = card.serviceId(quote.getShipmentType().name());
+        return card.priceCents(serviceId, pricingZone(quote), PricingEngine.toCentiUnits(quote.getWeight()));
     }
 
-    private int calculateTransitDays(Quote quote) {
-        // Simplified transit time calculation
-        int baseDays = quote.getOriginState().equals(quote.getDestinationState()) ? 2 : 5;
+    /**
+     * Estimated transit days for the lane from the zone chart, adjusted by shipment type
+     */
+    public int estimateTransitDays(Quote quote) {
+        ZoneChart chart = zoneChartService.getChart();
+        int pair = chart.pairIndex(quote.getOriginCountry(), quote.getOriginZip(),
+            quote.getDestinationCountry(), quote.getDestinationZip());
+        int baseDays;
+        if (pair != ZoneChart.UNKNOWN) {
+            baseDays = chart.transitDaysAt(pair);
+        } else {
+            // Lanes not covered by the chart (other countries, unknown prefixes): compare states
+            baseDays = isSameState(quote) ? 2 : 5;
+        }
         
         return switch (quote.getShipmentType()) {
-            case PARCEL -> baseDays - 1;
+            case PARCEL -> Math.max(1, baseDays - 1);
             case EXPEDITED -> Math.max(1, baseDays - 2);
             case LTL -> baseDays;
             case FREIGHT -> baseDays + 1;
@@ -198,6 +325,21 @@ public class QuoteService {
         };
     }
 
+    private int pricingZone(Quote quote) {
+        ZoneChart chart = zoneChartService.getChart();
+        int pair = chart.pairIndex(quote.getOriginCountry(), quote.getOriginZip(),
+            quote.getDestinationCountry(), quote.getDestinationZip());
+        if (pair != ZoneChart.UNKNOWN) {
+            return chart.zoneAt(pair);
+        }
+        // Lanes not covered by the chart: same state is local, otherwise farthest zone
+        return isSameState(quote) ? 0 : chart.getZoneCount() - 1;
+    }
+
+    private boolean isSameState(Quote quote) {
+        return Objects.equals(quote.getOriginState(), quote.getDestinationState());
+    }
+
     // Additional methods for quote management
 
     /**
@@ -1,17 +1,27 @@
 package com.songo.service;
 
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.LoadingCache;
 import com.songo.model.*;
 import com.songo.repository.*;
+import com.songo.service.id.BusinessIds;
+import com.songo.service.pricing.PricingEngine;
+import com.songo.service.pricing.RateCard;
+import com.songo.service.search.SearchDocumentType;
+import com.songo.service.search.SearchHits;
+import com.songo.service.search.SearchIndexService;
+import jakarta.annotation.PostConstruct;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
-import org.springframework.data.domain.Pageable;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.io.IOException;
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
-import java.util.List;
-import java.util.Optional;
+import java.util.*;
 
 /**
  * Service for managing shipments
@@ -20,6 +30,8 @@ import java.util.Optional;
 @Transactional
 public class ShipmentService {
 
+    private static final String STATS_KEY = "all";
+
     @Autowired
     private ShipmentRepository shipmentRepository;
 
@@ -35,13 +47,34 @@ public class ShipmentService {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private SearchIndexService searchIndexService;
+
+    @Autowired
+    private BusinessIds businessIds;
+
+    @Value("${shipments.stats.refresh-seconds:30}")
+    private long statsRefreshSeconds;
+
+    private LoadingCache<String, ShipmentStats> statsCache;
+
+    @PostConstruct
+    void initStatsCache() {
+        statsCache = Caffeine.newBuilder()
+            .refreshAfterWrite(Duration.ofSeconds(statsRefreshSeconds))
+            .build(key -> computeShipmentStats());
+    }
+
     /**
      * Create a new shipment
      */
     public Shipment createShipment(Shipment shipment) {
         // Generate shipment number if not provided
         if (shipment.getShipmentNumber() == null || shipment.getShipmentNumber().isEmpty()) {
-            shipment.setShipmentNumber(generateShipmentNumber());
+            shipment.setShipmentNumber(businessIds.shipmentNumber());
         }
 
         // Set default status
@@ -70,20 +103,6 @@ public class ShipmentService {
         return shipmentRepository.findByShipmentNumber(shipmentNumber);
     }
 
-    /**
-     * Get shipments by user
-     */
-    public List<Shipment> getShipmentsByUser(Long userId) {
-        return shipmentRepository.findByUserIdOrderByCreatedAtDesc(userId);
-    }
-
-    /**
-     * Get shipments by user (User object)
-     */
-    public List<Shipment> getUserShipments(User user) {
-        return shipmentRepository.findByUserIdOrderByCreatedAtDesc(user.getId());
-    }
-
     /**
      * Get shipment count by user
      */
@@ -98,13 +117,6 @@ public class ShipmentService {
         return shipmentRepository.countByUserIdAndStatus(user.getId(), status);
     }
 
-    /**
-     * Get shipments by user with pagination
-     */
-    public Page<Shipment> getShipmentsByUser(Long userId, Pageable pageable) {
-        return shipmentRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-    }
-
     /**
      * Get shipments by status
      */
@@ -178,9 +190,23 @@ public class ShipmentService {
     }
 
     /**
-     * Search shipments
+     * Search shipments by shipment number, tracking number or carrier reference.
+     * Returns every match: the database query is used when the index would
+     * cut the result off at search.max-results.
      */
     public List<Shipment> searchShipments(String searchTerm) {
+        if (searchIndexService.isReady()) {
+            try {
+                int maxResults = searchIndexService.getMaxResults();
+                SearchHits hits = searchIndexService.search(searchTerm, EnumSet.of(SearchDocumentType.SHIPMENT),
+                    null, 0, maxResults);
+                if (hits.totalHits() < maxResults) {
+                    return hits.inHitOrder(shipmentRepository.findAllById(hits.ids()), Shipment::getId);
+                }
+            } catch (IOException e) {
+                // Fall through to the database query
+            }
+        }
         return shipmentRepository.searchShipments(searchTerm);
     }
 
@@ -200,51 +226,78 @@ public class ShipmentService {
         // This is a simplified calculation
         // In a real system, this would integrate with carrier APIs
         
-        BigDecimal baseCost = BigDecimal.valueOf(10.00); // Base cost
-        BigDecimal weightCost = shipment.getTotalWeight().multiply(BigDecimal.valueOf(0.50)); // $0.50 per unit weight
-        BigDecimal fuelSurcharge = baseCost.multiply(BigDecimal.valueOf(0.15)); // 15% fuel surcharge
-        BigDecimal taxes = baseCost.add(weightCost).add(fuelSurcharge).multiply(BigDecimal.valueOf(0.13)); // 13% tax
-
-        BigDecimal totalCost = baseCost.add(weightCost).add(fuelSurcharge).add(taxes);
+        RateCard card = pricingEngine.getCard("SHIPMENT");
+        Shipment.ShipmentType type = shipment.getShipmentType() != null
+            ? shipment.getShipmentType() : Shipment.ShipmentType.PARCEL;
+        int serviceId = card.serviceId(type.name());
+        long centiWeight = PricingEngine.toCentiUnits(shipment.getTotalWeight());
+        
+        long baseCents = card.fixedCents(serviceId, 0, centiWeight);
+        long linehaulCents = card.priceCents(serviceId, 0, centiWeight); // base + weight charge
+        long fuelCents = card.fuelCents(baseCents); // fuel surcharge on base
+        long taxCents = card.taxCents(linehaulCents + fuelCents);
+        long totalCents = linehaulCents + fuelCents + taxCents;
 
         // Update shipment with calculated costs
-        shipment.setBaseCost(baseCost);
-        shipment.setFuelSurcharge(fuelSurcharge);
-        shipment.setTaxes(taxes);
-        shipment.setTotalCost(totalCost);
+        shipment.setBaseCost(PricingEngine.toAmount(baseCents));
+        shipment.setFuelSurcharge(PricingEngine.toAmount(fuelCents));
+        shipment.setTaxes(PricingEngine.toAmount(taxCents));
+        shipment.setTotalCost(PricingEngine.toAmount(totalCents));
 
-        return totalCost;
+        return shipment.getTotalCost();
     }
 
     /**
-     * Generate unique shipment number
+     * System-wide shipment statistics. Counted with one grouped query and kept
+     * for {@code shipments.stats.refresh-seconds}; after that the stale figures
+     * are served while a background reload runs, so callers never wait on the count.
      */
-    private String generateShipmentNumber() {
-        String prefix = "SH";
-        long timestamp = System.currentTimeMillis();
-        int random = (int) (Math.random() * 1000);
-        return prefix + timestamp + String.format("%03d", random);
+    @Transactional(propagation = Propagation.SUPPORTS)
+    public ShipmentStats getShipmentStats() {
+        return statsCache.get(STATS_KEY);
     }
 
-    /**
-     * Get shipment statistics
-     */
-    public ShipmentStats getShipmentStats() {
-        List<Shipment> allShipments = shipmentRepository.findAll();
-        
-        ShipmentStats stats = new ShipmentStats();
-        stats.setTotalShipments(allShipments.size());
-        stats.setActiveShipments((int) allShipments.stream()
-            .filter(s -> s.getStatus() != Shipment.ShipmentStatus.DELIVERED && 
-                        s.getStatus() != Shipment.ShipmentStatus.CANCELLED)
-            .count());
-        stats.setDeliveredShipments((int) allShipments.stream()
-            .filter(s -> s.getStatus() == Shipment.ShipmentStatus.DELIVERED)
-            .count());
-        stats.setCancelledShipments((int) allShipments.stream()
-            .filter(s -> s.getStatus() == Shipment.ShipmentStatus.CANCELLED)
-            .count());
+    private ShipmentStats computeShipmentStats() {
+        List<Object[]> rows = shipmentRepository.countByStatusCarrierAndType();
+
+        Set<Long> carrierIds = new HashSet<>();
+        for (Object[] row : rows) {
+            carrierIds.add((Long) row[1]);
+        }
+        Map<Long, String> carrierCodes = new HashMap<>();
+        for (Carrier carrier : carrierRepository.findAllById(carrierIds)) {
+            carrierCodes.put(carrier.getId(), carrier.getCode());
+        }
+
+        Map<String, Long> byStatus = new LinkedHashMap<>();
+        for (Shipment.ShipmentStatus status : Shipment.ShipmentStatus.values()) {
+            byStatus.put(status.name(), 0L);
+        }
+        Map<String, Long> byCarrier = new TreeMap<>();
+        Map<String, Long> byShipmentType = new LinkedHashMap<>();
+        for (Shipment.ShipmentType type : Shipment.ShipmentType.values()) {
+            byShipmentType.put(type.name(), 0L);
+        }
+        long total = 0;
+        for (Object[] row : rows) {
+            long count = (Long) row[3];
+            total += count;
+            byStatus.merge(((Shipment.ShipmentStatus) row[0]).name(), count, Long::sum);
+            byCarrier.merge(carrierCodes.getOrDefault((Long) row[1], String.valueOf(row[1])), count, Long::sum);
+            byShipmentType.merge(((Shipment.ShipmentType) row[2]).name(), count, Long::sum);
+        }
 
+        long delivered = byStatus.get(Shipment.ShipmentStatus.DELIVERED.name());
+        long cancelled = byStatus.get(Shipment.ShipmentStatus.CANCELLED.name());
+        ShipmentStats stats = new ShipmentStats();
+        stats.setTotalShipments(total);
+        stats.setActiveShipments(total - delivered - cancelled);
+        stats.setDeliveredShipments(delivered);
+        stats.setCancelledShipments(cancelled);
+        stats.setByStatus(byStatus);
+        stats.setByCarrier(byCarrier);
+        stats.setByShipmentType(byShipmentType);
+        stats.setComputedAt(LocalDateTime.now());
         return stats;
     }
 
@@ -252,22 +305,38 @@ public class ShipmentService {
      * Inner class for shipment statistics
      */
     public static class ShipmentStats {
-        private int totalShipments;
-        private int activeShipments;
-        private int deliveredShipments;
-        private int cancelledShipments;
+        private long totalShipments;
+        private long activeShipments;
+        private long deliveredShipments;
+        private long cancelledShipments;
+        private Map<String, Long> byStatus;
+        private Map<String, Long> byCarrier;
+        private Map<String, Long> byShipmentType;
+        private LocalDateTime computedAt;
 
         // Getters and setters
-        public int getTotalShipments() { return totalShipments; }
-        public void setTotalShipments(int totalShipments) { this.totalShipments = totalShipments; }
+        public long getTotalShipments() { return totalShipments; }
+        public void setTotalShipments(long totalShipments) { this.totalShipments = totalShipments; }
+
+        public long getActiveShipments() { return activeShipments; }
+        public void setActiveShipments(long activeShipments) { this.activeShipments = activeShipments; }
+
+        public long getDeliveredShipments() { return deliveredShipments; }
+        public void setDeliveredShipments(long deliveredShipments) { this.deliveredShipments = deliveredShipments; }
+
+        public long getCancelledShipments() { return cancelledShipments; }
+        public void setCancelledShipments(long cancelledShipments) { this.cancelledShipments = cancelledShipments; }
+
+        public Map<String, Long> getByStatus() { return byStatus; }
+        public void setByStatus(Map<String, Long> byStatus) { this.byStatus = byStatus; }
 
-        public int getActiveShipments() { return activeShipments; }
-        public void setActiveShipments(int activeShipments) { this.activeShipments = activeShipments; }
+        public Map<String, Long> getByCarrier() { return byCarrier; }
+        public void setByCarrier(Map<String, Long> byCarrier) { this.byCarrier = byCarrier; }
 
-        public int getDeliveredShipments() { return deliveredShipments; }
-        public void setDeliveredShipments(int deliveredShipments) { this.deliveredShipments = deliveredShipments; }
+        public Map<String, Long> getByShipmentType() { return byShipmentType; }
+        public void setByShipmentType(Map<String, Long> byShipmentType) { this.byShipmentType = byShipmentType; }
 
-        public int getCancelledShipments() { return cancelledShipments; }
-        public void setCancelledShipments(int cancelledShipments) { this.cancelledShipments = cancelledShipments; }
+        public LocalDateTime getComputedAt() { return computedAt; }
+        public void setComputedAt(LocalDateTime computedAt) { this.computedAt = computedAt; }
     }
 }
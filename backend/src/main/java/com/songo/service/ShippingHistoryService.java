@@ -1,13 +1,14 @@
 package com.songo.service;
 
+import com.songo.dto.CursorPage;
 import com.songo.model.Shipment;
 import com.songo.model.User;
 import com.songo.model.Invoice;
 import com.songo.repository.ShipmentRepository;
 import com.songo.repository.UserRepository;
 import com.songo.repository.InvoiceRepository;
+import com.songo.service.id.BusinessIds;
 import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
@@ -33,18 +34,24 @@ public class ShippingHistoryService {
     @Autowired
     private InvoiceRepository invoiceRepository;
 
-    /**
-     * Get all shipments for a user with pagination
-     */
-    public Page<Shipment> getUserShipments(Long userId, Pageable pageable) {
-        return shipmentRepository.findByUserIdOrderByCreatedAtDesc(userId, pageable);
-    }
+    @Autowired
+    private BusinessIds businessIds;
 
     /**
-     * Get all shipments for a user
+     * A page of a user's shipments, newest first. Pass the previous page's
+     * {@code nextCursor} to continue; throws IllegalArgumentException for a bad cursor.
      */
-    public List<Shipment> getUserShipments(Long userId) {
-        return shipmentRepository.findByUserIdOrderByCreatedAtDesc(userId);
+    @Transactional(readOnly = true)
+    public CursorPage<Shipment> getUserShipments(Long userId, String cursor, int limit) {
+        Pageable page = Pageable.ofSize(limit);
+        List<Shipment> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = shipmentRepository.findPageByUserId(userId, page);
+        } else {
+            CursorPage.Position position = CursorPage.decodeCursor(cursor);
+            items = shipmentRepository.findPageByUserIdAfter(userId, position.time(), position.id(), page);
+        }
+        return new CursorPage<>(items, limit, s -> new CursorPage.Position(s.getCreatedAt(), s.getId()));
     }
 
     /**
@@ -84,7 +91,7 @@ public class ShippingHistoryService {
         
         // Generate tracking number if not provided
         if (shipment.getTrackingNumber() == null || shipment.getTrackingNumber().isEmpty()) {
-            shipment.setTrackingNumber(generateTrackingNumber());
+            shipment.setTrackingNumber(businessIds.trackingNumber());
         }
 
         return shipmentRepository.save(shipment);
@@ -134,31 +141,34 @@ public class ShippingHistoryService {
     }
 
     /**
-     * Get shipping statistics for a user
+     * Get shipping statistics for a user from one grouped query
      */
+    @Transactional(readOnly = true)
     public ShippingStats getUserShippingStats(Long userId) {
-        List<Shipment> allShipments = getUserShipments(userId);
-        
+        int total = 0;
+        int delivered = 0;
+        int cancelled = 0;
+        BigDecimal totalSpent = BigDecimal.ZERO;
+        for (Object[] row : shipmentRepository.countAndCostByStatusForUser(userId)) {
+            Shipment.ShipmentStatus status = (Shipment.ShipmentStatus) row[0];
+            int count = ((Number) row[1]).intValue();
+            total += count;
+            if (status == Shipment.ShipmentStatus.DELIVERED) {
+                delivered = count;
+            } else if (status == Shipment.ShipmentStatus.CANCELLED) {
+                cancelled = count;
+            }
+            if (row[2] != null) {
+                totalSpent = totalSpent.add((BigDecimal) row[2]);
+            }
+        }
+
         ShippingStats stats = new ShippingStats();
-        stats.setTotalShipments(allShipments.size());
-        stats.setActiveShipments((int) allShipments.stream()
-            .filter(s -> s.getStatus() != Shipment.ShipmentStatus.DELIVERED && 
-                        s.getStatus() != Shipment.ShipmentStatus.CANCELLED)
-            .count());
-        stats.setDeliveredShipments((int) allShipments.stream()
-            .filter(s -> s.getStatus() == Shipment.ShipmentStatus.DELIVERED)
-            .count());
-        stats.setCancelledShipments((int) allShipments.stream()
-            .filter(s -> s.getStatus() == Shipment.ShipmentStatus.CANCELLED)
-            .count());
-        
-        // Calculate total spent
-        BigDecimal totalSpent = allShipments.stream()
-            .filter(s -> s.getTotalCost() != null)
-            .map(Shipment::getTotalCost)
-            .reduce(BigDecimal.ZERO, BigDecimal::add);
+        stats.setTotalShipments(total);
+        stats.setActiveShipments(total - delivered - cancelled);
+        stats.setDeliveredShipments(delivered);
+        stats.setCancelledShipments(cancelled);
         stats.setTotalSpent(totalSpent);
-
         return stats;
     }
 
@@ -179,16 +189,6 @@ public class ShippingHistoryService {
         return shipmentRepository.findTopNByUserIdOrderByCreatedAtDesc(userId, limit);
     }
 
-    /**
-     * Generate a unique tracking number
-     */
-    private String generateTrackingNumber() {
-        String prefix = "SG";
-        long timestamp = System.currentTimeMillis();
-        int random = (int) (Math.random() * 1000);
-        return prefix + timestamp + String.format("%03d", random);
-    }
-
     /**
      * Inner class for shipping statistics
      */
@@ -0,0 +1,194 @@
+package com.songo.service;
+
+import com.songo.dto.tracking.TrackingEventRequest;
+import com.songo.dto.tracking.TrackingIngestResult;
+import com.songo.model.TrackingEvent;
+import com.songo.repository.TrackingEventBatchRepository;
+import com.songo.repository.TrackingEventBatchRepository.PendingEvent;
+import com.songo.repository.TrackingEventBatchRepository.ShipmentRef;
+import com.songo.repository.TrackingStatusRepository;
+import com.songo.repository.TrackingStatusRepository.LatestEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Ingests batches of carrier scan events. Shipments are resolved with one
+ * lookup per batch, re-sent scans are dropped by natural-key hash (within
+ * the batch, against stored keys, and by the unique constraint on insert)
+ * and new events are written with JDBC batch inserts. Each shipment's latest
+ * event columns are moved forward in the same transaction, from the events
+ * this batch actually inserted, and its status is derived from them in one
+ * set-based update.
+ */
+@Service
+public class TrackingIngestionService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingIngestionService.class);
+
+    private final TrackingEventBatchRepository trackingEventBatchRepository;
+    private final TrackingStatusRepository trackingStatusRepository;
+    private final DashboardCache dashboardCache;
+    private final Counter insertedCounter;
+    private final Counter duplicateCounter;
+    private final Counter unknownShipmentCounter;
+    private final Counter invalidCounter;
+
+    @Value("${tracking.ingest.max-events:50000}")
+    private int maxEvents;
+
+    public TrackingIngestionService(TrackingEventBatchRepository trackingEventBatchRepository,
+                                    TrackingStatusRepository trackingStatusRepository,
+                                    DashboardCache dashboardCache,
+                                    MeterRegistry meterRegistry) {
+        this.trackingEventBatchRepository = trackingEventBatchRepository;
+        this.trackingStatusRepository = trackingStatusRepository;
+        this.dashboardCache = dashboardCache;
+        this.insertedCounter = meterRegistry.counter("tracking.events.ingested", "outcome", "inserted");
+        this.duplicateCounter = meterRegistry.counter("tracking.events.ingested", "outcome", "duplicate");
+        this.unknownShipmentCounter = meterRegistry.counter("tracking.events.ingested", "outcome", "unknown_shipment");
+        this.invalidCounter = meterRegistry.counter("tracking.events.ingested", "outcome", "invalid");
+    }
+
+    public int getMaxEvents() {
+        return maxEvents;
+    }
+
+    @Transactional
+    public TrackingIngestResult ingest(List<TrackingEventRequest> requests) {
+        if (requests.size() > maxEvents) {
+            throw new RuntimeException("Batch exceeds " + maxEvents + " events");
+        }
+        long start = System.nanoTime();
+        TrackingIngestResult result = new TrackingIngestResult(requests.size());
+
+        List<TrackingEventRequest> valid = new ArrayList<>(requests.size());
+        for (int i = 0; i < requests.size(); i++) {
+            String error = validate(requests.get(i));
+            if (error != null) {
+                result.getErrors().add("Event " + (i + 1) + ": " + error);
+            } else {
+                valid.add(requests.get(i));
+            }
+        }
+
+        Set<String> trackingNumbers = new HashSet<>();
+        for (TrackingEventRequest request : valid) {
+            trackingNumbers.add(request.getTrackingNumber().trim());
+        }
+        Map<String, ShipmentRef> shipments = trackingEventBatchRepository.findShipments(trackingNumbers);
+
+        // First occurrence wins within the batch
+        Map<String, PendingEvent> events = new LinkedHashMap<>();
+        Set<String> unknown = new TreeSet<>();
+        int unknownEvents = 0;
+        int duplicates = 0;
+        LocalDateTime now = LocalDateTime.now();
+        for (TrackingEventRequest request : valid) {
+            String trackingNumber = request.getTrackingNumber().trim();
+            ShipmentRef shipment = shipments.get(trackingNumber);
+            if (shipment == null) {
+                unknown.add(trackingNumber);
+                unknownEvents++;
+                continue;
+            }
+            TrackingEvent event = toEvent(request, trackingNumber, shipment, now);
+            if (events.putIfAbsent(event.getEventKey(), new PendingEvent(shipment.id(), event)) != null) {
+                duplicates++;
+            }
+        }
+
+        Set<String> existing = trackingEventBatchRepository.findExistingKeys(events.keySet());
+        events.keySet().removeAll(existing);
+        duplicates += existing.size();
+
+        List<PendingEvent> inserted = trackingEventBatchRepository.insertAll(new ArrayList<>(events.values()));
+        // Keys stored by a concurrent ingest since the check above
+        duplicates += events.size() - inserted.size();
+        List<LatestEvent> latest = new ArrayList<>(inserted.size());
+        Set<Long> shipmentIds = new HashSet<>();
+        for (PendingEvent event : inserted) {
+            latest.add(LatestEvent.of(event.shipmentId(), event.event()));
+            shipmentIds.add(event.shipmentId());
+            result.getUpdatedTrackingNumbers().add(event.event().getTrackingNumber());
+        }
+        trackingStatusRepository.updateLatest(latest);
+        if (trackingStatusRepository.updateStatusFromLatest(shipmentIds) > 0) {
+            // Bulk updates bypass the entity listener that evicts dashboards
+            trackingStatusRepository.findUserIds(shipmentIds).forEach(dashboardCache::evict);
+        }
+
+        result.setInserted(inserted.size());
+        result.setDuplicates(duplicates);
+        result.setUnknownTrackingNumbers(new ArrayList<>(unknown));
+        result.setElapsedMs((System.nanoTime() - start) / 1_000_000);
+
+        insertedCounter.increment(inserted.size());
+        duplicateCounter.increment(duplicates);
+        unknownShipmentCounter.increment(unknownEvents);
+        invalidCounter.increment(result.getErrors().size());
+        logger.info("Ingested {} tracking events: {} inserted, {} duplicates, {} unknown shipments, {} invalid in {} ms",
+                    requests.size(), inserted.size(), duplicates, unknownEvents, result.getErrors().size(),
+                    result.getElapsedMs());
+        return result;
+    }
+
+    private TrackingEvent toEvent(TrackingEventRequest request, String trackingNumber,
+                                  ShipmentRef shipment, LocalDateTime now) {
+        TrackingEvent event = new TrackingEvent();
+        event.setEventKey(TrackingEvent.naturalKey(shipment.id(), request.getEventType(), request.getStatus(),
+            request.getEventDate(), request.getLocationZip(), request.getLocationCity()));
+        event.setEventType(request.getEventType());
+        event.setStatus(request.getStatus());
+        event.setStatusDescription(request.getStatusDescription());
+        event.setEventDate(request.getEventDate());
+        event.setLocationCity(request.getLocationCity());
+        event.setLocationState(request.getLocationState());
+        event.setLocationCountry(request.getLocationCountry());
+        event.setLocationZip(request.getLocationZip());
+        event.setCarrierCode(request.getCarrierCode() != null ? request.getCarrierCode() : shipment.carrierCode());
+        event.setCarrierName(request.getCarrierName() != null ? request.getCarrierName() : shipment.carrierName());
+        event.setTrackingNumber(trackingNumber);
+        event.setDeliverySignature(request.getDeliverySignature());
+        event.setDeliveryInstructions(request.getDeliveryInstructions());
+        event.setEstimatedDelivery(request.getEstimatedDelivery());
+        event.setActualDelivery(request.getActualDelivery());
+        event.setExceptionCode(request.getExceptionCode());
+        event.setExceptionDescription(request.getExceptionDescription());
+        // Batch inserts bypass entity callbacks
+        event.setCreatedAt(now);
+        event.setUpdatedAt(now);
+        return event;
+    }
+
+    // Checked by hand: bean validation costs more than the insert itself at this volume
+    private String validate(TrackingEventRequest request) {
+        if (request == null) {
+            return "Empty event";
+        }
+        if (isBlank(request.getTrackingNumber())) {
+            return "Tracking number is required";
+        }
+        if (isBlank(request.getEventType())) {
+            return "Event type is required";
+        }
+        if (isBlank(request.getStatus())) {
+            return "Status is required";
+        }
+        if (request.getEventDate() == null) {
+            return "Event date is required";
+        }
+        return null;
+    }
+
+    private static boolean isBlank(String value) {
+        return value == null || value.isBlank();
+    }
+}
@@ -0,0 +1,327 @@
+package com.songo.service;
+
+import com.songo.dto.tracking.TrackedShipment;
+import com.songo.dto.tracking.TrackingEventRequest;
+import com.songo.repository.CarrierRepository;
+import com.songo.repository.ShipmentRepository;
+import com.songo.service.carrier.CarrierCallGuard;
+import com.songo.service.carrier.CarrierTrackingProvider;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Pulls tracking updates from carriers for active shipments.
+ * Each shipment is due again after an interval that depends on its last known
+ * state ({@code tracking.poll.interval.<state>}, e.g. minutes when out for
+ * delivery, hours while pending), so freshness is bounded per state without
+ * polling quiet shipments. Due shipments are grouped per carrier into the
+ * largest batch its API accepts and fetched off the scheduler thread through
+ * the carrier's bulkhead and circuit breaker; new events go through
+ * {@link TrackingService}. The active set is resynced from the database
+ * periodically, not on every tick, and only holds shipments of carriers
+ * that have a tracking provider.
+ */
+@Service
+@ConditionalOnProperty(name = "tracking.poll.enabled", havingValue = "true", matchIfMissing = true)
+public class TrackingPollerService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingPollerService.class);
+
+    private static final Map<String, Duration> DEFAULT_INTERVALS = Map.of(
+        "OUT_FOR_DELIVERY", Duration.ofMinutes(5),
+        "EXCEPTION", Duration.ofMinutes(30),
+        "IN_TRANSIT", Duration.ofHours(1),
+        "PICKED_UP", Duration.ofHours(1),
+        "BOOKED", Duration.ofHours(4),
+        "PENDING", Duration.ofHours(4));
+
+    private static final Set<String> FINAL_STATES = Set.of("DELIVERED", "CANCELLED");
+
+    private final ShipmentRepository shipmentRepository;
+    private final CarrierRepository carrierRepository;
+    private final TrackingService trackingService;
+    private final CarrierCallGuard carrierCallGuard;
+    private final List<CarrierTrackingProvider> providers;
+    private final Environment environment;
+    private final MeterRegistry meterRegistry;
+
+    // All tracked shipments by id; the queue holds those not currently being polled
+    private final Map<Long, PollTarget> targets = new HashMap<>();
+    private final PriorityQueue<PollTarget> queue =
+        new PriorityQueue<>(Comparator.comparingLong(PollTarget::getNextPollAt));
+    private final Map<String, Duration> intervals = new ConcurrentHashMap<>();
+    private final AtomicBoolean polling = new AtomicBoolean();
+
+    @Value("${tracking.poll.max-per-tick:2000}")
+    private int maxPerTick;
+
+    @Value("${tracking.poll.concurrency:4}")
+    private int concurrency;
+
+    @Value("${tracking.poll.call-timeout-ms:10000}")
+    private long callTimeoutMs;
+
+    @Value("${tracking.poll.retry-delay:5m}")
+    private Duration retryDelay;
+
+    @Value("${tracking.poll.interval.default:2h}")
+    private Duration defaultInterval;
+
+    public TrackingPollerService(ShipmentRepository shipmentRepository,
+                                 CarrierRepository carrierRepository,
+                                 TrackingService trackingService,
+                                 CarrierCallGuard carrierCallGuard,
+                                 ObjectProvider<CarrierTrackingProvider> providers,
+                                 Environment environment,
+                                 MeterRegistry meterRegistry) {
+        this.shipmentRepository = shipmentRepository;
+        this.carrierRepository = carrierRepository;
+        this.trackingService = trackingService;
+        this.carrierCallGuard = carrierCallGuard;
+        this.providers = providers.orderedStream().toList();
+        this.environment = environment;
+        this.meterRegistry = meterRegistry;
+        meterRegistry.gauge("tracking.poll.tracked", this, TrackingPollerService::trackedCount);
+        meterRegistry.gauge("tracking.poll.overdue.seconds", this, TrackingPollerService::overdueSeconds);
+    }
+
+    /**
+     * Pick up newly active shipments and drop those no longer active.
+     * New shipments get their first poll spread over their state's interval.
+     * Shipments of carriers without a tracking provider are never loaded.
+     */
+    @Scheduled(fixedDelayString = "${tracking.poll.sync-interval-ms:600000}",
+               initialDelayString = "${tracking.poll.initial-delay-ms:30000}")
+    public void syncActiveShipments() {
+        List<String> carrierCodes = carrierRepository.findAllCodes().stream()
+            .filter(code -> code != null && providerFor(code) != null)
+            .toList();
+        List<TrackedShipment> active = carrierCodes.isEmpty()
+            ? List.of()
+            : shipmentRepository.findActiveTrackedShipments(carrierCodes);
+        long now = System.currentTimeMillis();
+        int added = 0;
+        int removed = 0;
+        synchronized (this) {
+            Set<Long> activeIds = new HashSet<>(active.size() * 2);
+            for (TrackedShipment shipment : active) {
+                activeIds.add(shipment.id());
+                if (!targets.containsKey(shipment.id())) {
+                    String state = shipment.status().name();
+                    PollTarget target = new PollTarget(shipment.id(), shipment.trackingNumber(),
+                        shipment.carrierCode(), state,
+                        now + ThreadLocalRandom.current().nextLong(intervalFor(state).toMillis() + 1));
+                    targets.put(target.shipmentId, target);
+                    queue.add(target);
+                    added++;
+                }
+            }
+            Iterator<PollTarget> it = targets.values().iterator();
+            while (it.hasNext()) {
+                PollTarget target = it.next();
+                if (!activeIds.contains(target.shipmentId)) {
+                    // A target being polled is dropped when its poll completes
+                    target.removed = true;
+                    queue.remove(target);
+                    it.remove();
+                    removed++;
+                }
+            }
+        }
+        if (added > 0 || removed > 0) {
+            logger.info("Tracking poller synced active shipments: {} added, {} removed, {} tracked",
+                        added, removed, trackedCount());
+        }
+    }
+
+    /**
+     * Poll the shipments that are due, without blocking the scheduler thread
+     */
+    @Scheduled(fixedDelayString = "${tracking.poll.tick-ms:10000}",
+               initialDelayString = "${tracking.poll.initial-delay-ms:30000}")
+    public void pollDue() {
+        if (!polling.compareAndSet(false, true)) {
+            return;
+        }
+        List<PollTarget> due = takeDue(System.currentTimeMillis());
+        if (due.isEmpty()) {
+            polling.set(false);
+            return;
+        }
+
+        Map<String, List<PollTarget>> byCarrier = new HashMap<>();
+        for (PollTarget target : due) {
+            byCarrier.computeIfAbsent(target.carrierCode, c -> new ArrayList<>()).add(target);
+        }
+
+        // Batches run concurrently per carrier, so a slow carrier cannot hold up the others
+        List<Flux<Void>> carrierPolls = new ArrayList<>();
+        int batchCount = 0;
+        for (Map.Entry<String, List<PollTarget>> entry : byCarrier.entrySet()) {
+            String carrierCode = entry.getKey();
+            List<PollTarget> carrierTargets = entry.getValue();
+            CarrierTrackingProvider provider = providerFor(carrierCode);
+            if (provider == null) {
+                logger.debug("No tracking provider for carrier {}, deferring {} shipments",
+                             carrierCode, carrierTargets.size());
+                reschedule(carrierTargets, defaultInterval);
+                continue;
+            }
+            int batchSize = Math.max(1, provider.getMaxBatchSize(carrierCode));
+            List<Mono<Void>> batches = new ArrayList<>();
+            for (int from = 0; from < carrierTargets.size(); from += batchSize) {
+                batches.add(pollBatch(provider, carrierCode,
+                    carrierTargets.subList(from, Math.min(from + batchSize, carrierTargets.size()))));
+            }
+            carrierPolls.add(Flux.fromIterable(batches).flatMap(batch -> batch, concurrency));
+            batchCount += batches.size();
+        }
+
+        logger.debug("Polling {} shipments in {} carrier batches", due.size(), batchCount);
+        Flux.merge(carrierPolls)
+            .doFinally(signal -> polling.set(false))
+            .subscribe();
+    }
+
+    private Mono<Void> pollBatch(CarrierTrackingProvider provider, String carrierCode, List<PollTarget> batch) {
+        List<String> trackingNumbers = batch.stream().map(t -> t.trackingNumber).toList();
+        Mono<List<TrackingEventRequest>> call = Mono
+            .fromCallable(() -> provider.track(carrierCode, trackingNumbers))
+            .subscribeOn(Schedulers.boundedElastic())
+            .timeout(Duration.ofMillis(callTimeoutMs));
+
+        return carrierCallGuard.protect(carrierCode.toLowerCase(Locale.ROOT) + "-tracking", call)
+            .publishOn(Schedulers.boundedElastic())
+            .doOnNext(events -> onEvents(batch, events))
+            .doOnSuccess(events -> batchCounter(carrierCode, "success"))
+            .onErrorResume(e -> {
+                logger.warn("Tracking poll of {} {} shipments failed: {}", batch.size(), carrierCode, e.toString());
+                batchCounter(carrierCode, "failure");
+                reschedule(batch, retryDelay);
+                return Mono.empty();
+            })
+            .then();
+    }
+
+    private void onEvents(List<PollTarget> batch, List<TrackingEventRequest> events) {
+        if (!events.isEmpty()) {
+            trackingService.recordCarrierEvents(events);
+        }
+
+        // Latest reported status per shipment decides when it is polled next
+        Map<String, TrackingEventRequest> latest = new HashMap<>();
+        for (TrackingEventRequest event : events) {
+            if (event.getTrackingNumber() == null || event.getStatus() == null || event.getEventDate() == null) {
+                continue;
+            }
+            latest.merge(event.getTrackingNumber().trim(), event,
+                (a, b) -> b.getEventDate().isAfter(a.getEventDate()) ? b : a);
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (this) {
+            for (PollTarget target : batch) {
+                TrackingEventRequest event = latest.get(target.trackingNumber);
+                if (event != null) {
+                    target.state = event.getStatus().trim().toUpperCase(Locale.ROOT);
+                }
+                if (FINAL_STATES.contains(target.state)) {
+                    targets.remove(target.shipmentId, target);
+                } else if (!target.removed) {
+                    target.nextPollAt = now + jitter(intervalFor(target.state));
+                    queue.add(target);
+                }
+            }
+        }
+    }
+
+    private synchronized List<PollTarget> takeDue(long now) {
+        List<PollTarget> due = new ArrayList<>();
+        while (due.size() < maxPerTick && !queue.isEmpty() && queue.peek().nextPollAt <= now) {
+            due.add(queue.poll());
+        }
+        return due;
+    }
+
+    private synchronized void reschedule(List<PollTarget> batch, Duration delay) {
+        long nextPollAt = System.currentTimeMillis() + delay.toMillis();
+        for (PollTarget target : batch) {
+            if (!target.removed) {
+                target.nextPollAt = nextPollAt;
+                queue.add(target);
+            }
+        }
+    }
+
+    private CarrierTrackingProvider providerFor(String carrierCode) {
+        for (CarrierTrackingProvider provider : providers) {
+            if (provider.supports(carrierCode)) {
+                return provider;
+            }
+        }
+        return null;
+    }
+
+    private Duration intervalFor(String state) {
+        return intervals.computeIfAbsent(state, s -> environment.getProperty(
+            "tracking.poll.interval." + s.toLowerCase(Locale.ROOT).replace('_', '-'),
+            Duration.class, DEFAULT_INTERVALS.getOrDefault(s, defaultInterval)));
+    }
+
+    // Up to 10% early so shipments synced together do not stay in lockstep
+    private static long jitter(Duration interval) {
+        long millis = interval.toMillis();
+        return millis - ThreadLocalRandom.current().nextLong(millis / 10 + 1);
+    }
+
+    private void batchCounter(String carrierCode, String outcome) {
+        meterRegistry.counter("tracking.poll.batches", "carrier", carrierCode, "outcome", outcome).increment();
+    }
+
+    private synchronized int trackedCount() {
+        return targets.size();
+    }
+
+    // How far behind schedule the most overdue queued shipment is
+    private synchronized double overdueSeconds() {
+        PollTarget next = queue.peek();
+        return next == null ? 0 : Math.max(0, System.currentTimeMillis() - next.nextPollAt) / 1000.0;
+    }
+
+    private static final class PollTarget {
+        private final long shipmentId;
+        private final String trackingNumber;
+        private final String carrierCode;
+        private String state;
+        private long nextPollAt;
+        private boolean removed;
+
+        private PollTarget(long shipmentId, String trackingNumber, String carrierCode, String state, long nextPollAt) {
+            this.shipmentId = shipmentId;
+            this.trackingNumber = trackingNumber;
+            this.carrierCode = carrierCode;
+            this.state = state;
+            this.nextPollAt = nextPollAt;
+        }
+
+        private long getNextPollAt() {
+            return nextPollAt;
+        }
+    }
+}
@@ -1,11 +1,21 @@
 package com.songo.service;
 
+import com.songo.dto.ResourceVersion;
+import com.songo.dto.tracking.PublicTrackingEvent;
+import com.songo.dto.tracking.ShipmentTrackingPage;
+import com.songo.dto.tracking.ShipmentTrackingStatus;
+import com.songo.dto.tracking.TrackingEventRequest;
+import com.songo.dto.tracking.TrackingEventView;
+import com.songo.dto.tracking.TrackingIngestResult;
 import com.songo.model.Shipment;
 import com.songo.model.TrackingEvent;
 import com.songo.model.User;
 import com.songo.repository.ShipmentRepository;
 import com.songo.repository.TrackingEventRepository;
+import com.songo.repository.TrackingStatusRepository;
+import com.songo.repository.TrackingStatusRepository.LatestEvent;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -27,18 +37,27 @@ public class TrackingService {
     @Autowired
     private ShipmentRepository shipmentRepository;
 
+    @Autowired
+    private TrackingIngestionService trackingIngestionService;
+
+    @Autowired
+    private TrackingStatusRepository trackingStatusRepository;
+
     private final Random random = new Random();
 
-    public List<TrackingEvent> getTrackingHistory(String trackingNumber) {
-        return trackingEventRepository.findByTrackingNumberOrderByEventDateDesc(trackingNumber);
+    @Transactional(readOnly = true)
+    public List<TrackingEventView> getTrackingHistory(String trackingNumber) {
+        return trackingEventRepository.findViewsByTrackingNumber(trackingNumber);
     }
 
-    public List<TrackingEvent> getShipmentTrackingHistory(Long shipmentId) {
-        return trackingEventRepository.findByShipmentIdOrderByEventDateDesc(shipmentId);
+    @Transactional(readOnly = true)
+    public List<TrackingEventView> getShipmentTrackingHistory(Long shipmentId) {
+        return trackingEventRepository.findViewsByShipmentId(shipmentId);
     }
 
-    public Optional<TrackingEvent> getLatestTrackingEvent(String trackingNumber) {
-        return trackingEventRepository.findTopByTrackingNumberOrderByEventDateDesc(trackingNumber);
+    @Transactional(readOnly = true)
+    public Optional<TrackingEventView> getLatestTrackingEvent(String trackingNumber) {
+        return trackingEventRepository.findLatestViewByTrackingNumber(trackingNumber);
     }
 
     public Optional<TrackingEvent> getLatestTrackingEvent(Shipment shipment) {
@@ -52,27 +71,74 @@ public class TrackingService {
         event.setTrackingNumber(shipment.getTrackingNumber());
         event.setCarrierName(shipment.getCarrier() != null ? shipment.getCarrier().getName() : "Unknown");
         
-        return trackingEventRepository.save(event);
+        return addTrackingEvent(event);
     }
 
     public TrackingEvent addTrackingEvent(TrackingEvent event) {
-        return trackingEventRepository.save(event);
+        TrackingEvent saved = trackingEventRepository.save(event);
+        trackingStatusRepository.updateLatest(List.of(LatestEvent.of(saved.getShipment().getId(), saved)));
+        return saved;
+    }
+
+    /**
+     * Store events polled from or pushed by a carrier; each shipment that got a new event
+     * moves to the status of its latest one in the same batch
+     */
+    public TrackingIngestResult recordCarrierEvents(List<TrackingEventRequest> events) {
+        return trackingIngestionService.ingest(events);
     }
 
-    public List<TrackingEvent> getUserShipmentTracking(User user) {
-        // Get all shipments for the user and their latest tracking events
-        List<Shipment> userShipments = shipmentRepository.findByUserOrderByCreatedAtDesc(user);
-        return userShipments.stream()
-                .map(this::getLatestTrackingEvent)
-                .filter(Optional::isPresent)
-                .map(Optional::get)
-                .toList();
+    /**
+     * A user's shipments with their latest tracking event, most recent first.
+     * Pass the previous page's {@code nextCursor} to continue.
+     */
+    @Transactional(readOnly = true)
+    public ShipmentTrackingPage getUserShipmentTracking(User user, String cursor, int limit) {
+        Pageable page = Pageable.ofSize(limit);
+        List<ShipmentTrackingStatus> items;
+        if (cursor == null || cursor.isBlank()) {
+            items = shipmentRepository.findTrackingStatusByUserId(user.getId(), page);
+        } else {
+            ShipmentTrackingPage.Position position = ShipmentTrackingPage.decodeCursor(cursor);
+            items = shipmentRepository.findTrackingStatusByUserIdAfter(
+                user.getId(), position.eventDate(), position.shipmentId(), page);
+        }
+        return new ShipmentTrackingPage(items, limit);
     }
 
+    /**
+     * Change marker for a user's shipment tracking list
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getUserShipmentTrackingVersion(User user) {
+        return shipmentRepository.findTrackingVersionByUserId(user.getId());
+    }
+
+    /**
+     * Change marker for a tracking number's events; lets tracking endpoints answer 304 without loading them
+     */
+    @Transactional(readOnly = true)
+    public ResourceVersion getTrackingVersion(String trackingNumber) {
+        return trackingEventRepository.findVersionByTrackingNumber(trackingNumber);
+    }
+
+    @Transactional(readOnly = true)
     public boolean canUserAccessTracking(String trackingNumber, User user) {
-        Optional<Shipment> shipment = shipmentRepository.findByTrackingNumber(trackingNumber);
-        if (shipment.isPresent()) {
-            return shipment.get().getUser().getId().equals(user.getId()) || user.isAdmin();
+        Optional<Long> ownerId = shipmentRepository.findUserIdByTrackingNumber(trackingNumber);
+        if (ownerId.isPresent()) {
+            return ownerId.get().equals(user.getId()) || user.isAdmin();
+        }
+        return false;
+    }
+
+    /**
+     * Whether the user owns the shipment or is an admin; false if there is no such shipment
+     */
+    @Transactional(readOnly = true)
+    public boolean canUserAccessShipment(Long shipmentId, User user) {
+        Optional<Long> ownerId = shipmentRepository.findUserIdById(shipmentId);
+        if (ownerId.isPresent()) {
+            return ownerId.get().equals(user.getId()) || user.isAdmin();
         }
         return false;
     }
@@ -145,11 +211,13 @@ public class TrackingService {
         }
     }
 
-    public List<TrackingEvent> getDeliveredShipments() {
+    @Transactional(readOnly = true)
+    public List<TrackingEventView> getDeliveredShipments() {
         return trackingEventRepository.findDeliveredShipments();
     }
 
-    public List<TrackingEvent> getShipmentsWithExceptions() {
+    @Transactional(readOnly = true)
+    public List<TrackingEventView> getShipmentsWithExceptions() {
         return trackingEventRepository.findShipmentsWithExceptions();
     }
 
@@ -157,29 +225,15 @@ public class TrackingService {
         return trackingEventRepository.countByShipment(shipment);
     }
 
-    // Public tracking (no authentication required)
-    public List<TrackingEvent> getPublicTrackingHistory(String trackingNumber) {
-        // For public access, we might want to limit the information returned
-        List<TrackingEvent> events = trackingEventRepository.findByTrackingNumberOrderByEventDateDesc(trackingNumber);
-        
-        // Remove sensitive information for public access
-        events.forEach(event -> {
-            event.setDeliverySignature(null);
-            event.setDeliveryInstructions(null);
-        });
-        
-        return events;
+    // Public tracking (no authentication required): projections of the public columns only,
+    // so no entities are loaded, snapshotted or dirty-checked
+    @Transactional(readOnly = true)
+    public List<PublicTrackingEvent> getPublicTrackingHistory(String trackingNumber) {
+        return trackingEventRepository.findPublicByTrackingNumber(trackingNumber);
     }
 
-    public Optional<TrackingEvent> getPublicLatestTrackingEvent(String trackingNumber) {
-        Optional<TrackingEvent> event = trackingEventRepository.findTopByTrackingNumberOrderByEventDateDesc(trackingNumber);
-        
-        // Remove sensitive information for public access
-        event.ifPresent(e -> {
-            e.setDeliverySignature(null);
-            e.setDeliveryInstructions(null);
-        });
-        
-        return event;
+    @Transactional(readOnly = true)
+    public Optional<PublicTrackingEvent> getPublicLatestTrackingEvent(String trackingNumber) {
+        return trackingEventRepository.findLatestPublicByTrackingNumber(trackingNumber);
     }
 }
@@ -0,0 +1,111 @@
+package com.songo.service;
+
+import com.songo.repository.TrackingEventBatchRepository;
+import com.songo.repository.TrackingEventBatchRepository.KeyedEvent;
+import com.songo.repository.TrackingStatusRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+
+/**
+ * Fills the latest tracking event columns of shipments whose events were
+ * written before those columns existed, and the event keys of events stored
+ * before de-duplication. Runs once in the background after startup, walking
+ * rows by id in batches; new events keep both current from then on.
+ */
+@Service
+public class TrackingStatusBackfillService {
+
+    private static final Logger logger = LoggerFactory.getLogger(TrackingStatusBackfillService.class);
+
+    private final TrackingStatusRepository trackingStatusRepository;
+    private final TrackingEventBatchRepository trackingEventBatchRepository;
+
+    @Value("${tracking.status.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${tracking.status.backfill-batch-size:1000}")
+    private int batchSize;
+
+    public TrackingStatusBackfillService(TrackingStatusRepository trackingStatusRepository,
+                                         TrackingEventBatchRepository trackingEventBatchRepository) {
+        this.trackingStatusRepository = trackingStatusRepository;
+        this.trackingEventBatchRepository = trackingEventBatchRepository;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void onReady() {
+        if (backfillOnStartup) {
+            Thread backfill = new Thread(() -> {
+                backfillEventKeys();
+                backfill();
+            }, "tracking-status-backfill");
+            backfill.setDaemon(true);
+            backfill.start();
+        }
+    }
+
+    /**
+     * Assign the natural key to every event still missing one, deleting
+     * events that turn out to repeat an already keyed scan
+     */
+    public int backfillEventKeys() {
+        long start = System.nanoTime();
+        long lastId = 0;
+        int keyed = 0;
+        int deleted = 0;
+        try {
+            List<KeyedEvent> events;
+            do {
+                events = trackingEventBatchRepository.findKeyless(lastId, batchSize);
+                if (!events.isEmpty()) {
+                    int duplicates = trackingEventBatchRepository.assignKeys(events);
+                    lastId = events.get(events.size() - 1).id();
+                    keyed += events.size() - duplicates;
+                    deleted += duplicates;
+                }
+            } while (events.size() == batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Tracking event key backfill stopped after {} events", keyed + deleted, e);
+            return keyed;
+        }
+        if (keyed + deleted > 0) {
+            logger.info("Backfilled event keys for {} tracking events and deleted {} duplicates in {} ms",
+                        keyed, deleted, (System.nanoTime() - start) / 1_000_000);
+        }
+        return keyed;
+    }
+
+    /**
+     * Copy the latest event onto every shipment still missing it
+     */
+    public int backfill() {
+        long start = System.nanoTime();
+        long lastId = 0;
+        int updated = 0;
+        try {
+            List<Long> ids;
+            do {
+                ids = trackingStatusRepository.findShipmentsMissingStatus(lastId, batchSize);
+                if (!ids.isEmpty()) {
+                    trackingStatusRepository.updateLatest(trackingStatusRepository.findLatestEvents(ids));
+                    lastId = ids.get(ids.size() - 1);
+                    updated += ids.size();
+                }
+            } while (ids.size() == batchSize);
+        } catch (RuntimeException e) {
+            logger.error("Latest tracking status backfill stopped after {} shipments", updated, e);
+            return updated;
+        }
+        if (updated > 0) {
+            logger.info("Backfilled latest tracking status for {} shipments in {} ms",
+                        updated, (System.nanoTime() - start) / 1_000_000);
+        }
+        return updated;
+    }
+}
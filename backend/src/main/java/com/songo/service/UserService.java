@@ -5,6 +5,7 @@ import com.songo.model.CustomerProfile;
 import com.songo.model.Address;
 import com.songo.repository.UserRepository;
 import com.songo.repository.AddressRepository;
+import com.songo.repository.ShipmentRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.stereotype.Service;
@@ -27,6 +28,9 @@ public class UserService {
     @Autowired
     private AddressRepository addressRepository;
 
+    @Autowired
+    private ShipmentRepository shipmentRepository;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -254,7 +258,7 @@ public class UserService {
             .orElseThrow(() -> new RuntimeException("User not found"));
 
         UserStats stats = new UserStats();
-        stats.setTotalShipments(user.getShipments() != null ? user.getShipments().size() : 0);
+        stats.setTotalShipments((int) shipmentRepository.countByUserId(userId));
         stats.setTotalAddresses(getUserAddresses(userId).size());
         stats.setAccountCreated(user.getCreatedAt());
         stats.setLastLogin(user.getLastLogin());
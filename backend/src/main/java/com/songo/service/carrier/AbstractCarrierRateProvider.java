@@ -0,0 +1,66 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+import com.songo.service.pricing.PricingEngine;
+import com.songo.service.pricing.RateCard;
+import com.songo.service.pricing.ZoneChart;
+import com.songo.service.pricing.ZoneChartService;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Shared helpers for carrier rate providers
+ */
+public abstract class AbstractCarrierRateProvider implements CarrierRateProvider {
+
+    private static final String DEMO_RATE_CARD = "CARRIER_DEMO";
+
+    @Autowired
+    private PricingEngine pricingEngine;
+
+    @Autowired
+    private ZoneChartService zoneChartService;
+
+    /**
+     * Build a demo quote for this carrier (used when no API is configured)
+     */
+    protected QuoteResponse demoQuote(QuoteRequest request, String serviceName, String serviceCode,
+                                      double multiplier, int transitDays) {
+        QuoteResponse quote = new QuoteResponse();
+        quote.setCarrierName(getCarrierName());
+        quote.setServiceName(serviceName);
+        quote.setServiceCode(serviceCode);
+        quote.setPrice(calculateDemoPrice(request, multiplier));
+        quote.setCurrency("USD");
+        quote.setEstimatedTransitDays(transitDays);
+        quote.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(transitDays));
+        quote.setDemo(true);
+        return quote;
+    }
+
+    /**
+     * Calculate demo pricing from the CARRIER_DEMO rate card, scaled per service
+     */
+    protected BigDecimal calculateDemoPrice(QuoteRequest request, double multiplier) {
+        RateCard card = pricingEngine.getCard(DEMO_RATE_CARD);
+        long cents = card.priceCents(0, demoZone(request, card), PricingEngine.toCentiUnits(request.getWeight()));
+
+        if (request.getDimensionsLength() != null) {
+            double volume = request.getDimensionsLength() * request.getDimensionsWidth() * request.getDimensionsHeight();
+            cents += card.volumeChargeCents(Math.round(volume));
+        }
+
+        return PricingEngine.toAmount(RateCard.applyBps(cents, (int) Math.round(multiplier * 10_000)));
+    }
+
+    private int demoZone(QuoteRequest request, RateCard card) {
+        ZoneChart chart = zoneChartService.getChart();
+        int pair = chart.pairIndex(request.getOriginCountry(), request.getOriginZip(),
+            request.getDestinationCountry(), request.getDestinationZip());
+        // Lanes not covered by the chart price as a mid zone
+        return pair != ZoneChart.UNKNOWN ? chart.zoneAt(pair) : card.getZoneCount() / 2;
+    }
+}
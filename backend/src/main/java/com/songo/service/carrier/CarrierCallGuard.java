@@ -0,0 +1,69 @@
+package com.songo.service.carrier;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Guards remote carrier API calls with a per-carrier bulkhead and circuit breaker.
+ * Both are configured under {@code resilience4j.*.configs.carrier} and can be
+ * overridden per carrier under {@code resilience4j.*.instances.<key>}.
+ * A full bulkhead or an open circuit fails the call immediately with
+ * {@code BulkheadFullException} / {@code CallNotPermittedException}.
+ * Breaker state and call metrics are published as {@code resilience4j.*} meters.
+ */
+@Component
+public class CarrierCallGuard {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarrierCallGuard.class);
+
+    private static final String CONFIG_NAME = "carrier";
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final Set<String> registeredCarriers = ConcurrentHashMap.newKeySet();
+
+    public CarrierCallGuard(CircuitBreakerRegistry circuitBreakerRegistry,
+                            BulkheadRegistry bulkheadRegistry,
+                            MeterRegistry meterRegistry) {
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * Run a remote call for a carrier through its bulkhead and circuit breaker
+     */
+    public <T> Mono<T> protect(String carrierKey, Mono<T> remoteCall) {
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(carrierKey, CONFIG_NAME);
+        return remoteCall
+            .transformDeferred(CircuitBreakerOperator.of(circuitBreaker(carrierKey)))
+            .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    private CircuitBreaker circuitBreaker(String carrierKey) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(carrierKey, CONFIG_NAME);
+        if (registeredCarriers.add(carrierKey)) {
+            circuitBreaker.getEventPublisher().onStateTransition(event -> {
+                logger.warn("Circuit breaker for carrier {} moved {}", carrierKey, event.getStateTransition());
+                meterRegistry.counter("carrier.circuit.transitions",
+                    "carrier", carrierKey,
+                    "from", event.getStateTransition().getFromState().name(),
+                    "to", event.getStateTransition().getToState().name()).increment();
+            });
+        }
+        return circuitBreaker;
+    }
+}
@@ -0,0 +1,84 @@
+package com.songo.service.carrier;
+
+import io.netty.channel.ChannelOption;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.core.env.Environment;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * Builds non-blocking WebClients for carrier APIs on Reactor Netty.
+ * All clients share Reactor Netty's event loops; each carrier gets its own
+ * bounded connection pool. Pool size and timeouts are read from
+ * {@code carriers.<key>.http.*}, falling back to {@code carriers.http.*}.
+ */
+@Component
+public class CarrierHttpClientFactory {
+
+    private static final Logger logger = LoggerFactory.getLogger(CarrierHttpClientFactory.class);
+
+    private final Environment environment;
+    private final WebClient.Builder webClientBuilder;
+    private final List<ConnectionProvider> connectionProviders = new CopyOnWriteArrayList<>();
+
+    public CarrierHttpClientFactory(Environment environment, WebClient.Builder webClientBuilder) {
+        this.environment = environment;
+        this.webClientBuilder = webClientBuilder;
+    }
+
+    /**
+     * Create a WebClient backed by its own connection pool for the given carrier
+     */
+    public WebClient create(String carrierKey) {
+        int maxConnections = setting(carrierKey, "max-connections", 20);
+        int pendingAcquireMaxCount = setting(carrierKey, "pending-acquire-max-count", 200);
+        int connectTimeoutMs = setting(carrierKey, "connect-timeout-ms", 2000);
+        int readTimeoutMs = setting(carrierKey, "read-timeout-ms", 5000);
+        int keepAliveSeconds = setting(carrierKey, "keep-alive-seconds", 30);
+        int acquireTimeoutMs = setting(carrierKey, "acquire-timeout-ms", 500);
+
+        ConnectionProvider connectionProvider = ConnectionProvider.builder("carrier-" + carrierKey)
+            .maxConnections(maxConnections)
+            .pendingAcquireMaxCount(pendingAcquireMaxCount)
+            .pendingAcquireTimeout(Duration.ofMillis(acquireTimeoutMs))
+            .maxIdleTime(Duration.ofSeconds(keepAliveSeconds))
+            .maxLifeTime(Duration.ofMinutes(5))
+            .evictInBackground(Duration.ofSeconds(keepAliveSeconds))
+            .metrics(true)
+            .build();
+        connectionProviders.add(connectionProvider);
+
+        HttpClient httpClient = HttpClient.create(connectionProvider)
+            .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, connectTimeoutMs)
+            .responseTimeout(Duration.ofMillis(readTimeoutMs))
+            .keepAlive(true);
+
+        logger.info("Created HTTP client for carrier {}: maxConnections={}, pendingAcquireMaxCount={}, "
+                    + "connectTimeout={}ms, readTimeout={}ms",
+                    carrierKey, maxConnections, pendingAcquireMaxCount, connectTimeoutMs, readTimeoutMs);
+        return webClientBuilder.clone()
+            .clientConnector(new ReactorClientHttpConnector(httpClient))
+            .build();
+    }
+
+    @PreDestroy
+    public void close() {
+        for (ConnectionProvider connectionProvider : connectionProviders) {
+            connectionProvider.disposeLater().block(Duration.ofSeconds(5));
+        }
+    }
+
+    private int setting(String carrierKey, String name, int defaultValue) {
+        Integer fallback = environment.getProperty("carriers.http." + name, Integer.class, defaultValue);
+        return environment.getProperty("carriers." + carrierKey + ".http." + name, Integer.class, fallback);
+    }
+}
@@ -0,0 +1,36 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+
+import java.util.List;
+
+/**
+ * Rate provider for a single carrier.
+ * Implementations are discovered as Spring beans; a provider is used unless
+ * the carrier with the same {@code Carrier.code} is marked inactive.
+ */
+public interface CarrierRateProvider {
+
+    /**
+     * Carrier code, matching {@code Carrier.code} (e.g. "FEDEX")
+     */
+    String getCarrierCode();
+
+    /**
+     * Display name used on quotes (e.g. "FedEx")
+     */
+    String getCarrierName();
+
+    /**
+     * Key for this carrier's settings under {@code carriers.<key>}
+     */
+    default String getConfigKey() {
+        return getCarrierCode().toLowerCase();
+    }
+
+    /**
+     * Get rates for a request. May block on the carrier API; callers apply deadlines.
+     */
+    List<QuoteResponse> getRates(QuoteRequest request);
+}
@@ -0,0 +1,30 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.tracking.TrackingEventRequest;
+
+import java.util.List;
+
+/**
+ * Tracking source for one or more carriers.
+ * Implementations are discovered as Spring beans; the first provider that
+ * supports a carrier code is polled for it.
+ */
+public interface CarrierTrackingProvider {
+
+    /**
+     * Whether this provider tracks shipments of the carrier with this {@code Carrier.code}
+     */
+    boolean supports(String carrierCode);
+
+    /**
+     * Most tracking numbers the carrier API accepts in one request
+     */
+    int getMaxBatchSize(String carrierCode);
+
+    /**
+     * Fetch scan events for the tracking numbers. Carriers may return a
+     * shipment's full history; already stored events are dropped on ingest.
+     * May block on the carrier API; callers apply deadlines.
+     */
+    List<TrackingEventRequest> track(String carrierCode, List<String> trackingNumbers);
+}
@@ -0,0 +1,21 @@
+package com.songo.service.carrier;
+
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+
+import java.util.function.Predicate;
+
+/**
+ * Matches 4xx responses from carrier APIs. These mean the request itself was
+ * rejected and must not count towards opening a carrier's circuit breaker.
+ */
+public class ClientErrorPredicate implements Predicate<Throwable> {
+
+    @Override
+    public boolean test(Throwable throwable) {
+        if (throwable instanceof WebClientResponseException e) {
+            return e.getStatusCode().is4xxClientError();
+        }
+        return throwable instanceof HttpClientErrorException;
+    }
+}
@@ -0,0 +1,32 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * DHL rate provider (simplified implementation)
+ */
+@Component
+public class DhlRateProvider extends AbstractCarrierRateProvider {
+
+    @Override
+    public String getCarrierCode() {
+        return "DHL";
+    }
+
+    @Override
+    public String getCarrierName() {
+        return "DHL";
+    }
+
+    @Override
+    public List<QuoteResponse> getRates(QuoteRequest request) {
+        List<QuoteResponse> quotes = new ArrayList<>();
+        quotes.add(demoQuote(request, "DHL Express Worldwide", "P", 1.8, 2));
+        return quotes;
+    }
+}
@@ -0,0 +1,162 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+import com.songo.service.OAuthTokenManager;
+import com.songo.service.carrier.fedex.FedExRate;
+import com.songo.service.carrier.fedex.FedExRateRequest;
+import com.songo.service.carrier.fedex.FedExRateResponseParser;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.*;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * FedEx rate provider (FedEx REST Rate API with OAuth client credentials)
+ */
+@Component
+public class FedExRateProvider extends AbstractCarrierRateProvider implements ReactiveCarrierRateProvider {
+    
+    private static final Logger logger = LoggerFactory.getLogger(FedExRateProvider.class);
+    
+    private static final Map<String, String> SERVICE_NAMES = Map.of(
+        "FEDEX_GROUND", "FedEx Ground",
+        "FEDEX_EXPRESS_SAVER", "FedEx Express Saver",
+        "FEDEX_2_DAY", "FedEx 2Day",
+        "STANDARD_OVERNIGHT", "FedEx Standard Overnight",
+        "PRIORITY_OVERNIGHT", "FedEx Priority Overnight"
+    );
+    
+    private final WebClient webClient;
+    
+    private final OAuthTokenManager oAuthTokenManager;
+    
+    private final CarrierCallGuard callGuard;
+    
+    @Value("${carriers.fedex.api-url:https://apis.fedex.com}")
+    private String fedexApiUrl;
+    
+    @Value("${carriers.fedex.api-key:}")
+    private String fedexApiKey;
+    
+    @Value("${carriers.fedex.secret-key:}")
+    private String fedexSecretKey;
+    
+    @Value("${carriers.fedex.account:YOUR_FEDEX_ACCOUNT_NUMBER}")
+    private String fedexAccountNumber;
+    
+    public FedExRateProvider(CarrierHttpClientFactory httpClientFactory, OAuthTokenManager oAuthTokenManager,
+                             CarrierCallGuard callGuard) {
+        this.webClient = httpClientFactory.create("fedex");
+        this.oAuthTokenManager = oAuthTokenManager;
+        this.callGuard = callGuard;
+    }
+    
+    @Override
+    public String getCarrierCode() {
+        return "FEDEX";
+    }
+    
+    @Override
+    public String getCarrierName() {
+        return "FedEx";
+    }
+    
+    /**
+     * Get FedEx quotes, falling back to demo rates when the API is not configured or fails
+     */
+    @Override
+    public Mono<List<QuoteResponse>> getRatesReactive(QuoteRequest request) {
+        if (fedexApiKey.isEmpty()) {
+            // Return demo data if no API key configured
+            return Mono.fromSupplier(() -> getDemoQuotes(request));
+        }
+        
+        Mono<List<QuoteResponse>> apiCall = Mono.fromFuture(() -> oAuthTokenManager.getAccessTokenAsync(fedexCredentials()))
+            .flatMap(accessToken -> webClient.post()
+                .uri(fedexApiUrl + "/rate/v1/rates/quotes")
+                .contentType(MediaType.APPLICATION_JSON)
+                .headers(headers -> headers.setBearerAuth(accessToken))
+                .bodyValue(FedExRateRequest.of(request, fedexAccountNumber))
+                .retrieve()
+                .bodyToMono(byte[].class)
+                .map(this::parseFedExResponse));
+        
+        return callGuard.protect(getConfigKey(), apiCall)
+            .onErrorResume(e -> fallback(request, e));
+    }
+    
+    /**
+     * Log a failed API call and fall back to demo data
+     */
+    private Mono<List<QuoteResponse>> fallback(QuoteRequest request, Throwable error) {
+        if (error instanceof CallNotPermittedException || error instanceof BulkheadFullException) {
+            // Circuit open or too many calls in flight: the API was skipped
+            logger.debug("Skipping FedEx API: {}", error.getMessage());
+        } else if (error instanceof WebClientResponseException e) {
+            logger.error("FedEx API error: {} - {}", e.getStatusCode(), e.getResponseBodyAsString());
+            if (e.getStatusCode() == HttpStatus.UNAUTHORIZED) {
+                // Token revoked or rotated early; fetch a fresh one next time
+                oAuthTokenManager.invalidate(fedexCredentials());
+            }
+        } else {
+            logger.error("Error calling FedEx API: {}", error.getMessage(), error);
+        }
+        return Mono.fromSupplier(() -> getDemoQuotes(request));
+    }
+    
+    private OAuthTokenManager.ClientCredentials fedexCredentials() {
+        return new OAuthTokenManager.ClientCredentials(fedexApiUrl + "/oauth/token", fedexApiKey, fedexSecretKey);
+    }
+    
+    /**
+     * Parse FedEx API response
+     */
+    private List<QuoteResponse> parseFedExResponse(byte[] responseBody) {
+        List<FedExRate> rates;
+        try {
+            rates = FedExRateResponseParser.parse(responseBody);
+        } catch (IOException e) {
+            throw new IllegalStateException("Unreadable FedEx rate response: " + e.getMessage(), e);
+        }
+        
+        List<QuoteResponse> quotes = new ArrayList<>(rates.size());
+        for (FedExRate rate : rates) {
+            QuoteResponse quote = new QuoteResponse();
+            quote.setCarrierName(getCarrierName());
+            quote.setServiceName(SERVICE_NAMES.getOrDefault(rate.serviceType(), rate.serviceType()));
+            quote.setServiceCode(rate.serviceType());
+            quote.setPrice(rate.amount());
+            quote.setCurrency(rate.currency());
+            quote.setEstimatedTransitDays(rate.transitDays());
+            if (rate.transitDays() != null) {
+                quote.setEstimatedDeliveryDate(LocalDateTime.now().plusDays(rate.transitDays()));
+            }
+            quotes.add(quote);
+        }
+        return quotes;
+    }
+    
+    /**
+     * Get demo FedEx quotes (fallback when API is not configured)
+     */
+    private List<QuoteResponse> getDemoQuotes(QuoteRequest request) {
+        List<QuoteResponse> quotes = new ArrayList<>();
+        quotes.add(demoQuote(request, "FedEx Ground", "FEDEX_GROUND", 0.85, 5));
+        quotes.add(demoQuote(request, "FedEx Express Saver", "FEDEX_EXPRESS_SAVER", 1.2, 3));
+        quotes.add(demoQuote(request, "FedEx 2Day", "FEDEX_2_DAY", 1.5, 2));
+        return quotes;
+    }
+}
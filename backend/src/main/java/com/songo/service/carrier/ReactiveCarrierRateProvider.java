@@ -0,0 +1,27 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Rate provider whose carrier calls are non-blocking. The quote fan-out
+ * subscribes to {@link #getRatesReactive} directly, so no thread is held
+ * while the carrier answers; {@link #getRates} is a blocking adapter for
+ * other callers.
+ */
+public interface ReactiveCarrierRateProvider extends CarrierRateProvider {
+
+    /**
+     * Get rates for a request without blocking
+     */
+    Mono<List<QuoteResponse>> getRatesReactive(QuoteRequest request);
+
+    @Override
+    default List<QuoteResponse> getRates(QuoteRequest request) {
+        List<QuoteResponse> quotes = getRatesReactive(request).block();
+        return quotes != null ? quotes : List.of();
+    }
+}
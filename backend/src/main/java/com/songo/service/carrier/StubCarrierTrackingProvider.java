@@ -0,0 +1,115 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.tracking.TrackingEventRequest;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.env.Environment;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Local carrier stub for tracking, for development only (off unless
+ * {@code tracking.stub.enabled} is set). It answers solely for the carrier
+ * code in {@code tracking.stub.carrier-code}, so shipments of real carriers
+ * never receive fabricated scans. Each poll may advance a shipment one scan
+ * along pickup, transit, out for delivery and delivered, and returns the full
+ * scan history like real carrier APIs do. Batch limits come from
+ * {@code carriers.<key>.tracking.max-batch-size}.
+ */
+@Component
+@ConditionalOnProperty(name = "tracking.stub.enabled", havingValue = "true")
+public class StubCarrierTrackingProvider implements CarrierTrackingProvider {
+
+    private static final String[][] SCANS = {
+        {"PICKUP", "IN_TRANSIT", "Package picked up from origin"},
+        {"IN_TRANSIT", "IN_TRANSIT", "Package is in transit"},
+        {"ARRIVED_AT_FACILITY", "IN_TRANSIT", "Arrived at destination facility"},
+        {"OUT_FOR_DELIVERY", "OUT_FOR_DELIVERY", "Package is out for delivery"},
+        {"DELIVERED", "DELIVERED", "Package has been delivered"}
+    };
+
+    private final Environment environment;
+
+    // Scan times reached so far per tracking number
+    private final Map<String, List<LocalDateTime>> histories = new ConcurrentHashMap<>();
+
+    @Value("${tracking.stub.carrier-code:STUB}")
+    private String stubCarrierCode;
+
+    @Value("${tracking.stub.advance-probability:0.3}")
+    private double advanceProbability;
+
+    @Value("${tracking.stub.latency-ms:50}")
+    private long latencyMs;
+
+    public StubCarrierTrackingProvider(Environment environment) {
+        this.environment = environment;
+    }
+
+    @Override
+    public boolean supports(String carrierCode) {
+        return stubCarrierCode.equals(carrierCode);
+    }
+
+    @Override
+    public int getMaxBatchSize(String carrierCode) {
+        Integer fallback = environment.getProperty("carriers.tracking.max-batch-size", Integer.class, 10);
+        return environment.getProperty("carriers." + carrierCode.toLowerCase(Locale.ROOT) + ".tracking.max-batch-size",
+            Integer.class, fallback);
+    }
+
+    @Override
+    public List<TrackingEventRequest> track(String carrierCode, List<String> trackingNumbers) {
+        if (trackingNumbers.size() > getMaxBatchSize(carrierCode)) {
+            throw new IllegalArgumentException("Batch of " + trackingNumbers.size() + " exceeds "
+                                               + carrierCode + " limit of " + getMaxBatchSize(carrierCode));
+        }
+        simulateLatency();
+
+        List<TrackingEventRequest> events = new ArrayList<>();
+        for (String trackingNumber : trackingNumbers) {
+            List<LocalDateTime> history = histories.computeIfAbsent(trackingNumber, n -> new ArrayList<>());
+            synchronized (history) {
+                if (history.size() < SCANS.length
+                        && (history.isEmpty() || ThreadLocalRandom.current().nextDouble() < advanceProbability)) {
+                    history.add(LocalDateTime.now());
+                }
+                for (int i = 0; i < history.size(); i++) {
+                    events.add(scan(carrierCode, trackingNumber, SCANS[i], history.get(i)));
+                }
+            }
+        }
+        return events;
+    }
+
+    private TrackingEventRequest scan(String carrierCode, String trackingNumber, String[] scan, LocalDateTime at) {
+        TrackingEventRequest event = new TrackingEventRequest();
+        event.setTrackingNumber(trackingNumber);
+        event.setCarrierCode(carrierCode);
+        event.setEventType(scan[0]);
+        event.setStatus(scan[1]);
+        event.setStatusDescription(scan[2]);
+        event.setEventDate(at);
+        if ("DELIVERED".equals(scan[1])) {
+            event.setActualDelivery(at);
+        }
+        return event;
+    }
+
+    private void simulateLatency() {
+        if (latencyMs > 0) {
+            try {
+                Thread.sleep(latencyMs);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * UPS rate provider (simplified implementation)
+ */
+@Component
+public class UpsRateProvider extends AbstractCarrierRateProvider {
+
+    @Override
+    public String getCarrierCode() {
+        return "UPS";
+    }
+
+    @Override
+    public String getCarrierName() {
+        return "UPS";
+    }
+
+    @Override
+    public List<QuoteResponse> getRates(QuoteRequest request) {
+        // For demo purposes, return mock UPS quotes
+        List<QuoteResponse> quotes = new ArrayList<>();
+        quotes.add(demoQuote(request, "UPS Ground", "03", 0.9, 5));
+        quotes.add(demoQuote(request, "UPS 3 Day Select", "12", 1.3, 3));
+        return quotes;
+    }
+}
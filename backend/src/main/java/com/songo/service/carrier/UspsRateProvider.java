@@ -0,0 +1,32 @@
+package com.songo.service.carrier;
+
+import com.songo.dto.quote.QuoteRequest;
+import com.songo.dto.quote.QuoteResponse;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * USPS rate provider (simplified implementation)
+ */
+@Component
+public class UspsRateProvider extends AbstractCarrierRateProvider {
+
+    @Override
+    public String getCarrierCode() {
+        return "USPS";
+    }
+
+    @Override
+    public String getCarrierName() {
+        return "USPS";
+    }
+
+    @Override
+    public List<QuoteResponse> getRates(QuoteRequest request) {
+        List<QuoteResponse> quotes = new ArrayList<>();
+        quotes.add(demoQuote(request, "Priority Mail", "Priority", 0.7, 3));
+        return quotes;
+    }
+}
@@ -0,0 +1,8 @@
+package com.songo.service.carrier.fedex;
+
+import java.math.BigDecimal;
+
+/**
+ * One rated service from a FedEx Rate API response
+ */
+public record FedExRate(String serviceType, BigDecimal amount, String currency, Integer transitDays) {}
@@ -0,0 +1,48 @@
+package com.songo.service.carrier.fedex;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.songo.dto.quote.QuoteRequest;
+
+import java.util.List;
+
+/**
+ * FedEx Rate API request body
+ */
+public record FedExRateRequest(AccountNumber accountNumber, RequestedShipment requestedShipment) {
+
+    public record AccountNumber(String value) {}
+
+    public record RequestedShipment(Party shipper, List<Party> recipients,
+                                    List<PackageLineItem> requestedPackageLineItems) {}
+
+    public record Party(Address address) {}
+
+    public record Address(List<String> streetLines, String city, String stateOrProvinceCode,
+                          String postalCode, String countryCode) {}
+
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    public record PackageLineItem(Weight weight, Dimensions dimensions) {}
+
+    public record Weight(Double value, String units) {}
+
+    public record Dimensions(Double length, Double width, Double height, String units) {}
+
+    /**
+     * Build the request for a quote
+     */
+    public static FedExRateRequest of(QuoteRequest request, String accountNumber) {
+        Party shipper = new Party(new Address(List.of(request.getOriginAddress()), request.getOriginCity(),
+            request.getOriginState(), request.getOriginZip(), request.getOriginCountry()));
+        Party recipient = new Party(new Address(List.of(request.getDestinationAddress()), request.getDestinationCity(),
+            request.getDestinationState(), request.getDestinationZip(), request.getDestinationCountry()));
+
+        Dimensions dimensions = request.getDimensionsLength() != null
+            ? new Dimensions(request.getDimensionsLength(), request.getDimensionsWidth(),
+                             request.getDimensionsHeight(), "IN")
+            : null;
+        PackageLineItem lineItem = new PackageLineItem(new Weight(request.getWeight(), "LB"), dimensions);
+
+        return new FedExRateRequest(new AccountNumber(accountNumber),
+            new RequestedShipment(shipper, List.of(recipient), List.of(lineItem)));
+    }
+}
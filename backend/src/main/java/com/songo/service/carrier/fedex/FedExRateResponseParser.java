@@ -0,0 +1,172 @@
+package com.songo.service.carrier.fedex;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Streaming parser for FedEx Rate API responses. Reads only
+ * {@code output.rateReplyDetails[].serviceType},
+ * {@code ratedShipmentDetails[].totalNetCharge} and
+ * {@code operationalDetail.transitTime}; everything else is skipped without
+ * being materialized.
+ */
+public final class FedExRateResponseParser {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private static final String DEFAULT_CURRENCY = "USD";
+
+    // transitTime is an enum such as "THREE_DAYS" in the REST API
+    private static final Map<String, Integer> TRANSIT_TIMES = Map.ofEntries(
+        Map.entry("ONE_DAY", 1), Map.entry("TWO_DAYS", 2), Map.entry("THREE_DAYS", 3),
+        Map.entry("FOUR_DAYS", 4), Map.entry("FIVE_DAYS", 5), Map.entry("SIX_DAYS", 6),
+        Map.entry("SEVEN_DAYS", 7), Map.entry("EIGHT_DAYS", 8), Map.entry("NINE_DAYS", 9),
+        Map.entry("TEN_DAYS", 10), Map.entry("ELEVEN_DAYS", 11), Map.entry("TWELVE_DAYS", 12),
+        Map.entry("THIRTEEN_DAYS", 13), Map.entry("FOURTEEN_DAYS", 14), Map.entry("FIFTEEN_DAYS", 15),
+        Map.entry("SIXTEEN_DAYS", 16), Map.entry("SEVENTEEN_DAYS", 17), Map.entry("EIGHTEEN_DAYS", 18),
+        Map.entry("NINETEEN_DAYS", 19), Map.entry("TWENTY_DAYS", 20));
+
+    private FedExRateResponseParser() {}
+
+    /**
+     * Parse a response body. Malformed JSON or an unexpected shape throws
+     * instead of producing an empty rate list.
+     */
+    public static List<FedExRate> parse(byte[] body) throws IOException {
+        List<FedExRate> rates = new ArrayList<>();
+        try (JsonParser parser = JSON_FACTORY.createParser(body)) {
+            expect(parser.nextToken(), JsonToken.START_OBJECT, "response");
+            while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                String field = parser.currentName();
+                JsonToken value = parser.nextToken();
+                if ("output".equals(field) && value == JsonToken.START_OBJECT) {
+                    readOutput(parser, rates);
+                } else {
+                    parser.skipChildren();
+                }
+            }
+        }
+        return rates;
+    }
+
+    private static void readOutput(JsonParser parser, List<FedExRate> rates) throws IOException {
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("rateReplyDetails".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readRateReplyDetail(parser, rates);
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+    }
+
+    private static void readRateReplyDetail(JsonParser parser, List<FedExRate> rates) throws IOException {
+        String serviceType = null;
+        Integer transitDays = null;
+        List<BigDecimal> amounts = new ArrayList<>(2);
+        List<String> currencies = new ArrayList<>(2);
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("serviceType".equals(field)) {
+                serviceType = parser.getValueAsString();
+            } else if ("ratedShipmentDetails".equals(field) && value == JsonToken.START_ARRAY) {
+                while (parser.nextToken() == JsonToken.START_OBJECT) {
+                    readRatedShipmentDetail(parser, amounts, currencies);
+                }
+            } else if ("operationalDetail".equals(field) && value == JsonToken.START_OBJECT) {
+                transitDays = readTransitTime(parser);
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (serviceType == null) {
+            throw new IOException("FedEx rate reply detail without serviceType");
+        }
+        for (int i = 0; i < amounts.size(); i++) {
+            rates.add(new FedExRate(serviceType, amounts.get(i), currencies.get(i), transitDays));
+        }
+    }
+
+    private static void readRatedShipmentDetail(JsonParser parser, List<BigDecimal> amounts,
+                                                List<String> currencies) throws IOException {
+        BigDecimal amount = null;
+        String currency = null;
+
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("totalNetCharge".equals(field)) {
+                if (value == JsonToken.START_OBJECT) {
+                    // { "amount": 12.34, "currency": "USD" }
+                    while (parser.nextToken() == JsonToken.FIELD_NAME) {
+                        String chargeField = parser.currentName();
+                        JsonToken chargeValue = parser.nextToken();
+                        if ("amount".equals(chargeField)) {
+                            amount = readDecimal(parser, chargeValue);
+                        } else if ("currency".equals(chargeField)) {
+                            currency = parser.getValueAsString();
+                        } else {
+                            parser.skipChildren();
+                        }
+                    }
+                } else {
+                    amount = readDecimal(parser, value);
+                }
+            } else if ("currency".equals(field) && currency == null) {
+                currency = parser.getValueAsString();
+            } else {
+                parser.skipChildren();
+            }
+        }
+
+        if (amount != null) {
+            amounts.add(amount);
+            currencies.add(currency != null ? currency : DEFAULT_CURRENCY);
+        }
+    }
+
+    private static Integer readTransitTime(JsonParser parser) throws IOException {
+        Integer transitDays = null;
+        while (parser.nextToken() == JsonToken.FIELD_NAME) {
+            String field = parser.currentName();
+            JsonToken value = parser.nextToken();
+            if ("transitTime".equals(field)) {
+                if (value == JsonToken.VALUE_NUMBER_INT) {
+                    transitDays = parser.getIntValue();
+                } else if (value == JsonToken.VALUE_STRING) {
+                    transitDays = TRANSIT_TIMES.get(parser.getText());
+                }
+            } else {
+                parser.skipChildren();
+            }
+        }
+        return transitDays;
+    }
+
+    private static BigDecimal readDecimal(JsonParser parser, JsonToken value) throws IOException {
+        return switch (value) {
+            case VALUE_NUMBER_INT, VALUE_NUMBER_FLOAT -> parser.getDecimalValue();
+            case VALUE_STRING -> new BigDecimal(parser.getText());
+            default -> throw new IOException("Expected a number for a FedEx charge but found " + value);
+        };
+    }
+
+    private static void expect(JsonToken actual, JsonToken expected, String what) throws IOException {
+        if (actual != expected) {
+            throw new IOException("Expected " + expected + " at start of FedEx " + what + " but found " + actual);
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.songo.service.expiry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Hashed timer wheel for ids with a deadline. Deadlines are bucketed into
+ * fixed-width ticks; scheduling is O(1) and {@link #advance(long)} only
+ * touches the buckets that came due. Only deadlines within
+ * {@link #getHorizonMillis()} of the last advance are accepted, so every
+ * bucket holds entries of a single rotation. Thread-safe.
+ */
+public class TimerWheel {
+
+    private final long tickMillis;
+    private final Queue<Entry>[] buckets;
+
+    private volatile long currentTick;
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    public TimerWheel(long tickMillis, int bucketCount, long startMillis) {
+        if (tickMillis <= 0 || bucketCount < 2) {
+            throw new IllegalArgumentException("Timer wheel needs a positive tick and at least two buckets");
+        }
+        this.tickMillis = tickMillis;
+        this.buckets = new Queue[bucketCount];
+        for (int i = 0; i < bucketCount; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.currentTick = startMillis / tickMillis;
+    }
+
+    /**
+     * Schedule an id. Returns false if the deadline is beyond the horizon;
+     * deadlines already past fire on the next advance.
+     */
+    public boolean schedule(long id, long deadlineMillis) {
+        long tick = currentTick;
+        // Round up so an entry's bucket is never drained before its deadline
+        long deadlineTick = Math.max(Math.floorDiv(deadlineMillis + tickMillis - 1, tickMillis), tick + 1);
+        if (deadlineTick - tick >= buckets.length) {
+            return false;
+        }
+        buckets[(int) (deadlineTick % buckets.length)].add(new Entry(id, deadlineMillis));
+        return true;
+    }
+
+    /**
+     * Move the wheel to the given time and return the ids that came due
+     */
+    public synchronized List<Long> advance(long nowMillis) {
+        List<Long> due = new ArrayList<>();
+        long targetTick = nowMillis / tickMillis;
+        // After a long pause one full rotation covers every bucket
+        long fromTick = Math.max(currentTick + 1, targetTick - buckets.length + 1);
+        for (long tick = fromTick; tick <= targetTick; tick++) {
+            Queue<Entry> bucket = buckets[(int) (tick % buckets.length)];
+            int pending = bucket.size();
+            for (int i = 0; i < pending; i++) {
+                Entry entry = bucket.poll();
+                if (entry == null) {
+                    break;
+                }
+                if (entry.deadlineMillis() <= nowMillis) {
+                    due.add(entry.id());
+                } else {
+                    // Scheduled a full rotation ahead while this bucket was draining
+                    bucket.add(entry);
+                }
+            }
+        }
+        if (targetTick > currentTick) {
+            currentTick = targetTick;
+        }
+        return due;
+    }
+
+    public long getHorizonMillis() {
+        return tickMillis * (buckets.length - 1);
+    }
+
+    public int size() {
+        int size = 0;
+        for (Queue<Entry> bucket : buckets) {
+            size += bucket.size();
+        }
+        return size;
+    }
+
+    private record Entry(long id, long deadlineMillis) {}
+}
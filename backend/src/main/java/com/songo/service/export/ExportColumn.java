@@ -0,0 +1,8 @@
+package com.songo.service.export;
+
+import java.util.function.Function;
+
+/**
+ * A named column of an export and how to read its value from a row
+ */
+public record ExportColumn<T>(String name, Function<T, Object> value) {}
@@ -0,0 +1,188 @@
+package com.songo.service.export;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.songo.model.Address;
+import com.songo.model.Invoice;
+import com.songo.model.Payment;
+import com.songo.model.Shipment;
+import com.songo.model.User;
+import com.songo.repository.InvoiceRepository;
+import com.songo.repository.PaymentRepository;
+import com.songo.repository.ShipmentRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.List;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Streams a user's shipments, invoices and payments to an output stream as
+ * CSV or NDJSON. Rows are read through a forward-only cursor and detached once
+ * written, so memory stays flat however many rows a user has.
+ */
+@Service
+public class ExportService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ExportService.class);
+
+    private static final int BUFFER_SIZE = 64 * 1024;
+
+    private static final List<ExportColumn<Shipment>> SHIPMENT_COLUMNS = List.of(
+        new ExportColumn<>("shipmentNumber", Shipment::getShipmentNumber),
+        new ExportColumn<>("trackingNumber", Shipment::getTrackingNumber),
+        new ExportColumn<>("carrier", s -> s.getCarrier().getName()),
+        new ExportColumn<>("status", Shipment::getStatus),
+        new ExportColumn<>("shipmentType", Shipment::getShipmentType),
+        new ExportColumn<>("originCity", s -> s.getOriginAddress().getCity()),
+        new ExportColumn<>("originProvince", s -> s.getOriginAddress().getProvince()),
+        new ExportColumn<>("originPostalCode", s -> s.getOriginAddress().getPostalCode()),
+        new ExportColumn<>("originCountry", s -> s.getOriginAddress().getCountry()),
+        new ExportColumn<>("destinationCity", s -> s.getDestinationAddress().getCity()),
+        new ExportColumn<>("destinationProvince", s -> s.getDestinationAddress().getProvince()),
+        new ExportColumn<>("destinationPostalCode", s -> s.getDestinationAddress().getPostalCode()),
+        new ExportColumn<>("destinationCountry", s -> s.getDestinationAddress().getCountry()),
+        new ExportColumn<>("totalWeight", Shipment::getTotalWeight),
+        new ExportColumn<>("totalValue", Shipment::getTotalValue),
+        new ExportColumn<>("baseCost", Shipment::getBaseCost),
+        new ExportColumn<>("fuelSurcharge", Shipment::getFuelSurcharge),
+        new ExportColumn<>("taxes", Shipment::getTaxes),
+        new ExportColumn<>("totalCost", Shipment::getTotalCost),
+        new ExportColumn<>("currency", Shipment::getCurrency),
+        new ExportColumn<>("pickupDate", Shipment::getPickupDate),
+        new ExportColumn<>("estimatedDelivery", Shipment::getEstimatedDelivery),
+        new ExportColumn<>("deliveryDate", Shipment::getDeliveryDate),
+        new ExportColumn<>("invoiceNumber", s -> s.getInvoice() != null ? s.getInvoice().getInvoiceNumber() : null),
+        new ExportColumn<>("createdAt", Shipment::getCreatedAt)
+    );
+
+    private static final List<ExportColumn<Invoice>> INVOICE_COLUMNS = List.of(
+        new ExportColumn<>("invoiceNumber", Invoice::getInvoiceNumber),
+        new ExportColumn<>("shipmentId", i -> i.getShipment() != null ? i.getShipment().getId() : null),
+        new ExportColumn<>("status", Invoice::getInvoiceStatus),
+        new ExportColumn<>("subtotal", Invoice::getSubtotal),
+        new ExportColumn<>("discountAmount", Invoice::getDiscountAmount),
+        new ExportColumn<>("shippingFee", Invoice::getShippingFee),
+        new ExportColumn<>("taxRate", Invoice::getTaxRate),
+        new ExportColumn<>("taxAmount", Invoice::getTaxAmount),
+        new ExportColumn<>("totalAmount", Invoice::getTotalAmount),
+        new ExportColumn<>("currency", Invoice::getCurrency),
+        new ExportColumn<>("issueDate", Invoice::getIssueDate),
+        new ExportColumn<>("dueDate", Invoice::getDueDate),
+        new ExportColumn<>("paidDate", Invoice::getPaidDate),
+        new ExportColumn<>("billingName", Invoice::getBillingName),
+        new ExportColumn<>("billingEmail", Invoice::getBillingEmail),
+        new ExportColumn<>("createdAt", Invoice::getCreatedAt)
+    );
+
+    private static final List<ExportColumn<Payment>> PAYMENT_COLUMNS = List.of(
+        new ExportColumn<>("paymentNumber", Payment::getPaymentNumber),
+        new ExportColumn<>("shipmentId", p -> p.getShipment() != null ? p.getShipment().getId() : null),
+        new ExportColumn<>("invoiceId", p -> p.getInvoice() != null ? p.getInvoice().getId() : null),
+        new ExportColumn<>("status", Payment::getPaymentStatus),
+        new ExportColumn<>("paymentMethod", Payment::getPaymentMethod),
+        new ExportColumn<>("amount", Payment::getAmount),
+        new ExportColumn<>("currency", Payment::getCurrency),
+        new ExportColumn<>("cardBrand", Payment::getCardBrand),
+        new ExportColumn<>("cardLastFour", Payment::getCardLastFour),
+        new ExportColumn<>("refundAmount", Payment::getRefundAmount),
+        new ExportColumn<>("refundedAt", Payment::getRefundedAt),
+        new ExportColumn<>("processedAt", Payment::getProcessedAt),
+        new ExportColumn<>("createdAt", Payment::getCreatedAt)
+    );
+
+    private final ShipmentRepository shipmentRepository;
+    private final InvoiceRepository invoiceRepository;
+    private final PaymentRepository paymentRepository;
+    private final ObjectMapper objectMapper;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public ExportService(ShipmentRepository shipmentRepository,
+                         InvoiceRepository invoiceRepository,
+                         PaymentRepository paymentRepository,
+                         ObjectMapper objectMapper) {
+        this.shipmentRepository = shipmentRepository;
+        this.invoiceRepository = invoiceRepository;
+        this.paymentRepository = paymentRepository;
+        this.objectMapper = objectMapper;
+    }
+
+    /**
+     * Write all of a user's shipments, oldest first; returns the row count
+     */
+    @Transactional(readOnly = true)
+    public long exportShipments(User user, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Shipment> rows = shipmentRepository.streamByUserId(user.getId())) {
+            return export("shipments", user, rows, SHIPMENT_COLUMNS, format, gzip, out, shipment -> {
+                // Addresses and the invoice were fetched with the row; the few carriers stay managed
+                detach(shipment.getOriginAddress());
+                detach(shipment.getDestinationAddress());
+                detach(shipment);
+            });
+        }
+    }
+
+    /**
+     * Write all of a user's invoices, oldest first; returns the row count
+     */
+    @Transactional(readOnly = true)
+    public long exportInvoices(User user, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Invoice> rows = invoiceRepository.streamByUserId(user.getId())) {
+            return export("invoices", user, rows, INVOICE_COLUMNS, format, gzip, out, this::detach);
+        }
+    }
+
+    /**
+     * Write all of a user's payments, oldest first; returns the row count
+     */
+    @Transactional(readOnly = true)
+    public long exportPayments(User user, ExportFormat format, boolean gzip, OutputStream out) throws IOException {
+        try (Stream<Payment> rows = paymentRepository.streamByUserId(user.getId())) {
+            return export("payments", user, rows, PAYMENT_COLUMNS, format, gzip, out, this::detach);
+        }
+    }
+
+    private <T> long export(String name, User user, Stream<T> rows, List<ExportColumn<T>> columns,
+                            ExportFormat format, boolean gzip, OutputStream out,
+                            Consumer<T> release) throws IOException {
+        long start = System.nanoTime();
+        OutputStream target = gzip
+            ? new GZIPOutputStream(out, BUFFER_SIZE)
+            : new BufferedOutputStream(out, BUFFER_SIZE);
+        ExportWriter<T> writer = ExportWriter.of(format, columns, target, objectMapper);
+        writer.writeHeader();
+
+        long count = 0;
+        for (T row : (Iterable<T>) rows::iterator) {
+            writer.write(row);
+            release.accept(row);
+            count++;
+        }
+
+        writer.flush();
+        if (target instanceof GZIPOutputStream gzipOut) {
+            gzipOut.finish();
+        }
+        target.flush();
+
+        logger.info("Exported {} {} as {} for user {} in {} ms", count, name, format, user.getId(),
+                    (System.nanoTime() - start) / 1_000_000);
+        return count;
+    }
+
+    private void detach(Object entity) {
+        if (entity != null) {
+            entityManager.detach(entity);
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.songo.service.export;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Writes export rows one at a time to an output stream. Nothing is held
+ * beyond the current row and the writer's buffer.
+ */
+public abstract class ExportWriter<T> {
+
+    protected final List<ExportColumn<T>> columns;
+
+    protected ExportWriter(List<ExportColumn<T>> columns) {
+        this.columns = columns;
+    }
+
+    public static <T> ExportWriter<T> of(ExportFormat format, List<ExportColumn<T>> columns,
+                                         OutputStream out, ObjectMapper objectMapper) throws IOException {
+        return switch (format) {
+            case CSV -> new CsvWriter<>(columns, out);
+            case NDJSON -> new NdjsonWriter<>(columns, out, objectMapper);
+        };
+    }
+
+    public abstract void writeHeader() throws IOException;
+
+    public abstract void write(T row) throws IOException;
+
+    /**
+     * Flush buffered output; the underlying stream is left open
+     */
+    public abstract void flush() throws IOException;
+
+    /**
+     * RFC 4180 CSV with a header row. Text starting with a formula character
+     * is prefixed with an apostrophe so spreadsheets do not evaluate it.
+     */
+    private static final class CsvWriter<T> extends ExportWriter<T> {
+
+        private final Writer writer;
+
+        CsvWriter(List<ExportColumn<T>> columns, OutputStream out) {
+            super(columns);
+            this.writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        }
+
+        @Override
+        public void writeHeader() throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writer.write(columns.get(i).name());
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                writeValue(columns.get(i).value().apply(row));
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void flush() throws IOException {
+            writer.flush();
+        }
+
+        private void writeValue(Object value) throws IOException {
+            if (value == null) {
+                return;
+            }
+            if (value instanceof BigDecimal decimal) {
+                writer.write(decimal.toPlainString());
+                return;
+            }
+            String text = value instanceof Enum<?> e ? e.name() : value.toString();
+            if (value instanceof String && !text.isEmpty() && "=+-@\t\r".indexOf(text.charAt(0)) >= 0) {
+                text = "'" + text;
+            }
+            if (text.indexOf(',') < 0 && text.indexOf('"') < 0 && text.indexOf('\n') < 0 && text.indexOf('\r') < 0) {
+                writer.write(text);
+                return;
+            }
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    /**
+     * One JSON object per line, keyed by column name
+     */
+    private static final class NdjsonWriter<T> extends ExportWriter<T> {
+
+        private final JsonGenerator generator;
+
+        NdjsonWriter(List<ExportColumn<T>> columns, OutputStream out, ObjectMapper objectMapper) throws IOException {
+            super(columns);
+            this.generator = objectMapper.createGenerator(out);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            this.generator.setRootValueSeparator(null);
+        }
+
+        @Override
+        public void writeHeader() {
+            // Each line names its fields
+        }
+
+        @Override
+        public void write(T row) throws IOException {
+            generator.writeStartObject();
+            for (ExportColumn<T> column : columns) {
+                generator.writeObjectField(column.name(), column.value().apply(row));
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void flush() throws IOException {
+            generator.flush();
+        }
+    }
+}
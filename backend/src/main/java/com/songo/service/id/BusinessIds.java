@@ -0,0 +1,49 @@
+package com.songo.service.id;
+
+/**
+ * Business numbers for quotes, shipments, tracking, invoices and payments,
+ * rendered as prefix + Snowflake id. One instance per node, created by
+ * {@code BusinessIdConfig} from {@code ids.node-id}; services assign the
+ * numbers when they create entities.
+ */
+public final class BusinessIds {
+
+    public static final String QUOTE_PREFIX = "QT";
+    public static final String SHIPMENT_PREFIX = "SH";
+    public static final String TRACKING_PREFIX = "SG";
+    public static final String INVOICE_PREFIX = "INV";
+    public static final String PAYMENT_PREFIX = "PAY";
+
+    private final SnowflakeIdGenerator generator;
+
+    /**
+     * Every backend node must use a different node id
+     */
+    public BusinessIds(int nodeId) {
+        this.generator = new SnowflakeIdGenerator(nodeId);
+    }
+
+    public int getNodeId() {
+        return generator.getNodeId();
+    }
+
+    public String quoteNumber() {
+        return QUOTE_PREFIX + generator.nextId();
+    }
+
+    public String shipmentNumber() {
+        return SHIPMENT_PREFIX + generator.nextId();
+    }
+
+    public String trackingNumber() {
+        return TRACKING_PREFIX + generator.nextId();
+    }
+
+    public String invoiceNumber() {
+        return INVOICE_PREFIX + generator.nextId();
+    }
+
+    public String paymentNumber() {
+        return PAYMENT_PREFIX + generator.nextId();
+    }
+}
@@ -0,0 +1,51 @@
+package com.songo.service.id;
+
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free, time-ordered 63-bit id generator (Snowflake layout):
+ * 41 bits of milliseconds since 2024-01-01, 10 bits of node id and a 12-bit
+ * per-millisecond sequence. Ids are unique as long as node ids are.
+ * If the sequence is exhausted or the clock steps back, the generator keeps
+ * counting on a logical clock instead of waiting, so it never blocks.
+ */
+public final class SnowflakeIdGenerator {
+
+    public static final int NODE_BITS = 10;
+    public static final int MAX_NODE_ID = (1 << NODE_BITS) - 1;
+
+    private static final int SEQUENCE_BITS = 12;
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+
+    private final long nodeId;
+
+    // (milliseconds since epoch << SEQUENCE_BITS) | sequence of the last issued id
+    private final AtomicLong state = new AtomicLong();
+
+    public SnowflakeIdGenerator(int nodeId) {
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("Node id must be between 0 and " + MAX_NODE_ID + ": " + nodeId);
+        }
+        this.nodeId = nodeId;
+    }
+
+    public long nextId() {
+        while (true) {
+            long current = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            // A new millisecond restarts the sequence; otherwise increment, carrying
+            // into the timestamp when the sequence overflows
+            long next = now > (current >>> SEQUENCE_BITS) ? now << SEQUENCE_BITS : current + 1;
+            if (state.compareAndSet(current, next)) {
+                long timestamp = next >>> SEQUENCE_BITS;
+                long sequence = next & ((1L << SEQUENCE_BITS) - 1);
+                return (timestamp << (NODE_BITS + SEQUENCE_BITS)) | (nodeId << SEQUENCE_BITS) | sequence;
+            }
+        }
+    }
+
+    public int getNodeId() {
+        return (int) nodeId;
+    }
+}
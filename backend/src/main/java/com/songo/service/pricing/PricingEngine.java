@@ -0,0 +1,184 @@
+package com.songo.service.pricing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * Table-driven pricing: loads rate cards once and prices in long cents.
+ * Convert with {@link #toAmount(long)} only at the API edge.
+ */
+@Service
+public class PricingEngine {
+
+    private static final Logger logger = LoggerFactory.getLogger(PricingEngine.class);
+
+    private final Map<String, RateCard> cards;
+
+    public PricingEngine(ResourceLoader resourceLoader,
+                         @Value("${pricing.rate-cards-location:classpath:pricing/rate-cards.txt}") String location) {
+        Resource resource = resourceLoader.getResource(location);
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            this.cards = parse(reader, location);
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load rate cards from " + location, e);
+        }
+        cards.values().forEach(card -> logger.info("Loaded {}", card));
+    }
+
+    /**
+     * Get a rate card by name
+     */
+    public RateCard getCard(String name) {
+        RateCard card = cards.get(name);
+        if (card == null) {
+            throw new RuntimeException("Rate card not found: " + name);
+        }
+        return card;
+    }
+
+    /**
+     * Cents to a 2-decimal amount for entities and API responses
+     */
+    public static BigDecimal toAmount(long cents) {
+        return BigDecimal.valueOf(cents, 2);
+    }
+
+    /**
+     * Amount to cents, rounding half up
+     */
+    public static long toCents(BigDecimal amount) {
+        return amount.setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+    }
+
+    /**
+     * Weight in units to hundredths of a unit, as used by rate cards
+     */
+    public static long toCentiUnits(double weight) {
+        return Math.round(weight * 100.0);
+    }
+
+    public static long toCentiUnits(BigDecimal weight) {
+        return weight.movePointRight(2).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    private static Map<String, RateCard> parse(BufferedReader reader, String location) throws IOException {
+        Map<String, RateCard> cards = new LinkedHashMap<>();
+        CardBuilder current = null;
+        String line;
+        int lineNumber = 0;
+
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            try {
+                if (line.startsWith("[")) {
+                    if (current != null) {
+                        cards.put(current.name, current.build());
+                    }
+                    current = new CardBuilder(line);
+                } else if (current == null) {
+                    throw new IllegalArgumentException("grid cell before any [CARD] header");
+                } else {
+                    current.addCell(line);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Invalid rate card " + location + " line " + lineNumber
+                    + ": " + e.getMessage(), e);
+            }
+        }
+        if (current != null) {
+            cards.put(current.name, current.build());
+        }
+        return cards;
+    }
+
+    /**
+     * Collects the cells of one card and lays them out in flat arrays
+     */
+    private static final class CardBuilder {
+        private final String name;
+        private int fuelBps;
+        private int taxBps;
+        private long volumeCents;
+        private final Map<String, Integer> services = new LinkedHashMap<>();
+        private final TreeSet<Long> weightBreaks = new TreeSet<>();
+        private final Map<String, long[]> cells = new HashMap<>();
+        private int zoneCount;
+
+        CardBuilder(String header) {
+            int end = header.indexOf(']');
+            if (end < 0) {
+                throw new IllegalArgumentException("unterminated card header");
+            }
+            this.name = header.substring(1, end).trim();
+            for (String attribute : header.substring(end + 1).trim().split("\\s+")) {
+                if (attribute.isEmpty()) {
+                    continue;
+                }
+                String[] kv = attribute.split("=", 2);
+                switch (kv[0]) {
+                    case "fuel-bps" -> fuelBps = Integer.parseInt(kv[1]);
+                    case "tax-bps" -> taxBps = Integer.parseInt(kv[1]);
+                    case "volume-cents" -> volumeCents = Long.parseLong(kv[1]);
+                    default -> throw new IllegalArgumentException("unknown card attribute " + kv[0]);
+                }
+            }
+        }
+
+        void addCell(String line) {
+            String[] parts = line.split(",");
+            if (parts.length != 5) {
+                throw new IllegalArgumentException("expected service,zone,max-weight,fixed-cents,per-unit-cents");
+            }
+            String service = parts[0].trim();
+            int zone = Integer.parseInt(parts[1].trim());
+            String maxWeight = parts[2].trim();
+            long weightBreak = "*".equals(maxWeight) ? Long.MAX_VALUE : toCentiUnits(new BigDecimal(maxWeight));
+
+            services.putIfAbsent(service, services.size());
+            weightBreaks.add(weightBreak);
+            zoneCount = Math.max(zoneCount, zone + 1);
+            cells.put(service + "|" + zone + "|" + weightBreak,
+                new long[] { Long.parseLong(parts[3].trim()), Long.parseLong(parts[4].trim()) });
+        }
+
+        RateCard build() {
+            long[] breaks = weightBreaks.stream().mapToLong(Long::longValue).toArray();
+            int size = services.size() * zoneCount * breaks.length;
+            long[] fixed = new long[size];
+            long[] perUnit = new long[size];
+
+            for (Map.Entry<String, Integer> service : services.entrySet()) {
+                for (int zone = 0; zone < zoneCount; zone++) {
+                    for (int b = 0; b < breaks.length; b++) {
+                        long[] cell = cells.get(service.getKey() + "|" + zone + "|" + breaks[b]);
+                        if (cell == null) {
+                            throw new IllegalArgumentException("card " + name + " has no cell for service "
+                                + service.getKey() + ", zone " + zone + ", weight break " + breaks[b]);
+                        }
+                        int index = (service.getValue() * zoneCount + zone) * breaks.length + b;
+                        fixed[index] = cell[0];
+                        perUnit[index] = cell[1];
+                    }
+                }
+            }
+            return new RateCard(name, services, zoneCount, breaks, fixed, perUnit, fuelBps, taxBps, volumeCents);
+        }
+    }
+}
@@ -0,0 +1,130 @@
+package com.songo.service.pricing;
+
+import java.util.Arrays;
+import java.util.Map;
+
+/**
+ * Immutable rate card: a service x zone x weight-break grid of fixed and
+ * per-unit charges, stored in flat primitive arrays.
+ * All amounts are long cents; weights are hundredths of the card's weight unit.
+ * Pricing methods do not allocate.
+ */
+public final class RateCard {
+
+    private final String name;
+    private final Map<String, Integer> serviceIndex;
+    private final int zoneCount;
+    private final long[] weightBreaks;
+    private final long[] fixedCents;
+    private final long[] perUnitCents;
+    private final int fuelBps;
+    private final int taxBps;
+    private final long volumeCents;
+
+    RateCard(String name, Map<String, Integer> serviceIndex, int zoneCount, long[] weightBreaks,
+             long[] fixedCents, long[] perUnitCents, int fuelBps, int taxBps, long volumeCents) {
+        this.name = name;
+        this.serviceIndex = Map.copyOf(serviceIndex);
+        this.zoneCount = zoneCount;
+        this.weightBreaks = weightBreaks;
+        this.fixedCents = fixedCents;
+        this.perUnitCents = perUnitCents;
+        this.fuelBps = fuelBps;
+        this.taxBps = taxBps;
+        this.volumeCents = volumeCents;
+    }
+
+    /**
+     * Integer id of a service on this card, or -1 when the card does not price it
+     */
+    public int serviceId(String service) {
+        Integer id = serviceIndex.get(service);
+        return id != null ? id : -1;
+    }
+
+    /**
+     * Fixed charge of the grid cell for a shipment
+     */
+    public long fixedCents(int serviceId, int zone, long centiWeight) {
+        return fixedCents[cell(serviceId, zone, centiWeight)];
+    }
+
+    /**
+     * Linehaul charge: fixed charge plus per-unit weight charge of the grid cell
+     */
+    public long priceCents(int serviceId, int zone, long centiWeight) {
+        int cell = cell(serviceId, zone, centiWeight);
+        return fixedCents[cell] + divideHalfUp(perUnitCents[cell] * centiWeight, 100);
+    }
+
+    /**
+     * Price many shipments at once for bulk re-rating; results go into {@code out}
+     */
+    public void priceCents(int[] serviceIds, int[] zones, long[] centiWeights, long[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = priceCents(serviceIds[i], zones[i], centiWeights[i]);
+        }
+    }
+
+    /**
+     * Fuel surcharge on a charge, using this card's fuel rate
+     */
+    public long fuelCents(long cents) {
+        return applyBps(cents, fuelBps);
+    }
+
+    /**
+     * Tax on a charge, using this card's tax rate
+     */
+    public long taxCents(long cents) {
+        return applyBps(cents, taxBps);
+    }
+
+    /**
+     * Volume charge for a package of the given cubic units
+     */
+    public long volumeChargeCents(long cubicUnits) {
+        return volumeCents * cubicUnits;
+    }
+
+    public String getName() { return name; }
+    public int getZoneCount() { return zoneCount; }
+    public int getServiceCount() { return serviceIndex.size(); }
+    public int getWeightBreakCount() { return weightBreaks.length; }
+
+    /**
+     * Scale a charge by basis points (10000 = 100%), rounding half up
+     */
+    public static long applyBps(long cents, int bps) {
+        return divideHalfUp(cents * bps, 10_000);
+    }
+
+    private int cell(int serviceId, int zone, long centiWeight) {
+        if (serviceId < 0 || serviceId >= serviceIndex.size()) {
+            throw new IllegalArgumentException("Unknown service id " + serviceId + " on rate card " + name);
+        }
+        // Zones beyond the chart price as the farthest zone
+        int z = Math.min(Math.max(zone, 0), zoneCount - 1);
+        return (serviceId * zoneCount + z) * weightBreaks.length + breakIndex(centiWeight);
+    }
+
+    private int breakIndex(long centiWeight) {
+        long[] breaks = weightBreaks;
+        for (int i = 0; i < breaks.length - 1; i++) {
+            if (centiWeight <= breaks[i]) {
+                return i;
+            }
+        }
+        return breaks.length - 1;
+    }
+
+    private static long divideHalfUp(long value, long divisor) {
+        return value >= 0 ? (value + divisor / 2) / divisor : -((-value + divisor / 2) / divisor);
+    }
+
+    @Override
+    public String toString() {
+        return "RateCard{" + name + ", services=" + serviceIndex.keySet() + ", zones=" + zoneCount
+            + ", weightBreaks=" + Arrays.toString(weightBreaks) + "}";
+    }
+}
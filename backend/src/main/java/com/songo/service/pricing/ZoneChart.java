@@ -0,0 +1,221 @@
+package com.songo.service.pricing;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.*;
+
+/**
+ * Immutable postal-prefix zone index built from a zone chart.
+ * Postal codes are reduced to their 3-character prefix (US ZIP3, Canadian FSA),
+ * mapped to a region through a flat table per country, and region pairs to a
+ * zone and transit days through a region x region matrix. Postal codes of
+ * countries the chart does not list are {@link #UNKNOWN}, so a UK "SW1" is
+ * never read as a Canadian FSA. Lookups are O(1) and do not allocate.
+ */
+public final class ZoneChart {
+
+    public static final int UNKNOWN = -1;
+
+    private static final int PREFIX_LENGTH = 3;
+    private static final int PREFIX_SPACE = 36 * 36 * 36;
+
+    private final String[] regionNames;
+    // Country codes and their prefix tables; a null code holds regions listed
+    // before any country directive, which match every country
+    private final String[] countries;
+    private final short[][] regionByPrefix;
+    private final byte[] zones;
+    private final byte[] transitDays;
+    private final int zoneCount;
+
+    private ZoneChart(String[] regionNames, String[] countries, short[][] regionByPrefix,
+                      byte[] zones, byte[] transitDays) {
+        this.regionNames = regionNames;
+        this.countries = countries;
+        this.regionByPrefix = regionByPrefix;
+        this.zones = zones;
+        this.transitDays = transitDays;
+        int maxZone = 0;
+        for (byte zone : zones) {
+            maxZone = Math.max(maxZone, zone);
+        }
+        this.zoneCount = maxZone + 1;
+    }
+
+    /**
+     * Index of the origin/destination region pair, or {@link #UNKNOWN} when either
+     * postal code is missing or its country or prefix is not covered by the chart
+     */
+    public int pairIndex(String originCountry, String originPostalCode,
+                         String destinationCountry, String destinationPostalCode) {
+        int origin = region(originCountry, originPostalCode);
+        int destination = region(destinationCountry, destinationPostalCode);
+        if (origin < 0 || destination < 0) {
+            return UNKNOWN;
+        }
+        return origin * regionNames.length + destination;
+    }
+
+    public int zoneAt(int pairIndex) {
+        return zones[pairIndex];
+    }
+
+    public int transitDaysAt(int pairIndex) {
+        return transitDays[pairIndex];
+    }
+
+    /**
+     * Region id for a postal code in a country (ISO code, e.g. "US"), or {@link #UNKNOWN}
+     */
+    public int region(String country, String postalCode) {
+        int table = countryTable(country);
+        int code = prefixCode(postalCode);
+        return table < 0 || code < 0 ? UNKNOWN : regionByPrefix[table][code];
+    }
+
+    private int countryTable(String country) {
+        int anyCountry = UNKNOWN;
+        for (int i = 0; i < countries.length; i++) {
+            if (countries[i] == null) {
+                anyCountry = i;
+            } else if (countries[i].equalsIgnoreCase(country)) {
+                return i;
+            }
+        }
+        return anyCountry;
+    }
+
+    public int getRegionCount() { return regionNames.length; }
+    public int getZoneCount() { return zoneCount; }
+
+    /**
+     * Base-36 code of the first three alphanumeric characters, or -1
+     */
+    static int prefixCode(CharSequence postalCode) {
+        if (postalCode == null) {
+            return -1;
+        }
+        int code = 0;
+        int length = 0;
+        for (int i = 0; i < postalCode.length() && length < PREFIX_LENGTH; i++) {
+            int digit = Character.digit(postalCode.charAt(i), 36);
+            if (digit >= 0) {
+                code = code * 36 + digit;
+                length++;
+            }
+        }
+        return length == PREFIX_LENGTH ? code : -1;
+    }
+
+    /**
+     * Parse a zone chart.
+     * <pre>
+     * country CODE                       country of the regions that follow
+     * region NAME FROM-TO [FROM-TO ...]   postal prefix ranges, inclusive
+     * zone   A B ZONE TRANSIT_DAYS        applies to A-&gt;B and B-&gt;A
+     * same-region ZONE TRANSIT_DAYS       pairs within one region
+     * default ZONE TRANSIT_DAYS           pairs not listed
+     * </pre>
+     */
+    public static ZoneChart parse(BufferedReader reader, String location) throws IOException {
+        List<String> regionNames = new ArrayList<>();
+        Map<String, Integer> regionIds = new HashMap<>();
+        Map<String, short[]> regionByPrefix = new LinkedHashMap<>();
+        String country = null;
+        List<int[]> pairs = new ArrayList<>();
+        int[] sameRegion = null;
+        int[] fallback = null;
+
+        String line;
+        int lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            String[] parts = line.split("\\s+");
+            try {
+                switch (parts[0]) {
+                    case "country" -> country = parts[1].toUpperCase(Locale.ROOT);
+                    case "region" -> {
+                        if (regionIds.containsKey(parts[1])) {
+                            throw new IllegalArgumentException("duplicate region " + parts[1]);
+                        }
+                        int id = regionNames.size();
+                        regionIds.put(parts[1], id);
+                        regionNames.add(parts[1]);
+                        short[] table = regionByPrefix.computeIfAbsent(country, c -> emptyTable());
+                        for (int i = 2; i < parts.length; i++) {
+                            assignRange(table, parts[i], id);
+                        }
+                    }
+                    case "zone" -> pairs.add(new int[] {
+                        regionId(regionIds, parts[1]), regionId(regionIds, parts[2]),
+                        Integer.parseInt(parts[3]), Integer.parseInt(parts[4]) });
+                    case "same-region" -> sameRegion = new int[] { Integer.parseInt(parts[1]), Integer.parseInt(parts[2]) };
+                    case "default" -> fallback = new int[] { Integer.parseInt(parts[1]), Integer.parseInt(parts[2]) };
+                    default -> throw new IllegalArgumentException("unknown directive " + parts[0]);
+                }
+            } catch (RuntimeException e) {
+                throw new IllegalStateException("Invalid zone chart " + location + " line " + lineNumber
+                    + ": " + e.getMessage(), e);
+            }
+        }
+
+        if (regionNames.isEmpty() || fallback == null) {
+            throw new IllegalStateException("Zone chart " + location + " needs at least one region and a default");
+        }
+
+        int n = regionNames.size();
+        byte[] zones = new byte[n * n];
+        byte[] transitDays = new byte[n * n];
+        for (int i = 0; i < n * n; i++) {
+            boolean same = i / n == i % n;
+            int[] entry = same && sameRegion != null ? sameRegion : fallback;
+            zones[i] = (byte) entry[0];
+            transitDays[i] = (byte) entry[1];
+        }
+        for (int[] pair : pairs) {
+            zones[pair[0] * n + pair[1]] = (byte) pair[2];
+            zones[pair[1] * n + pair[0]] = (byte) pair[2];
+            transitDays[pair[0] * n + pair[1]] = (byte) pair[3];
+            transitDays[pair[1] * n + pair[0]] = (byte) pair[3];
+        }
+
+        return new ZoneChart(regionNames.toArray(new String[0]), regionByPrefix.keySet().toArray(new String[0]),
+            regionByPrefix.values().toArray(new short[0][]), zones, transitDays);
+    }
+
+    private static short[] emptyTable() {
+        short[] table = new short[PREFIX_SPACE];
+        Arrays.fill(table, (short) UNKNOWN);
+        return table;
+    }
+
+    private static void assignRange(short[] regionByPrefix, String range, int regionId) {
+        String[] bounds = range.split("-", 2);
+        int from = prefixCode(bounds[0]);
+        int to = bounds.length > 1 ? prefixCode(bounds[1]) : from;
+        if (from < 0 || to < from) {
+            throw new IllegalArgumentException("invalid prefix range " + range);
+        }
+        for (int code = from; code <= to; code++) {
+            regionByPrefix[code] = (short) regionId;
+        }
+    }
+
+    private static int regionId(Map<String, Integer> regionIds, String name) {
+        Integer id = regionIds.get(name);
+        if (id == null) {
+            throw new IllegalArgumentException("unknown region " + name);
+        }
+        return id;
+    }
+
+    @Override
+    public String toString() {
+        return "ZoneChart{regions=" + regionNames.length + ", countries=" + countries.length
+            + ", zones=" + zoneCount + "}";
+    }
+}
@@ -0,0 +1,79 @@
+package com.songo.service.pricing;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Holds the current {@link ZoneChart} and reloads it when the chart file changes.
+ * A chart that fails to parse is logged and the previous one stays in use.
+ */
+@Service
+public class ZoneChartService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ZoneChartService.class);
+
+    private final Resource resource;
+    private final String location;
+
+    private volatile ZoneChart chart;
+    private volatile long loadedLastModified;
+
+    public ZoneChartService(ResourceLoader resourceLoader,
+                            @Value("${zones.chart-location:classpath:zones/zone-chart.txt}") String location) {
+        this.location = location;
+        this.resource = resourceLoader.getResource(location);
+        this.loadedLastModified = lastModified();
+        this.chart = load();
+    }
+
+    public ZoneChart getChart() {
+        return chart;
+    }
+
+    /**
+     * Reload the chart if the file was modified since it was last loaded
+     */
+    @Scheduled(fixedDelayString = "${zones.reload-check-interval-ms:30000}")
+    public void reloadIfChanged() {
+        long lastModified = lastModified();
+        if (lastModified <= 0 || lastModified == loadedLastModified) {
+            return;
+        }
+        loadedLastModified = lastModified;
+        try {
+            chart = load();
+        } catch (IllegalStateException e) {
+            logger.error("Keeping previous zone chart: {}", e.getMessage());
+        }
+    }
+
+    private ZoneChart load() {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(resource.getInputStream(), StandardCharsets.UTF_8))) {
+            ZoneChart loaded = ZoneChart.parse(reader, location);
+            logger.info("Loaded {} from {}", loaded, location);
+            return loaded;
+        } catch (IOException e) {
+            throw new IllegalStateException("Failed to load zone chart from " + location, e);
+        }
+    }
+
+    private long lastModified() {
+        try {
+            return resource.lastModified();
+        } catch (IOException e) {
+            // Not a file (e.g. inside a jar): no hot reload
+            return 0;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package com.songo.service.search;
+
+import com.songo.model.Address;
+import com.songo.model.Invoice;
+import com.songo.model.Quote;
+import com.songo.model.Shipment;
+import com.songo.model.User;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Searchable text of one entity: its identifiers, cities and contact names,
+ * plus the owning user for scoping. The title is the first non-blank value.
+ */
+public record SearchDocument(SearchDocumentType type, long id, Long userId, List<String> values) {
+
+    /**
+     * Build a document from a persisted entity, or null if it is not indexed
+     */
+    public static SearchDocument from(Object entity) {
+        if (entity instanceof Quote quote) {
+            return of(SearchDocumentType.QUOTE, quote.getId(), quote.getUser(),
+                quote.getQuoteNumber(), quote.getOriginCity(), quote.getDestinationCity());
+        }
+        if (entity instanceof Shipment shipment) {
+            return of(SearchDocumentType.SHIPMENT, shipment.getId(), shipment.getUser(),
+                shipment.getShipmentNumber(), shipment.getTrackingNumber(), shipment.getCarrierReference());
+        }
+        if (entity instanceof Invoice invoice) {
+            return of(SearchDocumentType.INVOICE, invoice.getId(), invoice.getUser(),
+                invoice.getInvoiceNumber(), invoice.getBillingName(), invoice.getBillingEmail(),
+                invoice.getBillingCity());
+        }
+        if (entity instanceof Address address) {
+            return of(SearchDocumentType.ADDRESS, address.getId(), address.getUser(),
+                address.getContactName(), address.getCompanyName(), address.getCity(), address.getPostalCode());
+        }
+        return null;
+    }
+
+    public static SearchDocument of(SearchDocumentType type, Long id, Long userId, String... values) {
+        if (id == null) {
+            return null;
+        }
+        List<String> present = new ArrayList<>(values.length);
+        for (String value : values) {
+            if (value != null && !value.isBlank()) {
+                present.add(value.trim());
+            }
+        }
+        return new SearchDocument(type, id, userId, present);
+    }
+
+    private static SearchDocument of(SearchDocumentType type, Long id, User user, String... values) {
+        // getId() on a lazy User proxy does not initialize it
+        return of(type, id, user != null ? user.getId() : null, values);
+    }
+
+    public String title() {
+        return values.isEmpty() ? null : values.get(0);
+    }
+
+    public String key() {
+        return key(type, id);
+    }
+
+    static String key(SearchDocumentType type, long id) {
+        return type.name() + ":" + id;
+    }
+}
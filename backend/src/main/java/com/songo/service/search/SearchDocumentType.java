@@ -0,0 +1,24 @@
+package com.songo.service.search;
+
+/**
+ * Entity types kept in the search index, with the table and columns read
+ * when the index is rebuilt. Column order matches {@link SearchDocument#from(Object)}.
+ */
+public enum SearchDocumentType {
+    QUOTE("quotes", "quote_number", "origin_city", "destination_city"),
+    SHIPMENT("shipments", "shipment_number", "tracking_number", "carrier_reference"),
+    INVOICE("invoices", "invoice_number", "billing_name", "billing_email", "billing_city"),
+    ADDRESS("addresses", "contact_name", "company_name", "city", "postal_code");
+
+    private final String table;
+    private final String[] columns;
+
+    SearchDocumentType(String table, String... columns) {
+        this.table = table;
+        this.columns = columns;
+    }
+
+    public String getTable() { return table; }
+
+    public String[] getColumns() { return columns.clone(); }
+}
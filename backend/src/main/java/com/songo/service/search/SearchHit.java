@@ -0,0 +1,6 @@
+package com.songo.service.search;
+
+/**
+ * One search result
+ */
+public record SearchHit(SearchDocumentType type, long id, String title, float score) {}
@@ -0,0 +1,30 @@
+package com.songo.service.search;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * A page of search results. totalHits is exact up to {@code search.max-results}.
+ */
+public record SearchHits(long totalHits, List<SearchHit> hits) {
+
+    public static SearchHits empty() {
+        return new SearchHits(0, List.of());
+    }
+
+    public List<Long> ids() {
+        return hits.stream().map(SearchHit::id).toList();
+    }
+
+    /**
+     * Order loaded entities like the hits, dropping hits whose row no longer exists
+     */
+    public <T> List<T> inHitOrder(Collection<T> entities, Function<T, Long> idOf) {
+        Map<Long, T> byId = entities.stream().collect(Collectors.toMap(idOf, Function.identity()));
+        return hits.stream().map(hit -> byId.get(hit.id())).filter(Objects::nonNull).toList();
+    }
+}
@@ -0,0 +1,576 @@
+package com.songo.service.search;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.apache.lucene.analysis.Analyzer;
+import org.apache.lucene.analysis.LowerCaseFilter;
+import org.apache.lucene.analysis.Tokenizer;
+import org.apache.lucene.analysis.core.KeywordAnalyzer;
+import org.apache.lucene.analysis.miscellaneous.PerFieldAnalyzerWrapper;
+import org.apache.lucene.analysis.ngram.NGramTokenizer;
+import org.apache.lucene.analysis.util.CharTokenizer;
+import org.apache.lucene.document.Document;
+import org.apache.lucene.document.Field;
+import org.apache.lucene.document.NumericDocValuesField;
+import org.apache.lucene.document.StoredField;
+import org.apache.lucene.document.StringField;
+import org.apache.lucene.document.TextField;
+import org.apache.lucene.index.DirectoryReader;
+import org.apache.lucene.index.IndexWriter;
+import org.apache.lucene.index.IndexWriterConfig;
+import org.apache.lucene.index.SegmentInfos;
+import org.apache.lucene.index.StoredFields;
+import org.apache.lucene.index.Term;
+import org.apache.lucene.search.BooleanClause;
+import org.apache.lucene.search.BooleanQuery;
+import org.apache.lucene.search.BoostQuery;
+import org.apache.lucene.search.FieldDoc;
+import org.apache.lucene.search.IndexSearcher;
+import org.apache.lucene.search.PhraseQuery;
+import org.apache.lucene.search.PrefixQuery;
+import org.apache.lucene.search.Query;
+import org.apache.lucene.search.ScoreDoc;
+import org.apache.lucene.search.SearcherManager;
+import org.apache.lucene.search.Sort;
+import org.apache.lucene.search.SortField;
+import org.apache.lucene.search.TermQuery;
+import org.apache.lucene.search.TopFieldCollector;
+import org.apache.lucene.search.TopFieldDocs;
+import org.apache.lucene.store.AlreadyClosedException;
+import org.apache.lucene.store.Directory;
+import org.apache.lucene.store.FSDirectory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Embedded Lucene index over quotes, shipments, invoices and addresses.
+ * Each value is indexed twice: as lower-cased words for prefix matches and as
+ * character trigrams, so any substring of three or more characters is an
+ * exact phrase match on the trigram field. Search cost depends on the number
+ * of matches, not on table size.
+ *
+ * The index lives on local disk under {@code search.index-path}. It is
+ * rebuilt from the database on first start and after an unclean shutdown.
+ * After a clean shutdown it catches up instead: rows whose {@code updated_at}
+ * is past the high-water mark saved with the last commit are re-indexed, and
+ * a type whose document count no longer matches its table is rebuilt, which
+ * covers deletes and rows written by other nodes or outside JPA while this
+ * node was down. Until that is done, {@link #isReady()} is false and callers
+ * fall back to their database queries. While running, the same catch-up runs
+ * every {@code search.reconcile-interval-ms}, so writes made by other nodes
+ * become searchable within that interval.
+ */
+@Service
+public class SearchIndexService {
+
+    private static final Logger logger = LoggerFactory.getLogger(SearchIndexService.class);
+
+    private static final String FIELD_KEY = "key";
+    private static final String FIELD_TYPE = "type";
+    private static final String FIELD_ID = "id";
+    private static final String FIELD_USER = "user";
+    private static final String FIELD_TITLE = "title";
+    private static final String FIELD_WORDS = "words";
+    private static final String FIELD_GRAMS = "grams";
+
+    private static final Set<String> STORED_FIELDS = Set.of(FIELD_TYPE, FIELD_ID, FIELD_TITLE);
+
+    // Commit user data: only a clean shutdown leaves "true" behind
+    private static final String CLEAN_SHUTDOWN = "cleanShutdown";
+    // Commit user data: latest updated_at indexed per type, e.g. "updatedAt.QUOTE"
+    private static final String UPDATED_AT_PREFIX = "updatedAt.";
+
+    private static final int GRAM_SIZE = 3;
+    private static final int MAX_QUERY_WORDS = 8;
+
+    private static final Sort RELEVANCE_THEN_NEWEST = new Sort(
+        SortField.FIELD_SCORE, new SortField(FIELD_ID, SortField.Type.LONG, true));
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Value("${search.enabled:true}")
+    private boolean enabled;
+
+    @Value("${search.index-path:data/search-index}")
+    private String indexPath;
+
+    @Value("${search.max-results:1000}")
+    private int maxResults;
+
+    @Value("${search.rebuild-batch-size:5000}")
+    private int rebuildBatchSize;
+
+    // Rows are re-read from this far before the high-water mark, to cover
+    // transactions that commit late and clock skew between nodes
+    @Value("${search.reconcile-overlap-ms:300000}")
+    private long reconcileOverlapMs;
+
+    private Directory directory;
+    private IndexWriter writer;
+    private SearcherManager searcherManager;
+
+    private final Map<SearchDocumentType, LocalDateTime> highWaterMarks =
+        Collections.synchronizedMap(new EnumMap<>(SearchDocumentType.class));
+
+    private volatile boolean ready;
+    private volatile boolean closing;
+
+    public SearchIndexService(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @PostConstruct
+    public void open() throws IOException {
+        if (!enabled) {
+            logger.info("Search index disabled; searches use the database");
+            return;
+        }
+        directory = FSDirectory.open(Paths.get(indexPath));
+        Map<String, String> userData = DirectoryReader.indexExists(directory)
+            ? SegmentInfos.readLatestCommit(directory).getUserData() : Map.of();
+        boolean cleanShutdown = "true".equals(userData.get(CLEAN_SHUTDOWN));
+        for (SearchDocumentType type : SearchDocumentType.values()) {
+            String highWaterMark = userData.get(UPDATED_AT_PREFIX + type.name());
+            if (highWaterMark != null) {
+                highWaterMarks.put(type, LocalDateTime.parse(highWaterMark));
+            }
+        }
+
+        writer = new IndexWriter(directory, new IndexWriterConfig(analyzer())
+            .setOpenMode(IndexWriterConfig.OpenMode.CREATE_OR_APPEND));
+        searcherManager = new SearcherManager(writer, null);
+        writer.setLiveCommitData(commitData(false).entrySet());
+        writer.commit();
+
+        // An index written before high-water marks were kept cannot catch up
+        boolean canCatchUp = cleanShutdown && highWaterMarks.size() == SearchDocumentType.values().length;
+        Thread startup = canCatchUp
+            ? new Thread(this::catchUp, "search-index-catch-up")
+            : new Thread(this::rebuild, "search-index-rebuild");
+        startup.setDaemon(true);
+        startup.start();
+    }
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Hits beyond this many are not returned; callers needing all matches
+     * use the database when a search reaches it
+     */
+    public int getMaxResults() {
+        return maxResults;
+    }
+
+    /**
+     * Find documents containing every word of the text, best match first.
+     * Restricted to the given types (all if empty) and to a user if userId is set.
+     */
+    public SearchHits search(String text, Set<SearchDocumentType> types, Long userId,
+                             int offset, int limit) throws IOException {
+        Query query = buildQuery(text, types, userId);
+        int numHits = (int) Math.min((long) offset + limit, maxResults);
+        if (query == null || !ready || numHits <= 0) {
+            return SearchHits.empty();
+        }
+
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            TopFieldCollector collector = TopFieldCollector.create(RELEVANCE_THEN_NEWEST, numHits, maxResults);
+            searcher.search(query, collector);
+            TopFieldDocs topDocs = collector.topDocs();
+            StoredFields storedFields = searcher.storedFields();
+            List<SearchHit> hits = new ArrayList<>(Math.max(0, topDocs.scoreDocs.length - offset));
+            for (int i = offset; i < topDocs.scoreDocs.length; i++) {
+                ScoreDoc scoreDoc = topDocs.scoreDocs[i];
+                Document document = storedFields.document(scoreDoc.doc, STORED_FIELDS);
+                float score = (Float) ((FieldDoc) scoreDoc).fields[0];
+                hits.add(new SearchHit(
+                    SearchDocumentType.valueOf(document.get(FIELD_TYPE)),
+                    document.getField(FIELD_ID).numericValue().longValue(),
+                    document.get(FIELD_TITLE),
+                    score));
+            }
+            return new SearchHits(Math.min(topDocs.totalHits.value, maxResults), hits);
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    /**
+     * Add or replace a document once the current transaction commits
+     */
+    public void indexAfterCommit(SearchDocument document) {
+        afterCommit(() -> index(document));
+    }
+
+    /**
+     * Remove a document once the current transaction commits
+     */
+    public void deleteAfterCommit(SearchDocumentType type, long id) {
+        afterCommit(() -> delete(type, id));
+    }
+
+    /**
+     * Add or replace entities saved outside JPA, such as batch inserts
+     */
+    public void indexAll(List<?> entities) {
+        for (Object entity : entities) {
+            SearchDocument document = SearchDocument.from(entity);
+            if (document != null) {
+                index(document);
+            }
+        }
+    }
+
+    public void index(SearchDocument document) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.updateDocument(new Term(FIELD_KEY, document.key()), toLucene(document));
+        } catch (IOException | AlreadyClosedException e) {
+            logger.warn("Failed to index {}: {}", document.key(), e.getMessage());
+        }
+    }
+
+    public void delete(SearchDocumentType type, long id) {
+        if (writer == null) {
+            return;
+        }
+        try {
+            writer.deleteDocuments(new Term(FIELD_KEY, SearchDocument.key(type, id)));
+        } catch (IOException | AlreadyClosedException e) {
+            logger.warn("Failed to remove {} from search index: {}", SearchDocument.key(type, id), e.getMessage());
+        }
+    }
+
+    /**
+     * Make recent changes visible to searches
+     */
+    @Scheduled(fixedDelayString = "${search.refresh-interval-ms:1000}")
+    public void refresh() {
+        if (searcherManager == null || closing) {
+            return;
+        }
+        try {
+            searcherManager.maybeRefresh();
+        } catch (IOException | AlreadyClosedException e) {
+            logger.warn("Failed to refresh search index: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Index rows changed since the last pass, including those written by
+     * other nodes or outside JPA
+     */
+    @Scheduled(fixedDelayString = "${search.reconcile-interval-ms:60000}")
+    public void reconcile() {
+        if (!ready || closing) {
+            return;
+        }
+        try {
+            long documents = 0;
+            for (SearchDocumentType type : SearchDocumentType.values()) {
+                documents += reindex(type, since(type));
+            }
+            logger.debug("Reconciled {} search documents with the database", documents);
+        } catch (Exception e) {
+            if (!closing) {
+                logger.warn("Failed to reconcile search index: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${search.commit-interval-ms:30000}")
+    public void commit() {
+        if (writer == null || closing) {
+            return;
+        }
+        try {
+            if (writer.hasUncommittedChanges()) {
+                writer.setLiveCommitData(commitData(false).entrySet());
+                writer.commit();
+            }
+        } catch (IOException | AlreadyClosedException e) {
+            logger.warn("Failed to commit search index: {}", e.getMessage());
+        }
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (writer == null) {
+            return;
+        }
+        closing = true;
+        // An interrupted rebuild must run again on the next start
+        writer.setLiveCommitData(commitData(ready).entrySet());
+        writer.commit();
+        searcherManager.close();
+        writer.close();
+        directory.close();
+    }
+
+    private void rebuild() {
+        long start = System.nanoTime();
+        try {
+            writer.deleteAll();
+            highWaterMarks.clear();
+            long documents = 0;
+            for (SearchDocumentType type : SearchDocumentType.values()) {
+                documents += reindex(type, null);
+            }
+            writer.setLiveCommitData(commitData(false).entrySet());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+            logger.info("Rebuilt search index with {} documents in {} ms", documents,
+                        (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            if (!closing) {
+                logger.error("Search index rebuild failed; searches use the database", e);
+            }
+        }
+    }
+
+    /**
+     * Bring an index kept from the last clean shutdown up to date with the
+     * database before searches use it
+     */
+    private void catchUp() {
+        long start = System.nanoTime();
+        try {
+            long documents = 0;
+            for (SearchDocumentType type : SearchDocumentType.values()) {
+                documents += reindex(type, since(type));
+            }
+            searcherManager.maybeRefreshBlocking();
+            for (SearchDocumentType type : SearchDocumentType.values()) {
+                if (closing) {
+                    return;
+                }
+                long rows = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + type.getTable(), Long.class);
+                long indexed = count(type);
+                if (rows != indexed) {
+                    // Deleted rows, or rows changed without touching updated_at
+                    logger.info("Search index has {} {} documents for {} rows; rebuilding them",
+                                indexed, type, rows);
+                    writer.deleteDocuments(new Term(FIELD_TYPE, type.name()));
+                    documents += reindex(type, null);
+                }
+            }
+            writer.setLiveCommitData(commitData(false).entrySet());
+            writer.commit();
+            searcherManager.maybeRefreshBlocking();
+            ready = true;
+            logger.info("Opened search index at {} with {} documents; {} re-indexed in {} ms", indexPath,
+                        writer.getDocStats().numDocs, documents, (System.nanoTime() - start) / 1_000_000);
+        } catch (Exception e) {
+            if (!closing) {
+                logger.error("Search index catch-up failed; searches use the database", e);
+            }
+        }
+    }
+
+    private long count(SearchDocumentType type) throws IOException {
+        IndexSearcher searcher = searcherManager.acquire();
+        try {
+            return searcher.count(new TermQuery(new Term(FIELD_TYPE, type.name())));
+        } finally {
+            searcherManager.release(searcher);
+        }
+    }
+
+    private LocalDateTime since(SearchDocumentType type) {
+        LocalDateTime highWaterMark = highWaterMarks.get(type);
+        return highWaterMark == null ? null : highWaterMark.minus(reconcileOverlapMs, ChronoUnit.MILLIS);
+    }
+
+    /**
+     * Index every row of the type, or only those updated at or after since,
+     * and advance the type's high-water mark
+     */
+    private long reindex(SearchDocumentType type, LocalDateTime since) throws IOException {
+        String[] columns = type.getColumns();
+        String sql = "SELECT id, user_id, updated_at, " + String.join(", ", columns) + " FROM " + type.getTable()
+            + " WHERE id > ?" + (since != null ? " AND updated_at >= ?" : "") + " ORDER BY id LIMIT ?";
+        long lastId = 0;
+        long count = 0;
+        while (!closing) {
+            Object[] args = since != null
+                ? new Object[] {lastId, Timestamp.valueOf(since), rebuildBatchSize}
+                : new Object[] {lastId, rebuildBatchSize};
+            List<IndexedRow> page = jdbcTemplate.query(sql, (rs, rowNum) -> {
+                String[] values = new String[columns.length];
+                for (int i = 0; i < columns.length; i++) {
+                    values[i] = rs.getString(i + 4);
+                }
+                long userId = rs.getLong(2);
+                Long owner = rs.wasNull() ? null : userId;
+                Timestamp updatedAt = rs.getTimestamp(3);
+                return new IndexedRow(SearchDocument.of(type, rs.getLong(1), owner, values),
+                                      updatedAt == null ? null : updatedAt.toLocalDateTime());
+            }, args);
+            for (IndexedRow row : page) {
+                writer.updateDocument(new Term(FIELD_KEY, row.document().key()), toLucene(row.document()));
+                if (row.updatedAt() != null) {
+                    highWaterMarks.merge(type, row.updatedAt(), (a, b) -> a.isAfter(b) ? a : b);
+                }
+            }
+            count += page.size();
+            if (page.size() < rebuildBatchSize) {
+                break;
+            }
+            lastId = page.get(page.size() - 1).document().id();
+        }
+        return count;
+    }
+
+    private Map<String, String> commitData(boolean cleanShutdown) {
+        Map<String, String> data = new HashMap<>();
+        data.put(CLEAN_SHUTDOWN, String.valueOf(cleanShutdown));
+        synchronized (highWaterMarks) {
+            highWaterMarks.forEach((type, updatedAt) -> data.put(UPDATED_AT_PREFIX + type.name(), updatedAt.toString()));
+        }
+        return data;
+    }
+
+    private Document toLucene(SearchDocument source) {
+        Document document = new Document();
+        document.add(new StringField(FIELD_KEY, source.key(), Field.Store.NO));
+        document.add(new StringField(FIELD_TYPE, source.type().name(), Field.Store.YES));
+        document.add(new StoredField(FIELD_ID, source.id()));
+        document.add(new NumericDocValuesField(FIELD_ID, source.id()));
+        if (source.userId() != null) {
+            document.add(new StringField(FIELD_USER, source.userId().toString(), Field.Store.NO));
+        }
+        if (source.title() != null) {
+            document.add(new StoredField(FIELD_TITLE, source.title()));
+        }
+        for (String value : source.values()) {
+            document.add(new TextField(FIELD_WORDS, value, Field.Store.NO));
+            document.add(new TextField(FIELD_GRAMS, value, Field.Store.NO));
+        }
+        return document;
+    }
+
+    private Query buildQuery(String text, Set<SearchDocumentType> types, Long userId) {
+        if (text == null) {
+            return null;
+        }
+        BooleanQuery.Builder query = new BooleanQuery.Builder();
+        int words = 0;
+        for (String word : text.toLowerCase(Locale.ROOT).trim().split("\\s+")) {
+            Query wordQuery = wordQuery(word);
+            if (wordQuery != null && words < MAX_QUERY_WORDS) {
+                query.add(wordQuery, BooleanClause.Occur.MUST);
+                words++;
+            }
+        }
+        if (words == 0) {
+            return null;
+        }
+
+        if (types != null && !types.isEmpty() && types.size() < SearchDocumentType.values().length) {
+            BooleanQuery.Builder typeFilter = new BooleanQuery.Builder();
+            for (SearchDocumentType type : types) {
+                typeFilter.add(new TermQuery(new Term(FIELD_TYPE, type.name())), BooleanClause.Occur.SHOULD);
+            }
+            query.add(typeFilter.build(), BooleanClause.Occur.FILTER);
+        }
+        if (userId != null) {
+            query.add(new TermQuery(new Term(FIELD_USER, userId.toString())), BooleanClause.Occur.FILTER);
+        }
+        return query.build();
+    }
+
+    /**
+     * Prefix match on the word's tokens; for three or more characters also an
+     * exact substring match on trigrams, with prefix matches ranked higher
+     */
+    private Query wordQuery(String word) {
+        BooleanQuery.Builder prefix = new BooleanQuery.Builder();
+        int tokens = 0;
+        for (String token : word.split("[^\\p{L}\\p{N}]+")) {
+            if (!token.isEmpty()) {
+                prefix.add(new PrefixQuery(new Term(FIELD_WORDS, token)), BooleanClause.Occur.MUST);
+                tokens++;
+            }
+        }
+        Query prefixQuery = tokens > 0 ? prefix.build() : null;
+        if (word.length() < GRAM_SIZE) {
+            return prefixQuery;
+        }
+
+        PhraseQuery.Builder grams = new PhraseQuery.Builder();
+        for (int i = 0; i + GRAM_SIZE <= word.length(); i++) {
+            grams.add(new Term(FIELD_GRAMS, word.substring(i, i + GRAM_SIZE)), i);
+        }
+        BooleanQuery.Builder either = new BooleanQuery.Builder()
+            .add(grams.build(), BooleanClause.Occur.SHOULD);
+        if (prefixQuery != null) {
+            either.add(new BoostQuery(prefixQuery, 2f), BooleanClause.Occur.SHOULD);
+        }
+        return either.build();
+    }
+
+    private static Analyzer analyzer() {
+        Analyzer words = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = CharTokenizer.fromTokenCharPredicate(Character::isLetterOrDigit);
+                return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+            }
+        };
+        Analyzer grams = new Analyzer() {
+            @Override
+            protected TokenStreamComponents createComponents(String fieldName) {
+                Tokenizer tokenizer = new NGramTokenizer(GRAM_SIZE, GRAM_SIZE);
+                return new TokenStreamComponents(tokenizer, new LowerCaseFilter(tokenizer));
+            }
+
+            @Override
+            public int getPositionIncrementGap(String fieldName) {
+                // Keep phrases from matching across two values
+                return 100;
+            }
+        };
+        return new PerFieldAnalyzerWrapper(new KeywordAnalyzer(), Map.of(FIELD_WORDS, words, FIELD_GRAMS, grams));
+    }
+
+    private record IndexedRow(SearchDocument document, LocalDateTime updatedAt) {}
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -0,0 +1,188 @@
+package com.songo.service;
+
+import com.songo.dto.tracking.TrackedShipment;
+import com.songo.model.Shipment;
+import com.songo.repository.CarrierRepository;
+import com.songo.repository.ShipmentRepository;
+import com.songo.repository.TrackingEventBatchRepository;
+import com.songo.repository.TrackingStatusRepository;
+import com.songo.service.carrier.CarrierCallGuard;
+import com.songo.service.carrier.CarrierTrackingProvider;
+import com.songo.service.carrier.StubCarrierTrackingProvider;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.boot.convert.ApplicationConversionService;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.*;
+
+/**
+ * Runs the tracking poller against the carrier stub, with the JDBC ingest
+ * path on an in-memory H2 database in MySQL mode
+ */
+class TrackingPollerServiceTest {
+
+    private static final long STUB_SHIPMENT = 1L;
+    private static final long FEDEX_SHIPMENT = 2L;
+
+    private JdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+    private ShipmentRepository shipmentRepository;
+    private TrackingPollerService poller;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+            "jdbc:h2:mem:tracking-poller;MODE=MySQL;DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE carriers (id BIGINT PRIMARY KEY, code VARCHAR(20), name VARCHAR(100))");
+        jdbcTemplate.execute("CREATE TABLE shipments (id BIGINT PRIMARY KEY, user_id BIGINT, " +
+            "tracking_number VARCHAR(40), carrier_id BIGINT, status VARCHAR(20), delivered_at TIMESTAMP, " +
+            "latest_event_type VARCHAR(40), latest_event_status VARCHAR(40), " +
+            "latest_event_description VARCHAR(255), latest_event_location VARCHAR(255), " +
+            "latest_event_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbcTemplate.execute("CREATE TABLE tracking_events (id BIGINT AUTO_INCREMENT PRIMARY KEY, " +
+            "shipment_id BIGINT, event_key VARCHAR(32) UNIQUE, event_type VARCHAR(40), status VARCHAR(40), " +
+            "status_description VARCHAR(255), event_date TIMESTAMP, location_city VARCHAR(60), " +
+            "location_state VARCHAR(60), location_country VARCHAR(60), location_zip VARCHAR(20), " +
+            "carrier_code VARCHAR(20), carrier_name VARCHAR(100), tracking_number VARCHAR(40), " +
+            "delivery_signature VARCHAR(60), delivery_instructions VARCHAR(255), estimated_delivery TIMESTAMP, " +
+            "actual_delivery TIMESTAMP, exception_code VARCHAR(40), exception_description VARCHAR(255), " +
+            "created_at TIMESTAMP, updated_at TIMESTAMP)");
+        jdbcTemplate.update("INSERT INTO carriers VALUES (1, 'STUB', 'Stub Carrier'), (2, 'FEDEX', 'FedEx')");
+        jdbcTemplate.update("INSERT INTO shipments (id, user_id, tracking_number, carrier_id, status) " +
+            "VALUES (1, 10, 'SG-STUB-1', 1, 'BOOKED'), (2, 10, 'SG-FEDEX-2', 2, 'BOOKED')");
+
+        meterRegistry = new SimpleMeterRegistry();
+        NamedParameterJdbcTemplate namedParameterJdbcTemplate = new NamedParameterJdbcTemplate(jdbcTemplate);
+        TrackingEventBatchRepository batchRepository =
+            new TrackingEventBatchRepository(jdbcTemplate, namedParameterJdbcTemplate);
+        ReflectionTestUtils.setField(batchRepository, "jdbcBatchSize", 1000);
+        TrackingStatusRepository statusRepository =
+            new TrackingStatusRepository(jdbcTemplate, namedParameterJdbcTemplate);
+        TrackingIngestionService ingestionService = new TrackingIngestionService(batchRepository, statusRepository,
+            new DashboardCache(meterRegistry, 300, 100), meterRegistry);
+        ReflectionTestUtils.setField(ingestionService, "maxEvents", 50000);
+        TrackingService trackingService = new TrackingService();
+        ReflectionTestUtils.setField(trackingService, "trackingIngestionService", ingestionService);
+        ReflectionTestUtils.setField(trackingService, "trackingStatusRepository", statusRepository);
+
+        MockEnvironment environment = new MockEnvironment()
+            .withProperty("tracking.poll.interval.booked", "10ms")
+            .withProperty("tracking.poll.interval.in-transit", "10ms")
+            .withProperty("tracking.poll.interval.out-for-delivery", "10ms");
+        environment.setConversionService(new ApplicationConversionService());
+
+        StubCarrierTrackingProvider stub = new StubCarrierTrackingProvider(environment);
+        ReflectionTestUtils.setField(stub, "stubCarrierCode", "STUB");
+        ReflectionTestUtils.setField(stub, "advanceProbability", 1.0);
+        ReflectionTestUtils.setField(stub, "latencyMs", 0L);
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("stubCarrierTrackingProvider", stub);
+
+        CarrierRepository carrierRepository = mock(CarrierRepository.class);
+        when(carrierRepository.findAllCodes()).thenReturn(List.of("STUB", "FEDEX"));
+        shipmentRepository = mock(ShipmentRepository.class);
+        when(shipmentRepository.findActiveTrackedShipments(anyCollection())).thenReturn(List.of(
+            new TrackedShipment(STUB_SHIPMENT, "SG-STUB-1", "STUB", Shipment.ShipmentStatus.BOOKED)));
+
+        CarrierCallGuard carrierCallGuard = new CarrierCallGuard(
+            CircuitBreakerRegistry.of(Map.of("carrier", CircuitBreakerConfig.ofDefaults())),
+            BulkheadRegistry.of(Map.of("carrier", BulkheadConfig.ofDefaults())), meterRegistry);
+        poller = new TrackingPollerService(shipmentRepository, carrierRepository, trackingService, carrierCallGuard,
+            beanFactory.getBeanProvider(CarrierTrackingProvider.class), environment, meterRegistry);
+        ReflectionTestUtils.setField(poller, "maxPerTick", 2000);
+        ReflectionTestUtils.setField(poller, "concurrency", 1);
+        ReflectionTestUtils.setField(poller, "callTimeoutMs", 5000L);
+        ReflectionTestUtils.setField(poller, "retryDelay", Duration.ofMillis(10));
+        ReflectionTestUtils.setField(poller, "defaultInterval", Duration.ofMillis(10));
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP ALL OBJECTS");
+    }
+
+    @Test
+    void syncOnlyLoadsCarriersWithAProvider() {
+        poller.syncActiveShipments();
+
+        verify(shipmentRepository).findActiveTrackedShipments(List.of("STUB"));
+    }
+
+    @Test
+    void pollingStoresStubScansAndMovesShipmentStatus() {
+        poller.syncActiveShipments();
+
+        pollUntil(() -> eventCount() == 1);
+        assertThat(shipment(STUB_SHIPMENT))
+            .containsEntry("STATUS", "IN_TRANSIT")
+            .containsEntry("LATEST_EVENT_TYPE", "PICKUP");
+
+        pollUntil(() -> "OUT_FOR_DELIVERY".equals(shipment(STUB_SHIPMENT).get("LATEST_EVENT_STATUS")));
+        assertThat(shipment(STUB_SHIPMENT)).containsEntry("STATUS", "IN_TRANSIT");
+
+        pollUntil(() -> "DELIVERED".equals(shipment(STUB_SHIPMENT).get("STATUS")));
+        assertThat(jdbcTemplate.queryForList(
+            "SELECT event_type FROM tracking_events WHERE shipment_id = ? ORDER BY event_date, id",
+            String.class, STUB_SHIPMENT))
+            .containsExactly("PICKUP", "IN_TRANSIT", "ARRIVED_AT_FACILITY", "OUT_FOR_DELIVERY", "DELIVERED");
+        assertThat(jdbcTemplate.queryForObject(
+            "SELECT COUNT(*) FROM tracking_events WHERE event_key IS NULL", Integer.class)).isZero();
+        Map<String, Object> delivered = shipment(STUB_SHIPMENT);
+        assertThat(delivered.get("DELIVERED_AT")).isNotNull().isEqualTo(delivered.get("LATEST_EVENT_AT"));
+
+        // Delivered shipments leave the poll queue; shipments without a provider never enter it
+        assertThat(meterRegistry.get("tracking.poll.tracked").gauge().value()).isZero();
+        assertThat(shipment(FEDEX_SHIPMENT)).containsEntry("STATUS", "BOOKED");
+    }
+
+    // Polls run asynchronously; each round is waited out before the condition is checked again
+    private void pollUntil(BooleanSupplier condition) {
+        AtomicBoolean polling = (AtomicBoolean) ReflectionTestUtils.getField(poller, "polling");
+        long deadline = System.currentTimeMillis() + 10_000;
+        while (!condition.getAsBoolean()) {
+            assertThat(System.currentTimeMillis()).as("poll deadline").isLessThan(deadline);
+            sleep();
+            poller.pollDue();
+            while (polling.get() && System.currentTimeMillis() < deadline) {
+                sleep();
+            }
+        }
+    }
+
+    private int eventCount() {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM tracking_events", Integer.class);
+    }
+
+    private Map<String, Object> shipment(long id) {
+        return jdbcTemplate.queryForMap("SELECT * FROM shipments WHERE id = ?", id);
+    }
+
+    private static void sleep() {
+        try {
+            Thread.sleep(20);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
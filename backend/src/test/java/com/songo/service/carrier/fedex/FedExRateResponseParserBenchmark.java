@@ -0,0 +1,75 @@
+package com.songo.service.carrier.fedex;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Allocation and time per parse of a recorded FedEx Rate API response
+ * (5 services, 2 rated shipments each): the streaming parser against the
+ * Map tree the provider used to deserialize into. Compare
+ * {@code gc.alloc.rate.norm} (bytes per parse):
+ * {@code mvn test -Pbenchmark -DskipTests -Dbenchmark=FedExRateResponseParserBenchmark}
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FedExRateResponseParserBenchmark {
+
+    private static final TypeReference<Map<String, Object>> RESPONSE_TYPE = new TypeReference<>() {};
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private byte[] body;
+
+    @Setup
+    public void load() throws IOException {
+        try (InputStream in = getClass().getResourceAsStream("/fedex/rate-response.json")) {
+            body = in.readAllBytes();
+        }
+        List<FedExRate> streaming = streaming();
+        if (streaming.size() != 10 || !streaming.equals(mapTree())) {
+            throw new IllegalStateException("Parsers disagree on the recorded response: " + streaming);
+        }
+    }
+
+    @Benchmark
+    public List<FedExRate> streaming() throws IOException {
+        return FedExRateResponseParser.parse(body);
+    }
+
+    // The provider's previous parsing: bind the whole body to maps, then walk it with casts
+    @Benchmark
+    @SuppressWarnings("unchecked")
+    public List<FedExRate> mapTree() throws IOException {
+        Map<String, Object> responseBody = objectMapper.readValue(body, RESPONSE_TYPE);
+        List<FedExRate> rates = new ArrayList<>();
+        Map<String, Object> output = (Map<String, Object>) responseBody.get("output");
+        List<Map<String, Object>> rateReplyDetails = (List<Map<String, Object>>) output.get("rateReplyDetails");
+        for (Map<String, Object> rateDetail : rateReplyDetails) {
+            String serviceType = (String) rateDetail.get("serviceType");
+            List<Map<String, Object>> ratedShipmentDetails =
+                (List<Map<String, Object>>) rateDetail.get("ratedShipmentDetails");
+            for (Map<String, Object> shipmentDetail : ratedShipmentDetails) {
+                Map<String, Object> totalNetCharge = (Map<String, Object>) shipmentDetail.get("totalNetCharge");
+                Double amount = (Double) totalNetCharge.get("amount");
+                String currency = (String) totalNetCharge.get("currency");
+                Map<String, Object> operationalDetail = (Map<String, Object>) rateDetail.get("operationalDetail");
+                Integer transitDays = (Integer) operationalDetail.get("transitTime");
+                rates.add(new FedExRate(serviceType, BigDecimal.valueOf(amount), currency, transitDays));
+            }
+        }
+        return rates;
+    }
+}